@@ -6,6 +6,7 @@ import com.nvminh162.bookservice.command.command.UpdateBookCommand;
 import com.nvminh162.bookservice.command.event.BookCreatedEvent;
 import com.nvminh162.bookservice.command.event.BookDeletedEvent;
 import com.nvminh162.bookservice.command.event.BookUpdatedEvent;
+import com.nvminh162.bookservice.mapper.BookMapper;
 import com.nvminh162.commonservice.command.UpdateStatusBookCommand;
 import com.nvminh162.commonservice.command.RollBackStatusBookCommand;
 import com.nvminh162.commonservice.event.BookUpdatedStatusEvent;
@@ -19,11 +20,10 @@ import org.axonframework.eventsourcing.EventSourcingHandler;
 import org.axonframework.modelling.command.AggregateIdentifier;
 import org.axonframework.modelling.command.AggregateLifecycle;
 import org.axonframework.spring.stereotype.Aggregate;
-import org.springframework.beans.BeanUtils;
 
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @NoArgsConstructor
-@Aggregate
+@Aggregate(snapshotTriggerDefinition = "bookSnapshotTrigger")
 public class BookAggregate {
 
     @AggregateIdentifier
@@ -31,39 +31,49 @@ public class BookAggregate {
     String name;
     String author;
     Boolean isReady;
+    // lượt mượn đang giữ sách, null khi sách sẵn sàng
+    String borrowingId;
 
     @CommandHandler
     public BookAggregate(CreateBookCommand command) {
-        BookCreatedEvent event = new BookCreatedEvent();
-        BeanUtils.copyProperties(command, event);
+        BookCreatedEvent event = BookMapper.INSTANCE.toCreatedEvent(command);
         AggregateLifecycle.apply(event);
     }
 
     @CommandHandler
     public void handle(UpdateBookCommand command) {
-        BookUpdatedEvent event = new BookUpdatedEvent();
-        BeanUtils.copyProperties(command, event);
+        BookUpdatedEvent event = BookMapper.INSTANCE.toUpdatedEvent(command);
         AggregateLifecycle.apply(event);
     }
 
     @CommandHandler
     public void handle(DeleteBookCommand command) {
-        BookDeletedEvent event = new BookDeletedEvent();
-        BeanUtils.copyProperties(command, event);
+        BookDeletedEvent event = BookMapper.INSTANCE.toDeletedEvent(command);
         AggregateLifecycle.apply(event);
     }
 
+    // aggregate xử lý tuần tự từng command nên kiểm tra ở đây là nguyên tử: chỉ lượt mượn đầu tiên thắng
     @CommandHandler
     public void handle(UpdateStatusBookCommand command) {
-        BookUpdatedStatusEvent event = new BookUpdatedStatusEvent();
-        BeanUtils.copyProperties(command, event);
+        if (Boolean.FALSE.equals(command.getIsReady()) && Boolean.FALSE.equals(isReady)) {
+            throw new IllegalStateException("Book " + id + " is already borrowed");
+        }
+        // trả sách: chỉ lượt mượn đang giữ sách mới được mở lại
+        if (Boolean.TRUE.equals(command.getIsReady()) && borrowingId != null && command.getBorrowingId() != null
+                && !borrowingId.equals(command.getBorrowingId())) {
+            throw new IllegalStateException("Book " + id + " is held by another borrowing");
+        }
+        BookUpdatedStatusEvent event = BookMapper.INSTANCE.toUpdatedStatusEvent(command);
         AggregateLifecycle.apply(event);
     }
 
     @CommandHandler
     public void handle(RollBackStatusBookCommand command) {
-        BookRollBackStatusEvent event = new BookRollBackStatusEvent();
-        BeanUtils.copyProperties(command, event);
+        // rollback muộn của một lượt mượn khác không được trả sách đang có người giữ
+        if (borrowingId != null && !borrowingId.equals(command.getBorrowingId())) {
+            throw new IllegalStateException("Book " + id + " is held by another borrowing");
+        }
+        BookRollBackStatusEvent event = BookMapper.INSTANCE.toRollBackStatusEvent(command);
         AggregateLifecycle.apply(event);
     }
 
@@ -81,6 +91,9 @@ public class BookAggregate {
         this.name = event.getName();
         this.author = event.getAuthor();
         this.isReady = event.getIsReady();
+        if (Boolean.TRUE.equals(event.getIsReady())) {
+            this.borrowingId = null;
+        }
     }
 
     @EventSourcingHandler
@@ -92,11 +105,13 @@ public class BookAggregate {
     public void on(BookUpdatedStatusEvent event) {
         this.id = event.getBookId();
         this.isReady = event.getIsReady();
+        this.borrowingId = Boolean.FALSE.equals(event.getIsReady()) ? event.getBorrowingId() : null;
     }
 
     @EventSourcingHandler
     public void on(BookRollBackStatusEvent event) {
         this.id = event.getBookId();
         this.isReady = event.getIsReady();
+        this.borrowingId = null;
     }
 }
@@ -3,7 +3,10 @@ package com.nvminh162.bookservice.command.controller;
 import com.nvminh162.bookservice.command.command.CreateBookCommand;
 import com.nvminh162.bookservice.command.command.DeleteBookCommand;
 import com.nvminh162.bookservice.command.command.UpdateBookCommand;
+import com.nvminh162.bookservice.command.model.BookImportResultModel;
 import com.nvminh162.bookservice.command.model.BookRequestModel;
+import com.nvminh162.bookservice.command.service.BookImportService;
+import com.nvminh162.commonservice.idempotency.IdempotencyKeyStore;
 import com.nvminh162.commonservice.service.KafkaService;
 
 import jakarta.validation.Valid;
@@ -12,8 +15,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.axonframework.commandhandling.gateway.CommandGateway;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.UUID;
 
 
@@ -24,16 +30,31 @@ import java.util.UUID;
 public class BookCommandController {
 
     CommandGateway commandGateway;
+    BookImportService bookImportService;
+    IdempotencyKeyStore idempotencyKeyStore;
 
     @PostMapping
-    public String addBook(@Valid @RequestBody BookRequestModel model) {
-        CreateBookCommand command = CreateBookCommand.builder()
-                .id(UUID.randomUUID().toString())
-                .name(model.getName())
-                .author(model.getAuthor())
-                .isReady(true)
-                .build();
-        return commandGateway.sendAndWait(command);
+    public String addBook(@Valid @RequestBody BookRequestModel model,
+                          @RequestHeader(value = IdempotencyKeyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyKeyStore.execute("book", idempotencyKey, model, () -> {
+            CreateBookCommand command = CreateBookCommand.builder()
+                    .id(UUID.randomUUID().toString())
+                    .name(model.getName())
+                    .author(model.getAuthor())
+                    .isReady(true)
+                    .build();
+            return commandGateway.sendAndWait(command);
+        });
+    }
+
+    // body được đọc dạng stream (CSV "name,author" hoặc NDJSON), không buffer cả file
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public BookImportResultModel importBooks(InputStream body,
+                                             @RequestHeader("Content-Type") MediaType contentType) throws IOException, InterruptedException {
+        BookImportService.Format format = contentType.isCompatibleWith(MediaType.parseMediaType("application/x-ndjson"))
+                ? BookImportService.Format.NDJSON
+                : BookImportService.Format.CSV;
+        return bookImportService.importBooks(body, format);
     }
 
     @PutMapping("/{bookId}")
@@ -2,6 +2,7 @@ package com.nvminh162.bookservice.command.data;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
@@ -13,7 +14,10 @@ import lombok.experimental.FieldDefaults;
 @NoArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_author_id", columnList = "author, id"),
+        @Index(name = "idx_books_is_ready_id", columnList = "isReady, id")
+})
 public class Book {
 
     @Id
@@ -1,7 +1,29 @@
 package com.nvminh162.bookservice.command.data;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface BookRepository extends JpaRepository<Book, String> {}
+public interface BookRepository extends JpaRepository<Book, String> {
+
+    /**
+     * Keyset pagination: seeks on the primary key instead of using OFFSET, so the cost
+     * of a page does not depend on how deep into the catalog it is.
+     */
+    @Query("""
+            select b from Book b
+            where (:after is null or b.id > :after)
+              and (:author is null or b.author = :author)
+              and (:isReady is null or b.isReady = :isReady)
+            order by b.id
+            """)
+    List<Book> findPage(@Param("after") String after,
+                        @Param("author") String author,
+                        @Param("isReady") Boolean isReady,
+                        Limit limit);
+}
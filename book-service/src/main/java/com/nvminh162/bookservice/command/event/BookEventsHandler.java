@@ -2,6 +2,12 @@ package com.nvminh162.bookservice.command.event;
 
 import com.nvminh162.bookservice.command.data.Book;
 import com.nvminh162.bookservice.command.data.BookRepository;
+import com.nvminh162.bookservice.mapper.BookMapper;
+import com.nvminh162.bookservice.query.cache.BookDetailCache;
+import com.nvminh162.bookservice.query.index.BookAvailabilityIndex;
+import com.nvminh162.bookservice.query.index.BookSearchIndex;
+import com.nvminh162.bookservice.query.queries.GetBookAvailabilityQuery;
+import com.nvminh162.commonservice.model.BookResponseCommonModel;
 import com.nvminh162.commonservice.event.BookUpdatedStatusEvent;
 import com.nvminh162.commonservice.event.BookRollBackStatusEvent;
 
@@ -9,7 +15,9 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.axonframework.eventhandling.EventHandler;
-import org.springframework.beans.BeanUtils;
+import org.axonframework.eventhandling.ResetHandler;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.queryhandling.QueryUpdateEmitter;
 import org.springframework.stereotype.Component;
 
 import java.util.Optional;
@@ -20,12 +28,17 @@ import java.util.Optional;
 public class BookEventsHandler {
 
     BookRepository bookRepository;
+    BookDetailCache bookDetailCache;
+    BookSearchIndex bookSearchIndex;
+    BookAvailabilityIndex bookAvailabilityIndex;
+    QueryUpdateEmitter queryUpdateEmitter;
+    BookMapper bookMapper;
 
     @EventHandler
     public void on(BookCreatedEvent event) {
-        Book book = new Book();
-        BeanUtils.copyProperties(event, book);
+        Book book = bookMapper.toBook(event);
         bookRepository.save(book);
+        afterCommit(() -> indexBook(book));
     }
 
     @EventHandler
@@ -36,13 +49,27 @@ public class BookEventsHandler {
             book.setAuthor(event.getAuthor());
             book.setIsReady(event.getIsReady());
             bookRepository.save(book);
+            emitAvailability(bookMapper.toResponse(book));
+            afterCommit(() -> indexBook(book));
         });
+        afterCommit(() -> bookDetailCache.invalidate(event.getId()));
     }
 
     @EventHandler
     public void on(BookDeletedEvent event) {
         Optional<Book> optionalBook = bookRepository.findById(event.getId());
-        optionalBook.ifPresent(bookRepository::delete);
+        optionalBook.ifPresent(book -> {
+            bookRepository.delete(book);
+            // sách đã xoá không còn cho mượn được nữa
+            BookResponseCommonModel gone = bookMapper.toResponse(book);
+            gone.setIsReady(false);
+            emitAvailability(gone);
+        });
+        afterCommit(() -> {
+            bookDetailCache.invalidate(event.getId());
+            bookSearchIndex.remove(event.getId());
+            bookAvailabilityIndex.remove(event.getId());
+        });
     }
 
     @EventHandler
@@ -51,7 +78,11 @@ public class BookEventsHandler {
         optionalBook.ifPresent(book -> {
             book.setIsReady(event.getIsReady());
             bookRepository.save(book);
+            emitAvailability(bookMapper.toResponse(book));
+            // index lại cả bản ghi đã commit: loader lúc khởi động có thể chưa nạp sách này
+            afterCommit(() -> indexBook(book));
         });
+        afterCommit(() -> bookDetailCache.updateStatus(event.getBookId(), event.getIsReady()));
     }
 
     @EventHandler
@@ -60,6 +91,39 @@ public class BookEventsHandler {
         optionalBook.ifPresent(book -> {
             book.setIsReady(event.getIsReady());
             bookRepository.save(book);
+            emitAvailability(bookMapper.toResponse(book));
+            afterCommit(() -> indexBook(book));
         });
+        afterCommit(() -> bookDetailCache.updateStatus(event.getBookId(), event.getIsReady()));
+    }
+
+    // QueryUpdateEmitter tự hoãn việc emit tới khi unit of work commit
+    private void emitAvailability(BookResponseCommonModel book) {
+        queryUpdateEmitter.emit(GetBookAvailabilityQuery.class,
+                query -> query.getBookIds().contains(book.getId()),
+                book);
+    }
+
+    // replay lại toàn bộ event sẽ dựng lại index trong bộ nhớ từ đầu
+    @ResetHandler
+    public void onReset() {
+        bookDetailCache.invalidateAll();
+        bookSearchIndex.clear();
+        bookAvailabilityIndex.clear();
+    }
+
+    private void indexBook(Book book) {
+        BookResponseCommonModel model = bookMapper.toResponse(book);
+        bookSearchIndex.index(model);
+        bookAvailabilityIndex.index(model);
+    }
+
+    // chỉ đụng vào cache sau khi projection đã commit, tránh query đọc lại dữ liệu cũ rồi cache nó
+    private void afterCommit(Runnable action) {
+        if (CurrentUnitOfWork.isStarted()) {
+            CurrentUnitOfWork.get().afterCommit(unitOfWork -> action.run());
+        } else {
+            action.run();
+        }
     }
 }
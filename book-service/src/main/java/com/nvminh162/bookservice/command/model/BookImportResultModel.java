@@ -0,0 +1,21 @@
+package com.nvminh162.bookservice.command.model;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookImportResultModel {
+    long total;
+    long succeeded;
+    long failed;
+    long durationMs;
+    // chỉ giữ tối đa book.import.max-reported-failures dòng lỗi đầu tiên
+    List<BookImportFailureModel> failures;
+}
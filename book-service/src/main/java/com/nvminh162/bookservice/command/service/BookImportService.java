@@ -0,0 +1,206 @@
+package com.nvminh162.bookservice.command.service;
+
+import com.nvminh162.bookservice.command.command.CreateBookCommand;
+import com.nvminh162.bookservice.command.model.BookImportFailureModel;
+import com.nvminh162.bookservice.command.model.BookImportResultModel;
+import com.nvminh162.bookservice.command.model.BookRequestModel;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Imports books from a CSV ({@code name,author}) or NDJSON stream. Rows are parsed one at a time
+ * and dispatched as asynchronous {@link CreateBookCommand}s; at most {@code maxInFlight} commands
+ * are outstanding, so reading the upload pauses while Axon catches up.
+ */
+@Slf4j
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BookImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    CommandGateway commandGateway;
+    JsonMapper jsonMapper;
+    Validator validator;
+    int maxInFlight;
+    int maxReportedFailures;
+    int progressInterval;
+
+    public BookImportService(CommandGateway commandGateway,
+                             JsonMapper jsonMapper,
+                             Validator validator,
+                             @Value("${book.import.max-in-flight:256}") int maxInFlight,
+                             @Value("${book.import.max-reported-failures:1000}") int maxReportedFailures,
+                             @Value("${book.import.progress-interval:10000}") int progressInterval) {
+        this.commandGateway = commandGateway;
+        this.jsonMapper = jsonMapper;
+        this.validator = validator;
+        this.maxInFlight = maxInFlight;
+        this.maxReportedFailures = maxReportedFailures;
+        this.progressInterval = progressInterval;
+    }
+
+    public BookImportResultModel importBooks(InputStream inputStream, Format format) throws IOException, InterruptedException {
+        long start = System.currentTimeMillis();
+        Semaphore window = new Semaphore(maxInFlight);
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        Queue<BookImportFailureModel> failures = new ConcurrentLinkedQueue<>();
+
+        long row = 0;
+        long total = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                row++;
+                if (line.isBlank() || (row == 1 && format == Format.CSV && isCsvHeader(line))) {
+                    continue;
+                }
+                total++;
+
+                CreateBookCommand command;
+                try {
+                    command = toCommand(parse(line, format));
+                } catch (Exception e) {
+                    recordFailure(failures, failed, row, e.getMessage());
+                    continue;
+                }
+
+                window.acquire();
+                long currentRow = row;
+                try {
+                    commandGateway.send(command).whenComplete((result, ex) -> {
+                        window.release();
+                        if (ex == null) {
+                            succeeded.incrementAndGet();
+                        } else {
+                            recordFailure(failures, failed, currentRow, ex.getMessage());
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    // send ném lỗi ngay thì callback không bao giờ chạy: trả permit tại đây
+                    window.release();
+                    recordFailure(failures, failed, currentRow, e.getMessage());
+                }
+
+                if (total % progressInterval == 0) {
+                    log.info(">>> BOOK IMPORT: {} row(s) read, {} imported, {} failed", total, succeeded.get(), failed.get());
+                }
+            }
+        } finally {
+            // đợi các command còn đang chạy trước khi trả kết quả
+            window.acquire(maxInFlight);
+            window.release(maxInFlight);
+        }
+
+        BookImportResultModel result = BookImportResultModel.builder()
+                .total(total)
+                .succeeded(succeeded.get())
+                .failed(failed.get())
+                .durationMs(System.currentTimeMillis() - start)
+                .failures(new ArrayList<>(failures))
+                .build();
+        log.info(">>> BOOK IMPORT DONE: {} row(s), {} imported, {} failed in {} ms",
+                result.getTotal(), result.getSucceeded(), result.getFailed(), result.getDurationMs());
+        return result;
+    }
+
+    private BookRequestModel parse(String line, Format format) {
+        if (format == Format.NDJSON) {
+            return jsonMapper.readValue(line, BookRequestModel.class);
+        }
+        List<String> columns = splitCsv(line);
+        // dấu phẩy không nằm trong nháy sẽ tách thêm cột: từ chối thay vì cắt mất một phần tên
+        if (columns.size() != 2) {
+            throw new IllegalArgumentException("Expected 2 columns (name,author) but got " + columns.size());
+        }
+        return BookRequestModel.builder()
+                .name(columns.get(0))
+                .author(columns.get(1))
+                .build();
+    }
+
+    private CreateBookCommand toCommand(BookRequestModel model) {
+        Set<ConstraintViolation<BookRequestModel>> violations = validator.validate(model);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        return CreateBookCommand.builder()
+                .id(UUID.randomUUID().toString())
+                .name(model.getName())
+                .author(model.getAuthor())
+                .isReady(true)
+                .build();
+    }
+
+    // row = số dòng trong file (tính cả header)
+    private void recordFailure(Queue<BookImportFailureModel> failures, AtomicLong failed, long row, String message) {
+        if (failed.incrementAndGet() <= maxReportedFailures) {
+            failures.add(new BookImportFailureModel(row, message));
+        }
+    }
+
+    // chỉ coi là header khi đúng hai cột name,author: sách có tên bắt đầu bằng "name" vẫn được import
+    private static boolean isCsvHeader(String line) {
+        List<String> columns = splitCsv(line.replace("\uFEFF", ""));
+        return columns.size() == 2
+                && columns.get(0).toLowerCase(Locale.ROOT).equals("name")
+                && columns.get(1).toLowerCase(Locale.ROOT).equals("author");
+    }
+
+    // CSV tối giản: hỗ trợ field trong dấu nháy kép và "" để escape
+    private static List<String> splitCsv(String line) {
+        List<String> columns = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                columns.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        columns.add(current.toString().trim());
+        return columns;
+    }
+}
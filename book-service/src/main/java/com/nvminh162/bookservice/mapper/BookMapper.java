@@ -0,0 +1,38 @@
+package com.nvminh162.bookservice.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+
+import com.nvminh162.bookservice.command.command.CreateBookCommand;
+import com.nvminh162.bookservice.command.command.DeleteBookCommand;
+import com.nvminh162.bookservice.command.command.UpdateBookCommand;
+import com.nvminh162.bookservice.command.data.Book;
+import com.nvminh162.bookservice.command.event.BookCreatedEvent;
+import com.nvminh162.bookservice.command.event.BookDeletedEvent;
+import com.nvminh162.bookservice.command.event.BookUpdatedEvent;
+import com.nvminh162.commonservice.command.RollBackStatusBookCommand;
+import com.nvminh162.commonservice.command.UpdateStatusBookCommand;
+import com.nvminh162.commonservice.event.BookRollBackStatusEvent;
+import com.nvminh162.commonservice.event.BookUpdatedStatusEvent;
+import com.nvminh162.commonservice.model.BookResponseCommonModel;
+
+@Mapper(componentModel = "spring")
+public interface BookMapper {
+
+    // aggregate không phải Spring bean nên dùng instance tĩnh
+    BookMapper INSTANCE = Mappers.getMapper(BookMapper.class);
+
+    BookCreatedEvent toCreatedEvent(CreateBookCommand command);
+
+    BookUpdatedEvent toUpdatedEvent(UpdateBookCommand command);
+
+    BookDeletedEvent toDeletedEvent(DeleteBookCommand command);
+
+    BookUpdatedStatusEvent toUpdatedStatusEvent(UpdateStatusBookCommand command);
+
+    BookRollBackStatusEvent toRollBackStatusEvent(RollBackStatusBookCommand command);
+
+    Book toBook(BookCreatedEvent event);
+
+    BookResponseCommonModel toResponse(Book book);
+}
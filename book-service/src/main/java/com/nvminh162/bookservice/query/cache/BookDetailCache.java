@@ -0,0 +1,93 @@
+package com.nvminh162.bookservice.query.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.nvminh162.commonservice.model.BookResponseCommonModel;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded in-process cache in front of the {@code GetBookDetailQuery} handler.
+ * Entries are kept in sync by {@code BookEventsHandler}; cached models are never mutated,
+ * status changes replace the entry instead.
+ * Every write bumps a version counter (striped by id). A loaded row is only cached if no write
+ * touched its stripe while it was being read, so a read that started before an update or delete
+ * committed cannot cache the old book after the handler has invalidated it. Concurrent misses on
+ * one id each read the row (a primary-key lookup) instead of sharing a single load.
+ * Hit/miss/eviction counters are published as {@code cache.*} metrics with {@code cache=book-detail}.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BookDetailCache {
+
+    static final int VERSION_STRIPES = 1024;
+
+    Cache<String, BookResponseCommonModel> cache;
+    AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public BookDetailCache(
+            @Value("${book.cache.maximum-size:10000}") long maximumSize,
+            @Value("${book.cache.expire-after-write:10m}") Duration expireAfterWrite,
+            MeterRegistry meterRegistry) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "book-detail");
+    }
+
+    public BookResponseCommonModel get(String id, Callable<BookResponseCommonModel> loader) throws Exception {
+        BookResponseCommonModel cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        long version = versions.get(stripe(id));
+        BookResponseCommonModel loaded = loader.call();
+        // có ghi trong lúc đang đọc DB: vẫn trả kết quả nhưng không cache bản có thể đã cũ
+        cache.asMap().compute(id, (key, current) ->
+                current != null || versions.get(stripe(id)) != version ? current : loaded);
+        return loaded;
+    }
+
+    public Map<String, BookResponseCommonModel> getAllPresent(Collection<String> ids) {
+        return cache.getAllPresent(ids);
+    }
+
+    public void updateStatus(String id, Boolean isReady) {
+        versions.incrementAndGet(stripe(id));
+        cache.asMap().computeIfPresent(id, (key, model) -> BookResponseCommonModel.builder()
+                .id(model.getId())
+                .name(model.getName())
+                .author(model.getAuthor())
+                .isReady(isReady)
+                .build());
+    }
+
+    public void invalidate(String id) {
+        versions.incrementAndGet(stripe(id));
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        cache.invalidateAll();
+    }
+
+    private static int stripe(String id) {
+        return Math.floorMod(id.hashCode(), VERSION_STRIPES);
+    }
+}
@@ -1,8 +1,18 @@
 package com.nvminh162.bookservice.query.controller;
 
 import com.nvminh162.commonservice.model.BookResponseCommonModel;
+import com.nvminh162.bookservice.query.projection.BookProjection;
+import com.nvminh162.bookservice.query.model.BookAvailabilityCheckResponseModel;
+import com.nvminh162.bookservice.query.model.BookCountResponseModel;
+import com.nvminh162.bookservice.query.queries.CheckBooksAvailabilityQuery;
+import com.nvminh162.bookservice.query.queries.CountBooksQuery;
 import com.nvminh162.bookservice.query.queries.GetAllBookQuery;
+import com.nvminh162.bookservice.query.queries.GetAvailableBooksQuery;
+import com.nvminh162.bookservice.query.queries.SearchBooksQuery;
+import com.nvminh162.bookservice.query.stream.BookAvailabilityStream;
+import com.nvminh162.commonservice.model.BooksByIdsResponseCommonModel;
 import com.nvminh162.commonservice.queries.GetBookDetailQuery;
+import com.nvminh162.commonservice.queries.GetBooksByIdsQuery;
 
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -11,12 +21,23 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.axonframework.messaging.responsetypes.ResponseTypes;
 import org.axonframework.queryhandling.QueryGateway;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1/books")
@@ -25,14 +46,100 @@ import java.util.List;
 @Slf4j
 public class BookQueryController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     QueryGateway queryGateway;
+    JsonMapper jsonMapper;
+    BookAvailabilityStream bookAvailabilityStream;
 
     @GetMapping
-    public List<BookResponseCommonModel> getAllBooks() {
-        GetAllBookQuery query = new GetAllBookQuery();
-        List<BookResponseCommonModel> books = queryGateway.query(query, ResponseTypes.multipleInstancesOf(BookResponseCommonModel.class)).join();
-        log.info(">>> GET ALL BOOKS: {}", books.toString());
-        return books;
+    public ResponseEntity<List<BookResponseCommonModel>> getAllBooks(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false, defaultValue = "" + BookProjection.DEFAULT_PAGE_SIZE) Integer size,
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) Boolean isReady) {
+        GetAllBookQuery query = new GetAllBookQuery(after, size, author, isReady);
+        List<BookResponseCommonModel> books = fetchPage(query);
+        log.info(">>> GET ALL BOOKS: {} item(s) after {}", books.size(), after);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!books.isEmpty() && books.size() == Math.clamp(size, 1, BookProjection.MAX_PAGE_SIZE)) {
+            response.header(NEXT_CURSOR_HEADER, books.getLast().getId());
+        }
+        return response.body(books);
+    }
+
+    /**
+     * Streams the whole (filtered) catalog as NDJSON, one page at a time, so the memory
+     * used per request stays bounded by {@link BookProjection#MAX_PAGE_SIZE}.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamBooks(
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) Boolean isReady) {
+        StreamingResponseBody body = outputStream -> {
+            String after = null;
+            int total = 0;
+            List<BookResponseCommonModel> books;
+            do {
+                books = fetchPage(new GetAllBookQuery(after, BookProjection.MAX_PAGE_SIZE, author, isReady));
+                for (BookResponseCommonModel book : books) {
+                    outputStream.write(jsonMapper.writeValueAsBytes(book));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+                total += books.size();
+                after = books.isEmpty() ? after : books.getLast().getId();
+            } while (books.size() == BookProjection.MAX_PAGE_SIZE);
+            log.info(">>> STREAM BOOKS: {} item(s)", total);
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    @GetMapping("/search")
+    public List<BookResponseCommonModel> searchBooks(
+            @RequestParam("q") String keyword,
+            @RequestParam(required = false, defaultValue = "" + BookProjection.DEFAULT_SEARCH_LIMIT) Integer limit) {
+        SearchBooksQuery query = new SearchBooksQuery(keyword, limit);
+        return queryGateway.query(query, ResponseTypes.multipleInstancesOf(BookResponseCommonModel.class)).join();
+    }
+
+    @GetMapping("/batch")
+    public BooksByIdsResponseCommonModel getBooksByIds(@RequestParam(name = "ids", required = false) List<String> bookIds) {
+        requireBookIds(bookIds);
+        GetBooksByIdsQuery query = new GetBooksByIdsQuery(bookIds);
+        return queryGateway.query(query, ResponseTypes.instanceOf(BooksByIdsResponseCommonModel.class)).join();
+    }
+
+    @GetMapping("/count")
+    public BookCountResponseModel countBooks(@RequestParam(required = false) String author) {
+        return queryGateway.query(new CountBooksQuery(author), ResponseTypes.instanceOf(BookCountResponseModel.class)).join();
+    }
+
+    @GetMapping("/available")
+    public List<BookResponseCommonModel> getAvailableBooks(
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false, defaultValue = "0") Integer offset,
+            @RequestParam(required = false, defaultValue = "" + BookProjection.DEFAULT_PAGE_SIZE) Integer limit) {
+        GetAvailableBooksQuery query = new GetAvailableBooksQuery(author, offset, limit);
+        return queryGateway.query(query, ResponseTypes.multipleInstancesOf(BookResponseCommonModel.class)).join();
+    }
+
+    @GetMapping("/availability")
+    public BookAvailabilityCheckResponseModel checkAvailability(@RequestParam(name = "ids", required = false) Set<String> bookIds) {
+        requireBookIds(bookIds);
+        CheckBooksAvailabilityQuery query = new CheckBooksAvailabilityQuery(bookIds);
+        return queryGateway.query(query, ResponseTypes.instanceOf(BookAvailabilityCheckResponseModel.class)).join();
+    }
+
+    /**
+     * Server-sent events: one {@code snapshot} event with the current status of the requested
+     * books, then an {@code update} event whenever one of them changes {@code isReady}.
+     */
+    @GetMapping(value = "/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamAvailability(@RequestParam("ids") Set<String> bookIds) {
+        return bookAvailabilityStream.subscribe(bookIds);
     }
 
     @GetMapping("/{bookId}")
@@ -41,4 +148,15 @@ public class BookQueryController {
         BookResponseCommonModel book = queryGateway.query(query, ResponseTypes.instanceOf(BookResponseCommonModel.class)).join();
         return book;
     }
+
+    private List<BookResponseCommonModel> fetchPage(GetAllBookQuery query) {
+        return queryGateway.query(query, ResponseTypes.multipleInstancesOf(BookResponseCommonModel.class)).join();
+    }
+
+    private static void requireBookIds(Collection<String> bookIds) {
+        if (bookIds == null || bookIds.isEmpty() || bookIds.size() > BookProjection.MAX_BOOK_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Between 1 and " + BookProjection.MAX_BOOK_IDS + " book ids are required");
+        }
+    }
 }
@@ -0,0 +1,194 @@
+package com.nvminh162.bookservice.query.index;
+
+import com.nvminh162.commonservice.model.BookResponseCommonModel;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed-bitmap index over {@code Book.isReady}, with one bucket per author.
+ * Every book id is given a dense int ordinal; "available" and "by author" are Roaring bitmaps
+ * over those ordinals, so counts and filters are bitmap cardinalities/intersections instead of
+ * table scans. Ordinals of deleted books are kept, so a re-created id reuses its slot.
+ * Kept up to date by {@code BookEventsHandler}, loaded in batches by {@link BookIndexLoader}.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BookAvailabilityIndex {
+
+    ReadWriteLock lock = new ReentrantReadWriteLock();
+    Map<String, Integer> ordinals = new HashMap<>();
+    List<String> ids = new ArrayList<>();
+    List<String> authors = new ArrayList<>();
+    RoaringBitmap present = new RoaringBitmap();
+    RoaringBitmap ready = new RoaringBitmap();
+    Map<String, RoaringBitmap> byAuthor = new HashMap<>();
+
+    public void index(BookResponseCommonModel book) {
+        lock.writeLock().lock();
+        try {
+            put(book);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // nạp lúc khởi động: một lần lấy lock cho cả batch. Id đã có ordinal là do event handler
+    // đã index (hoặc đã xoá) sau khi trang này được đọc, nên bản đọc từ DB không được ghi đè
+    public void indexAllIfAbsent(Collection<BookResponseCommonModel> books) {
+        lock.writeLock().lock();
+        try {
+            for (BookResponseCommonModel book : books) {
+                if (!ordinals.containsKey(book.getId())) {
+                    put(book);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(id);
+            if (ordinal != null && present.contains(ordinal)) {
+                present.remove(ordinal);
+                ready.remove(ordinal);
+                removeFromAuthor(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ordinals.clear();
+            ids.clear();
+            authors.clear();
+            present.clear();
+            ready.clear();
+            byAuthor.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Total and available counts (of one author, or of all books when {@code author} is null),
+     * read under one lock so that {@code available <= total} always holds.
+     */
+    public Counts count(String author) {
+        lock.readLock().lock();
+        try {
+            if (author == null) {
+                return new Counts(present.getLongCardinality(), ready.getLongCardinality());
+            }
+            RoaringBitmap bucket = byAuthor.get(author);
+            return bucket == null
+                    ? new Counts(0, 0)
+                    : new Counts(bucket.getLongCardinality(), RoaringBitmap.andCardinality(ready, bucket));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of available books (optionally of one author), in index order.
+     * {@code offset} is resolved with a rank/select on the bitmap, so deep pages stay cheap.
+     */
+    public List<String> availableIds(String author, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches;
+            if (author == null) {
+                matches = ready;
+            } else {
+                RoaringBitmap bucket = byAuthor.get(author);
+                if (bucket == null) {
+                    return List.of();
+                }
+                matches = RoaringBitmap.and(ready, bucket);
+            }
+            if (offset >= matches.getCardinality()) {
+                return List.of();
+            }
+            List<String> result = new ArrayList<>(Math.min(limit, matches.getCardinality() - offset));
+            PeekableIntIterator iterator = matches.getIntIterator();
+            iterator.advanceIfNeeded(matches.select(offset));
+            while (iterator.hasNext() && result.size() < limit) {
+                result.add(ids.get(iterator.next()));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // trả về các id không sẵn sàng, kể cả id không tồn tại
+    public List<String> unavailableIds(Collection<String> bookIds) {
+        lock.readLock().lock();
+        try {
+            List<String> result = new ArrayList<>();
+            for (String id : bookIds) {
+                Integer ordinal = ordinals.get(id);
+                if (ordinal == null || !ready.contains(ordinal)) {
+                    result.add(id);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(BookResponseCommonModel book) {
+        int ordinal = ordinals.computeIfAbsent(book.getId(), id -> {
+            ids.add(id);
+            authors.add(null);
+            return ids.size() - 1;
+        });
+        if (present.contains(ordinal) && !Objects.equals(authors.get(ordinal), book.getAuthor())) {
+            removeFromAuthor(ordinal);
+        }
+        present.add(ordinal);
+        authors.set(ordinal, book.getAuthor());
+        byAuthor.computeIfAbsent(book.getAuthor(), author -> new RoaringBitmap()).add(ordinal);
+        setReady(ordinal, book.getIsReady());
+    }
+
+    private void setReady(int ordinal, Boolean isReady) {
+        if (Boolean.TRUE.equals(isReady)) {
+            ready.add(ordinal);
+        } else {
+            ready.remove(ordinal);
+        }
+    }
+
+    private void removeFromAuthor(int ordinal) {
+        String author = authors.get(ordinal);
+        RoaringBitmap bucket = byAuthor.get(author);
+        if (bucket != null) {
+            bucket.remove(ordinal);
+            if (bucket.isEmpty()) {
+                byAuthor.remove(author);
+            }
+        }
+    }
+
+    public record Counts(long total, long available) {}
+}
@@ -0,0 +1,55 @@
+package com.nvminh162.bookservice.query.index;
+
+import com.nvminh162.bookservice.command.data.Book;
+import com.nvminh162.bookservice.command.data.BookRepository;
+import com.nvminh162.bookservice.mapper.BookMapper;
+import com.nvminh162.commonservice.model.BookResponseCommonModel;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fills the in-memory book indexes from the {@code books} projection on startup,
+ * reading it in keyset pages instead of row by row.
+ * A page may be read before an event that changes one of its books is committed, so the loader
+ * only adds books the event handler has not indexed or deleted yet: the handler always writes the
+ * full committed row, and deletions leave a tombstone, so a stale page can never win.
+ * The tombstones are dropped once the last page is in.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BookIndexLoader {
+
+    static final int BATCH_SIZE = 1000;
+
+    BookRepository bookRepository;
+    BookSearchIndex bookSearchIndex;
+    BookAvailabilityIndex bookAvailabilityIndex;
+    BookMapper bookMapper;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        String after = null;
+        List<Book> books;
+        do {
+            books = bookRepository.findPage(after, null, null, Limit.of(BATCH_SIZE));
+            List<BookResponseCommonModel> models = books.stream().map(bookMapper::toResponse).toList();
+            models.forEach(bookSearchIndex::indexIfAbsent);
+            bookAvailabilityIndex.indexAllIfAbsent(models);
+            after = books.isEmpty() ? after : books.getLast().getId();
+        } while (books.size() == BATCH_SIZE);
+        bookSearchIndex.finishLoad();
+        log.info(">>> Book indexes loaded: {} book(s) in {} ms", bookSearchIndex.size(), System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,225 @@
+package com.nvminh162.bookservice.query.index;
+
+import com.nvminh162.commonservice.model.BookResponseCommonModel;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over book {@code name} and {@code author}.
+ * Terms are lower-cased and stripped of diacritics, and kept in a sorted map so that a prefix
+ * lookup is a range scan. Tokens shorter than {@link #MIN_PREFIX_LENGTH} only match whole terms, and a
+ * search scores at most {@link #MAX_CANDIDATES} books, so its cost stays bounded on a large catalog. The index is kept up to date by {@code BookEventsHandler} and rebuilt
+ * from the projection on startup or from the event stream on replay.
+ * Writes are serialized so that the startup loader and the event handler cannot interleave;
+ * searches read the concurrent maps without locking.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BookSearchIndex {
+
+    static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // chỉ dùng để so độ hẹp giữa các token
+    static final int ESTIMATE_CAP = 2_000;
+    // "a" mở rộng theo tiền tố gần như ra cả catalog: token ngắn hơn chỉ khớp nguyên từ
+    static final int MIN_PREFIX_LENGTH = 3;
+    static final int MAX_CANDIDATES = 10_000;
+
+    static final int EXACT_NAME_SCORE = 4;
+    static final int PREFIX_NAME_SCORE = 2;
+    static final int EXACT_AUTHOR_SCORE = 2;
+    static final int PREFIX_AUTHOR_SCORE = 1;
+
+    NavigableMap<String, Set<String>> terms = new ConcurrentSkipListMap<>();
+    Map<String, Document> documents = new ConcurrentHashMap<>();
+    // id đã bị xoá trong lúc loader chạy: loader không được thêm lại từ bản đọc cũ
+    Set<String> removed = ConcurrentHashMap.newKeySet();
+    AtomicBoolean loading = new AtomicBoolean(true);
+
+    public synchronized void index(BookResponseCommonModel book) {
+        removed.remove(book.getId());
+        Document document = new Document(book, tokenize(book.getName()), tokenize(book.getAuthor()));
+        Document old = documents.put(book.getId(), document);
+        if (old != null) {
+            removeTerms(old, book.getId());
+        }
+        document.terms().forEach(term -> terms.computeIfAbsent(term, key -> ConcurrentHashMap.newKeySet()).add(book.getId()));
+    }
+
+    // dùng khi nạp lại từ DB lúc khởi động: không ghi đè bản event handler đã index hoặc đã xoá
+    public synchronized void indexIfAbsent(BookResponseCommonModel book) {
+        if (!documents.containsKey(book.getId()) && !removed.contains(book.getId())) {
+            index(book);
+        }
+    }
+
+    public synchronized void remove(String id) {
+        if (loading.get()) {
+            removed.add(id);
+        }
+        Document old = documents.remove(id);
+        if (old != null) {
+            removeTerms(old, id);
+        }
+    }
+
+    // loader đã xong: không còn trang cũ nào để chặn, bỏ tombstone
+    public synchronized void finishLoad() {
+        loading.set(false);
+        removed.clear();
+    }
+
+    public synchronized void clear() {
+        documents.clear();
+        terms.clear();
+        removed.clear();
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Every keyword token must match (exactly or as a prefix) a term of the name or the author.
+     * Candidates come from the most selective token only; the other tokens are checked against
+     * the candidate's own terms, so the cost does not grow with common tokens like "the".
+     * At most {@link #MAX_CANDIDATES} candidates are scored, taken in term order, so books where the
+     * driving token is a whole term come first.
+     * Results are ranked by score (exact over prefix, name over author), then by name.
+     */
+    public List<BookResponseCommonModel> search(String keyword, int limit) {
+        List<String> tokens = tokenize(keyword);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        String driver = tokens.stream().min(Comparator.comparingLong(this::estimateMatches)).orElseThrow();
+        Set<String> candidates = new LinkedHashSet<>();
+        collect:
+        for (Set<String> ids : matchingTerms(driver).values()) {
+            for (String id : ids) {
+                candidates.add(id);
+                if (candidates.size() >= MAX_CANDIDATES) {
+                    break collect;
+                }
+            }
+        }
+
+        Comparator<ScoredBook> ranking = Comparator.comparingInt(ScoredBook::score)
+                .thenComparing((ScoredBook scored) -> scored.book().getName(), Comparator.nullsFirst(Comparator.<String>reverseOrder()));
+        PriorityQueue<ScoredBook> top = new PriorityQueue<>(limit + 1, ranking);
+        for (String id : candidates) {
+            Document document = documents.get(id);
+            int score = document == null ? 0 : document.score(tokens);
+            if (score > 0) {
+                top.add(new ScoredBook(document.book(), score));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+
+        List<ScoredBook> result = new ArrayList<>(top);
+        result.sort(ranking.reversed());
+        return result.stream().map(ScoredBook::book).toList();
+    }
+
+    // range bắt đầu bằng chính token: nguyên từ đứng trước các từ chỉ khớp tiền tố
+    private NavigableMap<String, Set<String>> matchingTerms(String token) {
+        if (token.length() < MIN_PREFIX_LENGTH) {
+            return terms.subMap(token, true, token, true);
+        }
+        return terms.subMap(token, true, token + Character.MAX_VALUE, false);
+    }
+
+    // đếm có giới hạn: chỉ cần biết token nào hẹp hơn, không cần con số chính xác
+    private long estimateMatches(String token) {
+        long count = 0;
+        for (Set<String> ids : matchingTerms(token).values()) {
+            count += ids.size();
+            if (count > ESTIMATE_CAP) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    private void removeTerms(Document document, String id) {
+        document.terms().forEach(term -> terms.computeIfPresent(term, (key, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        }));
+    }
+
+    record ScoredBook(BookResponseCommonModel book, int score) {}
+
+    record Document(BookResponseCommonModel book, List<String> nameTerms, List<String> authorTerms) {
+
+        Set<String> terms() {
+            Set<String> all = new HashSet<>(nameTerms);
+            all.addAll(authorTerms);
+            return all;
+        }
+
+        int score(List<String> tokens) {
+            int total = 0;
+            for (String token : tokens) {
+                int best = Math.max(
+                        match(nameTerms, token, EXACT_NAME_SCORE, PREFIX_NAME_SCORE),
+                        match(authorTerms, token, EXACT_AUTHOR_SCORE, PREFIX_AUTHOR_SCORE));
+                if (best == 0) {
+                    return 0;
+                }
+                total += best;
+            }
+            return total;
+        }
+
+        private static int match(List<String> terms, String token, int exactScore, int prefixScore) {
+            int best = 0;
+            for (String term : terms) {
+                if (term.equals(token)) {
+                    return exactScore;
+                }
+                if (token.length() >= MIN_PREFIX_LENGTH && term.startsWith(token)) {
+                    best = prefixScore;
+                }
+            }
+            return best;
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'D')
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(normalized))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toList();
+    }
+}
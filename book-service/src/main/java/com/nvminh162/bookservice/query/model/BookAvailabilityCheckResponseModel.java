@@ -0,0 +1,18 @@
+package com.nvminh162.bookservice.query.model;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookAvailabilityCheckResponseModel {
+    Boolean allAvailable;
+    // sách đang được mượn hoặc không tồn tại
+    List<String> unavailableIds;
+}
@@ -0,0 +1,17 @@
+package com.nvminh162.bookservice.query.model;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookCountResponseModel {
+    String author;
+    Long total;
+    Long available;
+    Long borrowed;
+}
@@ -2,54 +2,142 @@ package com.nvminh162.bookservice.query.projection;
 
 import com.nvminh162.bookservice.command.data.Book;
 import com.nvminh162.bookservice.command.data.BookRepository;
+import com.nvminh162.bookservice.mapper.BookMapper;
+import com.nvminh162.bookservice.query.cache.BookDetailCache;
+import com.nvminh162.bookservice.query.index.BookAvailabilityIndex;
+import com.nvminh162.bookservice.query.index.BookSearchIndex;
+import com.nvminh162.bookservice.query.model.BookAvailabilityCheckResponseModel;
+import com.nvminh162.bookservice.query.model.BookCountResponseModel;
 import com.nvminh162.commonservice.model.BookResponseCommonModel;
+import com.nvminh162.bookservice.query.queries.CheckBooksAvailabilityQuery;
+import com.nvminh162.bookservice.query.queries.CountBooksQuery;
 import com.nvminh162.bookservice.query.queries.GetAllBookQuery;
+import com.nvminh162.bookservice.query.queries.GetAvailableBooksQuery;
+import com.nvminh162.bookservice.query.queries.GetBookAvailabilityQuery;
+import com.nvminh162.bookservice.query.queries.SearchBooksQuery;
+import com.nvminh162.commonservice.model.BooksByIdsResponseCommonModel;
 import com.nvminh162.commonservice.queries.GetBookDetailQuery;
+import com.nvminh162.commonservice.queries.GetBooksByIdsQuery;
 
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.axonframework.queryhandling.QueryHandler;
-import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class BookProjection {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    public static final int MAX_SEARCH_LIMIT = 100;
+    // số id tối đa một request HTTP được tra cứu cùng lúc
+    public static final int MAX_BOOK_IDS = 500;
+    // số id tối đa trong một câu IN khi tra cứu theo lô
+    static final int ID_BATCH_SIZE = 500;
+
     BookRepository bookRepository;
+    BookDetailCache bookDetailCache;
+    BookSearchIndex bookSearchIndex;
+    BookAvailabilityIndex bookAvailabilityIndex;
+    BookMapper bookMapper;
 
     @QueryHandler
     public List<BookResponseCommonModel> handle(GetAllBookQuery query) {
-        /*
-        List<Book> books = bookRepository.findAll();
-        List<BookResponseCommonModel> booksResponse = new ArrayList<>();
-        books.forEach(book -> {
-            BookResponseCommonModel model = new BookResponseCommonModel();
-            BeanUtils.copyProperties(book, model);
-            booksResponse.add(model);
+        int size = query.getSize() == null ? DEFAULT_PAGE_SIZE : Math.clamp(query.getSize(), 1, MAX_PAGE_SIZE);
+        List<Book> books = bookRepository.findPage(query.getAfter(), query.getAuthor(), query.getIsReady(), Limit.of(size));
+        return books.stream().map(bookMapper::toResponse).toList();
+    }
+
+    @QueryHandler
+    public BookResponseCommonModel handle(GetBookDetailQuery query) throws Exception {
+        return bookDetailCache.get(query.getId(), () -> {
+            Book book = bookRepository.findById(query.getId()).orElseThrow(() -> new Exception("Book ID not found " + query.getId()));
+            return bookMapper.toResponse(book);
         });
-        return booksResponse;
-        */
+    }
+
+    /**
+     * Batch form of {@link GetBookDetailQuery}: ids already in the detail cache are served from it,
+     * the rest are fetched with one {@code IN} query per {@value #ID_BATCH_SIZE} ids. Fetched rows are not
+     * put into the cache: a row read here may already be stale when an event handler invalidates the entry.
+     */
+    @QueryHandler
+    public BooksByIdsResponseCommonModel handle(GetBooksByIdsQuery query) {
+        if (query.getIds() == null) {
+            throw new IllegalArgumentException("Book ids are required");
+        }
+        List<String> ids = List.copyOf(new LinkedHashSet<>(query.getIds()));
+        Map<String, BookResponseCommonModel> found = new HashMap<>(bookDetailCache.getAllPresent(ids));
 
-        List<Book> books = bookRepository.findAll();
-        return books.stream().map(book -> {
-            BookResponseCommonModel model = new BookResponseCommonModel();
-            BeanUtils.copyProperties(book, model);
-            return model;
-        }).toList();
+        List<String> toFetch = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        for (int from = 0; from < toFetch.size(); from += ID_BATCH_SIZE) {
+            List<String> chunk = toFetch.subList(from, Math.min(from + ID_BATCH_SIZE, toFetch.size()));
+            for (Book book : bookRepository.findAllById(chunk)) {
+                BookResponseCommonModel model = bookMapper.toResponse(book);
+                found.put(model.getId(), model);
+            }
+        }
+
+        List<BookResponseCommonModel> books = new ArrayList<>(found.size());
+        List<String> missingIds = new ArrayList<>();
+        for (String id : ids) {
+            BookResponseCommonModel model = found.get(id);
+            if (model != null) {
+                books.add(model);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new BooksByIdsResponseCommonModel(books, missingIds);
     }
 
     @QueryHandler
-    public BookResponseCommonModel handle(GetBookDetailQuery query) throws Exception {
-        BookResponseCommonModel model = new BookResponseCommonModel();
+    public List<BookResponseCommonModel> handle(SearchBooksQuery query) {
+        int limit = query.getLimit() == null ? DEFAULT_SEARCH_LIMIT : Math.clamp(query.getLimit(), 1, MAX_SEARCH_LIMIT);
+        return bookSearchIndex.search(query.getKeyword(), limit);
+    }
+
+    // initial result của subscription query; các thay đổi sau đó được BookEventsHandler emit
+    @QueryHandler
+    public List<BookResponseCommonModel> handle(GetBookAvailabilityQuery query) {
+        return bookRepository.findAllById(query.getBookIds()).stream().map(bookMapper::toResponse).toList();
+    }
+
+    @QueryHandler
+    public BookCountResponseModel handle(CountBooksQuery query) {
+        BookAvailabilityIndex.Counts counts = bookAvailabilityIndex.count(query.getAuthor());
+        return new BookCountResponseModel(query.getAuthor(), counts.total(), counts.available(),
+                counts.total() - counts.available());
+    }
 
-        Book book = bookRepository.findById(query.getId()).orElseThrow(() -> new Exception("Book ID not found " + query.getId()));
+    // id lấy từ bitmap index, chỉ đọc DB cho đúng một trang
+    @QueryHandler
+    public List<BookResponseCommonModel> handle(GetAvailableBooksQuery query) {
+        int offset = query.getOffset() == null ? 0 : Math.max(query.getOffset(), 0);
+        int limit = query.getLimit() == null ? DEFAULT_PAGE_SIZE : Math.clamp(query.getLimit(), 1, MAX_PAGE_SIZE);
+        List<String> ids = bookAvailabilityIndex.availableIds(query.getAuthor(), offset, limit);
+        Map<String, Book> books = bookRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return ids.stream().map(books::get).filter(Objects::nonNull).map(bookMapper::toResponse).toList();
+    }
 
-        BeanUtils.copyProperties(book, model);
-        return model;
+    @QueryHandler
+    public BookAvailabilityCheckResponseModel handle(CheckBooksAvailabilityQuery query) {
+        List<String> unavailableIds = bookAvailabilityIndex.unavailableIds(query.getBookIds());
+        return new BookAvailabilityCheckResponseModel(unavailableIds.isEmpty(), unavailableIds);
     }
 }
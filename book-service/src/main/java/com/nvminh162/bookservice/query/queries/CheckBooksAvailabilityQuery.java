@@ -0,0 +1,16 @@
+package com.nvminh162.bookservice.query.queries;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Set;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CheckBooksAvailabilityQuery {
+    Set<String> bookIds;
+}
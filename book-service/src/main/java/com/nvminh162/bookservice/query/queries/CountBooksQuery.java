@@ -0,0 +1,15 @@
+package com.nvminh162.bookservice.query.queries;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CountBooksQuery {
+    // null: đếm toàn bộ sách
+    String author;
+}
@@ -1,3 +1,18 @@
 package com.nvminh162.bookservice.query.queries;
 
-public class GetAllBookQuery {}
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class GetAllBookQuery {
+    // keyset cursor: id of the last book of the previous page (null = first page)
+    String after;
+    Integer size;
+    String author;
+    Boolean isReady;
+}
@@ -0,0 +1,16 @@
+package com.nvminh162.bookservice.query.queries;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class GetAvailableBooksQuery {
+    String author;
+    Integer offset;
+    Integer limit;
+}
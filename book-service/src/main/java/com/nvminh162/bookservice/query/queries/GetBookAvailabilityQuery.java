@@ -0,0 +1,17 @@
+package com.nvminh162.bookservice.query.queries;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Set;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class GetBookAvailabilityQuery {
+    // danh sách book mà client muốn theo dõi trạng thái isReady
+    Set<String> bookIds;
+}
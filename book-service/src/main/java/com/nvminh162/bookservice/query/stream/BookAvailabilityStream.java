@@ -0,0 +1,104 @@
+package com.nvminh162.bookservice.query.stream;
+
+import com.nvminh162.bookservice.query.queries.GetBookAvailabilityQuery;
+import com.nvminh162.commonservice.model.BookResponseCommonModel;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.messaging.responsetypes.ResponseTypes;
+import org.axonframework.queryhandling.QueryGateway;
+import org.axonframework.queryhandling.SubscriptionQueryResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Turns {@link GetBookAvailabilityQuery} subscription queries into SSE streams.
+ * Each stream is a non-blocking {@link Flux}, so idle subscribers only hold an async
+ * request and an Axon update handler — no servlet thread. The number of open streams
+ * is capped by {@code book.availability.max-subscribers}; excess clients get a 503. A slot is
+ * taken when the stream is subscribed, not when it is created, so a stream that is never
+ * subscribed does not leak one.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class BookAvailabilityStream {
+
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String UPDATE_EVENT = "update";
+
+    QueryGateway queryGateway;
+    int maxSubscribers;
+    int maxBookIds;
+    Duration heartbeatInterval;
+    AtomicInteger subscribers = new AtomicInteger();
+
+    public BookAvailabilityStream(
+            QueryGateway queryGateway,
+            @Value("${book.availability.max-subscribers:5000}") int maxSubscribers,
+            @Value("${book.availability.max-book-ids:500}") int maxBookIds,
+            @Value("${book.availability.heartbeat-interval:30s}") Duration heartbeatInterval,
+            MeterRegistry meterRegistry) {
+        this.queryGateway = queryGateway;
+        this.maxSubscribers = maxSubscribers;
+        this.maxBookIds = maxBookIds;
+        this.heartbeatInterval = heartbeatInterval;
+        Gauge.builder("book.availability.subscribers", subscribers, AtomicInteger::get)
+                .description("Open book-availability SSE streams")
+                .register(meterRegistry);
+    }
+
+    public Flux<ServerSentEvent<Object>> subscribe(Set<String> bookIds) {
+        if (bookIds.isEmpty() || bookIds.size() > maxBookIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Between 1 and " + maxBookIds + " book ids are required");
+        }
+        // chỉ giữ chỗ khi stream thật sự được subscribe, doFinally trả lại đúng chỗ đã giữ
+        return Flux.defer(() -> {
+            if (subscribers.incrementAndGet() > maxSubscribers) {
+                subscribers.decrementAndGet();
+                return Flux.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many availability subscribers"));
+            }
+
+            SubscriptionQueryResult<List<BookResponseCommonModel>, BookResponseCommonModel> result;
+            try {
+                result = queryGateway.subscriptionQuery(new GetBookAvailabilityQuery(bookIds),
+                        ResponseTypes.multipleInstancesOf(BookResponseCommonModel.class),
+                        ResponseTypes.instanceOf(BookResponseCommonModel.class));
+            } catch (RuntimeException e) {
+                subscribers.decrementAndGet();
+                return Flux.error(e);
+            }
+
+            // snapshot ban đầu, sau đó chỉ đẩy các thay đổi trạng thái
+            Flux<ServerSentEvent<Object>> snapshot = result.initialResult()
+                    .map(books -> ServerSentEvent.<Object>builder(books).event(SNAPSHOT_EVENT).build())
+                    .flux();
+            Flux<ServerSentEvent<Object>> updates = result.updates()
+                    .map(book -> ServerSentEvent.<Object>builder(book).event(UPDATE_EVENT).id(book.getId()).build());
+            // comment định kỳ để proxy/load balancer không cắt kết nối rảnh
+            Flux<ServerSentEvent<Object>> heartbeat = Flux.interval(heartbeatInterval)
+                    .map(tick -> ServerSentEvent.builder().comment("heartbeat").build());
+
+            return Flux.concat(snapshot, updates)
+                    .mergeWith(heartbeat)
+                    .doFinally(signal -> {
+                        result.cancel();
+                        subscribers.decrementAndGet();
+                        log.debug(">>> AVAILABILITY STREAM CLOSED ({}): {} open", signal, subscribers.get());
+                    });
+        });
+    }
+}
@@ -0,0 +1,119 @@
+package com.nvminh162.bookservice.command.aggregate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.DefaultConfigurer;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nvminh162.bookservice.command.command.CreateBookCommand;
+import com.nvminh162.commonservice.command.RollBackStatusBookCommand;
+import com.nvminh162.commonservice.command.UpdateStatusBookCommand;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Many borrowers race for one book: the aggregate must let exactly one of them win.
+ * Runs on an in-memory Axon configuration (no Axon Server, no Spring context). Every contended
+ * reservation is recorded in a Micrometer timer and the throughput is logged at the end.
+ */
+@Slf4j
+class BookAggregateConcurrencyTest {
+
+    static final String BOOK_ID = "hot-book";
+    static final int BORROWERS = 200;
+    static final int ROUNDS = 20;
+
+    Configuration configuration;
+    CommandGateway commandGateway;
+    Timer reservations = Timer.builder("book.reservation.contended").register(new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        configuration = DefaultConfigurer.defaultConfiguration(false)
+                .configureEmbeddedEventStore(config -> new InMemoryEventStorageEngine())
+                .configureAggregate(BookAggregate.class)
+                .buildConfiguration();
+        configuration.start();
+        commandGateway = configuration.commandGateway();
+        commandGateway.sendAndWait(new CreateBookCommand(BOOK_ID, "New release", "Author", true));
+    }
+
+    @AfterEach
+    void tearDown() {
+        configuration.shutdown();
+    }
+
+    @Test
+    void exactlyOneBorrowerWinsEachRound() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        long contendedNanos = 0;
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                AtomicInteger winners = new AtomicInteger();
+                AtomicInteger rejected = new AtomicInteger();
+                AtomicReference<String> winner = new AtomicReference<>();
+                CountDownLatch ready = new CountDownLatch(1);
+                CountDownLatch done = new CountDownLatch(BORROWERS);
+
+                for (int i = 0; i < BORROWERS; i++) {
+                    String borrowingId = "borrowing-" + round + "-" + i;
+                    executor.execute(() -> {
+                        try {
+                            ready.await();
+                            long start = System.nanoTime();
+                            try {
+                                commandGateway.sendAndWait(new UpdateStatusBookCommand(BOOK_ID, false, "employee", borrowingId));
+                            } finally {
+                                reservations.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                            }
+                            winners.incrementAndGet();
+                            winner.set(borrowingId);
+                        } catch (Exception e) {
+                            rejected.incrementAndGet();
+                        } finally {
+                            done.countDown();
+                        }
+                    });
+                }
+                long roundStart = System.nanoTime();
+                ready.countDown();
+                assertTrue(done.await(30, TimeUnit.SECONDS), "round " + round + " did not finish");
+                contendedNanos += System.nanoTime() - roundStart;
+
+                assertEquals(1, winners.get());
+                assertEquals(BORROWERS - 1, rejected.get());
+
+                // một lượt thua không được trả sách của người thắng
+                String loser = "borrowing-" + round + "-" + (winner.get().endsWith("-0") ? 1 : 0);
+                assertThrows(Exception.class, () ->
+                        commandGateway.sendAndWait(new RollBackStatusBookCommand(BOOK_ID, true, "employee", loser)));
+                commandGateway.sendAndWait(new RollBackStatusBookCommand(BOOK_ID, true, "employee", winner.get()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // chỉ tính thời gian các vòng tranh chấp, không tính lượt trả sách giữa các vòng
+        log.info(">>> {} contended reservation(s) in {} ms: {} commands/s, mean {} ms, max {} ms",
+                reservations.count(), TimeUnit.NANOSECONDS.toMillis(contendedNanos),
+                Math.round(reservations.count() * 1e9 / contendedNanos),
+                "%.2f".formatted(reservations.mean(TimeUnit.MILLISECONDS)),
+                "%.2f".formatted(reservations.max(TimeUnit.MILLISECONDS)));
+        assertEquals(ROUNDS * BORROWERS, reservations.count());
+    }
+}
@@ -0,0 +1,67 @@
+package com.nvminh162.bookservice.command.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.persistence.autoconfigure.EntityScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * Keyset pages of {@code GetAllBookQuery}, on the service's H2 schema.
+ */
+@DataJpaTest
+@ContextConfiguration(classes = BookRepositoryTest.JpaConfig.class)
+class BookRepositoryTest {
+
+    // @ComponentScan riêng của BookServiceApplication tắt bộ lọc của test slice: chỉ nạp phần JPA
+    @Configuration
+    @EntityScan(basePackageClasses = Book.class)
+    @EnableJpaRepositories(basePackageClasses = BookRepository.class)
+    static class JpaConfig {
+    }
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.saveAll(List.of(
+                book("b-4", "Herbert", true),
+                book("b-1", "Herbert", true),
+                book("b-5", "Austen", true),
+                book("b-2", "Austen", false),
+                book("b-3", "Herbert", false)));
+    }
+
+    @Test
+    void pagesSeekPastTheCursorInIdOrder() {
+        assertEquals(List.of("b-1", "b-2"), ids(bookRepository.findPage(null, null, null, Limit.of(2))));
+        assertEquals(List.of("b-3", "b-4"), ids(bookRepository.findPage("b-2", null, null, Limit.of(2))));
+        assertEquals(List.of("b-5"), ids(bookRepository.findPage("b-4", null, null, Limit.of(2))));
+        assertEquals(List.of(), ids(bookRepository.findPage("b-5", null, null, Limit.of(2))));
+    }
+
+    @Test
+    void filtersApplyBeforeTheLimit() {
+        assertEquals(List.of("b-1", "b-3"), ids(bookRepository.findPage(null, "Herbert", null, Limit.of(2))));
+        assertEquals(List.of("b-4"), ids(bookRepository.findPage("b-3", "Herbert", null, Limit.of(2))));
+        assertEquals(List.of("b-1", "b-4", "b-5"), ids(bookRepository.findPage(null, null, true, Limit.of(10))));
+        assertEquals(List.of("b-2"), ids(bookRepository.findPage(null, "Austen", false, Limit.of(10))));
+    }
+
+    private static List<String> ids(List<Book> books) {
+        return books.stream().map(Book::getId).toList();
+    }
+
+    private static Book book(String id, String author, boolean isReady) {
+        return Book.builder().id(id).name("Book " + id).author(author).isReady(isReady).build();
+    }
+}
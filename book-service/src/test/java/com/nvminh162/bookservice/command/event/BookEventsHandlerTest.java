@@ -0,0 +1,70 @@
+package com.nvminh162.bookservice.command.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.axonframework.queryhandling.QueryUpdateEmitter;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.nvminh162.bookservice.command.data.Book;
+import com.nvminh162.bookservice.command.data.BookRepository;
+import com.nvminh162.bookservice.mapper.BookMapper;
+import com.nvminh162.bookservice.query.cache.BookDetailCache;
+import com.nvminh162.bookservice.query.index.BookAvailabilityIndex;
+import com.nvminh162.bookservice.query.index.BookSearchIndex;
+import com.nvminh162.bookservice.query.queries.GetBookAvailabilityQuery;
+import com.nvminh162.commonservice.model.BookResponseCommonModel;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BookEventsHandlerTest {
+
+    BookRepository bookRepository = mock(BookRepository.class);
+    QueryUpdateEmitter queryUpdateEmitter = mock(QueryUpdateEmitter.class);
+    BookEventsHandler handler = new BookEventsHandler(bookRepository,
+            new BookDetailCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry()),
+            new BookSearchIndex(), new BookAvailabilityIndex(), queryUpdateEmitter, BookMapper.INSTANCE);
+
+    @Test
+    void updatePushesTheNewAvailability() {
+        when(bookRepository.findById("b-1")).thenReturn(Optional.of(book(true)));
+
+        handler.on(new BookUpdatedEvent("b-1", "name", "author", false));
+
+        BookResponseCommonModel pushed = emitted();
+        assertEquals("b-1", pushed.getId());
+        assertEquals(false, pushed.getIsReady());
+    }
+
+    @Test
+    void deletePushesTheBookAsNoLongerAvailable() {
+        when(bookRepository.findById("b-1")).thenReturn(Optional.of(book(true)));
+
+        handler.on(new BookDeletedEvent("b-1"));
+
+        assertEquals(false, emitted().getIsReady());
+    }
+
+    @SuppressWarnings("unchecked")
+    private BookResponseCommonModel emitted() {
+        ArgumentCaptor<Predicate<GetBookAvailabilityQuery>> filter = ArgumentCaptor.forClass(Predicate.class);
+        ArgumentCaptor<Object> update = ArgumentCaptor.forClass(Object.class);
+        verify(queryUpdateEmitter).emit(eq(GetBookAvailabilityQuery.class), filter.capture(), update.capture());
+        assertTrue(filter.getValue().test(new GetBookAvailabilityQuery(Set.of("b-1"))));
+        return (BookResponseCommonModel) update.getValue();
+    }
+
+    private static Book book(boolean isReady) {
+        return Book.builder().id("b-1").name("name").author("author").isReady(isReady).build();
+    }
+}
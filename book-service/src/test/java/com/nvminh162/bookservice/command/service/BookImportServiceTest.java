@@ -0,0 +1,80 @@
+package com.nvminh162.bookservice.command.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.junit.jupiter.api.Test;
+
+import com.nvminh162.bookservice.command.command.CreateBookCommand;
+import com.nvminh162.bookservice.command.model.BookImportFailureModel;
+import com.nvminh162.bookservice.command.model.BookImportResultModel;
+
+import jakarta.validation.Validation;
+import tools.jackson.databind.json.JsonMapper;
+
+class BookImportServiceTest {
+
+    CommandGateway commandGateway = mock(CommandGateway.class);
+    Queue<CreateBookCommand> sent = new ConcurrentLinkedQueue<>();
+    BookImportService importService = new BookImportService(commandGateway, JsonMapper.builder().build(),
+            Validation.buildDefaultValidatorFactory().getValidator(), 4, 100, 10_000);
+
+    @Test
+    void skipsOnlyAnExactHeaderRow() throws Exception {
+        when(commandGateway.send(any())).thenAnswer(call -> {
+            sent.add(call.getArgument(0));
+            return CompletableFuture.completedFuture(null);
+        });
+
+        BookImportResultModel withHeader = importCsv("\uFEFF Name , AUTHOR\nDune,Frank Herbert\n");
+        assertEquals(1, withHeader.getTotal());
+
+        // dòng đầu là sách có tên bắt đầu bằng "name", không phải header
+        BookImportResultModel withoutHeader = importCsv("Namesake,Jhumpa Lahiri\n\"name\",author\nDune,Frank Herbert\n");
+        assertEquals(3, withoutHeader.getTotal());
+        assertEquals(4, withHeader.getSucceeded() + withoutHeader.getSucceeded());
+        assertEquals(List.of("Dune", "Namesake", "name", "Dune"), sent.stream().map(CreateBookCommand::getName).toList());
+    }
+
+    @Test
+    void rejectsRowsWithoutExactlyTwoColumns() throws Exception {
+        when(commandGateway.send(any())).thenAnswer(call -> {
+            sent.add(call.getArgument(0));
+            return CompletableFuture.completedFuture(null);
+        });
+
+        BookImportResultModel result = importCsv("Hello, World,Author\n\"Hello, World\",Author\nDune\n");
+
+        assertEquals(3, result.getTotal());
+        assertEquals(1, result.getSucceeded());
+        assertEquals(List.of(1L, 3L), result.getFailures().stream().map(BookImportFailureModel::getRow).toList());
+        assertEquals(List.of("Hello, World"), sent.stream().map(CreateBookCommand::getName).toList());
+    }
+
+    @Test
+    void synchronousSendFailureReleasesItsSlot() {
+        when(commandGateway.send(any())).thenThrow(new IllegalStateException("no handler"));
+        // nhiều dòng hơn maxInFlight: nếu permit không được trả thì lần đợi cuối treo mãi
+        BookImportResultModel result = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> importCsv("Book A,Author\nBook B,Author\nBook C,Author\nBook D,Author\nBook E,Author\nBook F,Author\n"));
+
+        assertEquals(6, result.getFailed());
+        assertEquals("no handler", result.getFailures().getFirst().getMessage());
+    }
+
+    private BookImportResultModel importCsv(String csv) throws Exception {
+        return importService.importBooks(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), BookImportService.Format.CSV);
+    }
+}
@@ -0,0 +1,57 @@
+package com.nvminh162.bookservice.query.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.nvminh162.commonservice.model.BookResponseCommonModel;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BookDetailCacheTest {
+
+    BookDetailCache cache = new BookDetailCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+
+    @Test
+    void servesHitsWithoutLoading() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("b-1", () -> book("old", loads.incrementAndGet()));
+        cache.get("b-1", () -> book("old", loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void doesNotCacheARowReadBeforeAnInvalidation() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        // query đọc bản cũ, event handler commit và invalidate trước khi query kịp ghi vào cache
+        CompletableFuture<BookResponseCommonModel> staleRead = CompletableFuture.supplyAsync(() -> {
+            try {
+                return cache.get("b-1", () -> {
+                    reading.countDown();
+                    assertTrue(invalidated.await(5, TimeUnit.SECONDS));
+                    return book("old", 1);
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+        cache.invalidate("b-1");
+        invalidated.countDown();
+
+        assertEquals("old", staleRead.get(5, TimeUnit.SECONDS).getName());
+        assertEquals("new", cache.get("b-1", () -> book("new", 2)).getName());
+    }
+
+    static BookResponseCommonModel book(String name, int load) {
+        return BookResponseCommonModel.builder().id("b-1").name(name).author("author " + load).isReady(true).build();
+    }
+}
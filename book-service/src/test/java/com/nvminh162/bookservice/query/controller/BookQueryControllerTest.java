@@ -0,0 +1,108 @@
+package com.nvminh162.bookservice.query.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import org.axonframework.messaging.responsetypes.ResponseType;
+import org.axonframework.queryhandling.QueryGateway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.nvminh162.bookservice.query.projection.BookProjection;
+import com.nvminh162.bookservice.query.queries.CheckBooksAvailabilityQuery;
+import com.nvminh162.bookservice.query.queries.GetAllBookQuery;
+import com.nvminh162.bookservice.query.stream.BookAvailabilityStream;
+import com.nvminh162.commonservice.model.BookResponseCommonModel;
+import com.nvminh162.commonservice.queries.GetBooksByIdsQuery;
+
+import tools.jackson.databind.json.JsonMapper;
+
+class BookQueryControllerTest {
+
+    // nhiều hơn hai trang MAX_PAGE_SIZE để stream phải đi qua trang cuối không đầy
+    static final int CATALOG_SIZE = 2 * BookProjection.MAX_PAGE_SIZE + 3;
+
+    List<BookResponseCommonModel> catalog = IntStream.range(0, CATALOG_SIZE)
+            .mapToObj(i -> BookResponseCommonModel.builder().id("b-%05d".formatted(i)).name("Book " + i).author("author").isReady(true).build())
+            .toList();
+    QueryGateway queryGateway = mock(QueryGateway.class);
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        // giống BookRepository.findPage: các id sau cursor, theo thứ tự id
+        when(queryGateway.query(any(GetAllBookQuery.class), any(ResponseType.class))).thenAnswer(call -> {
+            GetAllBookQuery query = call.getArgument(0);
+            return CompletableFuture.completedFuture(catalog.stream()
+                    .filter(book -> query.getAfter() == null || book.getId().compareTo(query.getAfter()) > 0)
+                    .limit(query.getSize())
+                    .toList());
+        });
+        mockMvc = MockMvcBuilders.standaloneSetup(new BookQueryController(queryGateway, JsonMapper.builder().build(),
+                mock(BookAvailabilityStream.class))).build();
+    }
+
+    @Test
+    void fullPageCarriesTheNextCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/books").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(header().string(BookQueryController.NEXT_CURSOR_HEADER, "b-00001"));
+
+        mockMvc.perform(get("/api/v1/books").param("after", catalog.get(CATALOG_SIZE - 2).getId()).param("size", "2"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().doesNotExist(BookQueryController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void batchLookupNeedsBetweenOneAndMaxBookIds() throws Exception {
+        mockMvc.perform(get("/api/v1/books/batch")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/books/batch").param("ids", "")).andExpect(status().isBadRequest());
+        String tooMany = String.join(",", IntStream.rangeClosed(0, BookProjection.MAX_BOOK_IDS).mapToObj(i -> "b-" + i).toList());
+        mockMvc.perform(get("/api/v1/books/batch").param("ids", tooMany)).andExpect(status().isBadRequest());
+        verify(queryGateway, never()).query(any(GetBooksByIdsQuery.class), any(ResponseType.class));
+    }
+
+    @Test
+    void availabilityCheckNeedsBetweenOneAndMaxBookIds() throws Exception {
+        mockMvc.perform(get("/api/v1/books/availability")).andExpect(status().isBadRequest());
+        String tooMany = String.join(",", IntStream.rangeClosed(0, BookProjection.MAX_BOOK_IDS).mapToObj(i -> "b-" + i).toList());
+        mockMvc.perform(get("/api/v1/books/availability").param("ids", tooMany)).andExpect(status().isBadRequest());
+        verify(queryGateway, never()).query(any(CheckBooksAvailabilityQuery.class), any(ResponseType.class));
+    }
+
+    @Test
+    void streamsTheWholeCatalogAsNdjson() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/v1/books/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BookQueryController.NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertEquals(CATALOG_SIZE, lines.size());
+        assertEquals(catalog.getLast().getId(),
+                JsonMapper.builder().build().readValue(lines.getLast(), BookResponseCommonModel.class).getId());
+    }
+}
@@ -0,0 +1,61 @@
+package com.nvminh162.bookservice.query.index;
+
+import static com.nvminh162.bookservice.query.index.BookSearchIndexTest.book;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+class BookAvailabilityIndexTest {
+
+    BookAvailabilityIndex index = new BookAvailabilityIndex();
+
+    @Test
+    void startupLoadNeverOverridesTheEventHandler() {
+        index.index(book("b-1", "name", "author", false));
+        index.index(book("b-2", "name", "author", true));
+        index.remove("b-2");
+
+        // trang đọc từ DB trước khi các event trên commit
+        index.indexAllIfAbsent(List.of(
+                book("b-1", "name", "author", true),
+                book("b-2", "name", "author", true),
+                book("b-3", "name", "author", true)));
+
+        assertEquals(new BookAvailabilityIndex.Counts(2, 1), index.count(null));
+        assertEquals(List.of("b-1", "b-2"), index.unavailableIds(List.of("b-1", "b-2", "b-3")));
+    }
+
+    @Test
+    void countsComeFromOneSnapshot() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            index.index(book("b-" + i, "name", "author", false));
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        try (ExecutorService writer = Executors.newSingleThreadExecutor()) {
+            Future<?> flips = writer.submit(() -> {
+                for (int round = 0; running.get(); round++) {
+                    boolean ready = round % 2 == 0;
+                    for (int i = 0; i < 100; i++) {
+                        index.index(book("b-" + i, "name", "author", ready));
+                    }
+                    index.index(book("extra", "name", "author", true));
+                    index.remove("extra");
+                }
+            });
+            for (int read = 0; read < 20_000; read++) {
+                BookAvailabilityIndex.Counts counts = index.count("author");
+                assertTrue(counts.available() <= counts.total(), counts.toString());
+            }
+            running.set(false);
+            flips.get(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.nvminh162.bookservice.query.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.nvminh162.commonservice.model.BookResponseCommonModel;
+
+class BookSearchIndexTest {
+
+    BookSearchIndex index = new BookSearchIndex();
+
+    @Test
+    void scoresEveryCandidateOfTheDrivingToken() {
+        for (int i = 0; i < 2_500; i++) {
+            index.index(book("boom-" + i, "boom", "zedd", true));
+        }
+        // "boot" nằm sau 2.500 id của "boom" trong range của "boo" nhưng điểm cao nhất
+        index.index(book("boot", "boot", "zed", true));
+
+        List<BookResponseCommonModel> result = index.search("boo zed", 5);
+
+        assertEquals(5, result.size());
+        assertEquals("boot", result.getFirst().getId());
+    }
+
+    @Test
+    void shortTokensOnlyMatchWholeTerms() {
+        index.index(book("b-1", "a tale", "author", true));
+        index.index(book("b-2", "anna", "author", true));
+
+        assertEquals(List.of("b-1"), index.search("a", 10).stream().map(BookResponseCommonModel::getId).toList());
+        assertEquals(List.of("b-2"), index.search("ann", 10).stream().map(BookResponseCommonModel::getId).toList());
+    }
+
+    @Test
+    void candidatesAreCappedWithWholeTermsFirst() {
+        for (int i = 0; i < BookSearchIndex.MAX_CANDIDATES; i++) {
+            index.index(book("abcd-" + i, "abcd", "author", true));
+        }
+        // index sau cùng nhưng "abc" là nguyên từ nên đứng đầu range, không bị cắt
+        index.index(book("abc", "abc", "author", true));
+
+        List<BookResponseCommonModel> result = index.search("abc", 3);
+
+        assertEquals("abc", result.getFirst().getId());
+        assertEquals(3, result.size());
+    }
+
+    @Test
+    void startupLoadNeverOverridesTheEventHandler() {
+        // handler đã index bản mới trước khi loader tới trang chứa sách này
+        index.index(book("b-1", "new name", "author", false));
+        index.indexIfAbsent(book("b-1", "old name", "author", true));
+        assertEquals(false, index.search("new", 10).getFirst().getIsReady());
+        assertTrue(index.search("old", 10).isEmpty());
+
+        // handler đã xoá: trang đọc trước đó không được thêm lại
+        index.remove("b-1");
+        index.indexIfAbsent(book("b-1", "new name", "author", false));
+        assertEquals(0, index.size());
+
+        // tạo lại cùng id thì xoá tombstone
+        index.index(book("b-1", "again", "author", true));
+        assertEquals("b-1", index.search("again", 10).getFirst().getId());
+    }
+
+    @Test
+    void tombstonesAreDroppedOnceTheLoadIsDone() {
+        index.remove("b-1");
+        index.remove("b-2");
+        index.finishLoad();
+        index.remove("b-3");
+
+        // không còn tombstone nào chặn id đã xoá, kể cả id xoá sau khi nạp xong
+        index.indexIfAbsent(book("b-1", "name", "author", true));
+        index.indexIfAbsent(book("b-3", "name", "author", true));
+        assertEquals(2, index.size());
+    }
+
+    static BookResponseCommonModel book(String id, String name, String author, boolean isReady) {
+        return BookResponseCommonModel.builder().id(id).name(name).author(author).isReady(isReady).build();
+    }
+}
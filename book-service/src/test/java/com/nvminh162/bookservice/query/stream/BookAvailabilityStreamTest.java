@@ -0,0 +1,67 @@
+package com.nvminh162.bookservice.query.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import org.axonframework.messaging.responsetypes.ResponseType;
+import org.axonframework.queryhandling.QueryGateway;
+import org.axonframework.queryhandling.SubscriptionQueryResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.nvminh162.bookservice.query.queries.GetBookAvailabilityQuery;
+import com.nvminh162.commonservice.model.BookResponseCommonModel;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class BookAvailabilityStreamTest {
+
+    QueryGateway queryGateway = mock(QueryGateway.class);
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    BookAvailabilityStream stream = new BookAvailabilityStream(queryGateway, 1, 10, Duration.ofMinutes(1), meterRegistry);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void takesASlotOnlyWhileSubscribed() {
+        SubscriptionQueryResult<List<BookResponseCommonModel>, BookResponseCommonModel> result = mock(SubscriptionQueryResult.class);
+        when(result.initialResult()).thenReturn(Mono.just(List.of()));
+        when(result.updates()).thenReturn(Flux.never());
+        when(queryGateway.subscriptionQuery(any(GetBookAvailabilityQuery.class), any(ResponseType.class), any(ResponseType.class)))
+                .thenReturn(result);
+
+        // stream tạo ra nhưng không ai subscribe: không giữ chỗ, không mở subscription query
+        stream.subscribe(Set.of("b-1"));
+        assertEquals(0, openStreams());
+        verify(queryGateway, never()).subscriptionQuery(any(GetBookAvailabilityQuery.class), any(ResponseType.class), any(ResponseType.class));
+
+        Disposable first = stream.subscribe(Set.of("b-1")).subscribe();
+        assertEquals(1, openStreams());
+
+        // vượt giới hạn 1 stream
+        ResponseStatusException rejected = assertThrows(ResponseStatusException.class,
+                () -> stream.subscribe(Set.of("b-2")).blockFirst(Duration.ofSeconds(5)));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+        assertEquals(1, openStreams());
+
+        first.dispose();
+        assertEquals(0, openStreams());
+        verify(result).cancel();
+    }
+
+    private double openStreams() {
+        return meterRegistry.get("book.availability.subscribers").gauge().value();
+    }
+}
@@ -3,32 +3,48 @@ package com.nvminh162.borrowingservice.command.aggregate;
 import java.util.Date;
 
 import org.axonframework.commandhandling.CommandHandler;
+import org.axonframework.deadline.DeadlineManager;
+import org.axonframework.deadline.annotation.DeadlineHandler;
 import org.axonframework.eventsourcing.EventSourcingHandler;
 import org.axonframework.modelling.command.AggregateIdentifier;
 import org.axonframework.modelling.command.AggregateLifecycle;
 import org.axonframework.spring.stereotype.Aggregate;
 import org.springframework.beans.BeanUtils;
 
+import com.nvminh162.borrowingservice.command.command.ConfirmBorrowingCommand;
 import com.nvminh162.borrowingservice.command.command.CreateBorrowingCommand;
 import com.nvminh162.borrowingservice.command.command.DeleteBorrowingCommand;
+import com.nvminh162.borrowingservice.command.command.ReturnBookCommand;
+import com.nvminh162.borrowingservice.command.event.BatchLoanCreatedEvent;
+import com.nvminh162.borrowingservice.command.event.BookReturnedEvent;
+import com.nvminh162.borrowingservice.command.event.BorrowingConfirmedEvent;
 import com.nvminh162.borrowingservice.command.event.BorrowingCreatedEvent;
 import com.nvminh162.borrowingservice.command.event.BorrowingDeletedEvent;
+import com.nvminh162.borrowingservice.command.event.BorrowingOverdueEvent;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.experimental.FieldDefaults;
 
-@Aggregate
+@Aggregate(snapshotTriggerDefinition = "borrowingSnapshotTrigger")
 @NoArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class BorrowingAggregate {
 
+    static final String OVERDUE_DEADLINE = "borrowingOverdue";
+
     @AggregateIdentifier
     String id;
+    // lượt mượn theo lô: id của BorrowingBatchAggregate đang giữ sách
+    String batchId;
     String bookId;
     String employeeId;
     Date borrowingDate;
+    Date dueDate;
     Date returnDate;
+    boolean confirmed;
+    boolean deleted;
+    String overdueScheduleId;
 
     @CommandHandler
     public BorrowingAggregate(CreateBorrowingCommand command) {
@@ -37,22 +53,92 @@ public class BorrowingAggregate {
         AggregateLifecycle.apply(event);
     }
 
+    /*
+     * Một sách của lượt mượn theo lô, do BorrowingBatchAggregate tạo khi lô được xác nhận:
+     * sách đã được giữ nên không qua BorrowingSaga, xác nhận và lập lịch hạn trả ngay.
+     */
+    public BorrowingAggregate(BatchLoanCreatedEvent event, DeadlineManager deadlineManager) {
+        AggregateLifecycle.apply(event);
+        // trong constructor event chỉ được áp dụng sau khi khởi tạo xong: đọc hạn trả từ event
+        String scheduleId = deadlineManager.schedule(event.getDueDate().toInstant(), OVERDUE_DEADLINE);
+        AggregateLifecycle.apply(new BorrowingConfirmedEvent(event.getId(), scheduleId));
+    }
+
     @CommandHandler
     public void handle(DeleteBorrowingCommand command) {
         BorrowingDeletedEvent event = new BorrowingDeletedEvent(command.getId());
         AggregateLifecycle.apply(event);
     }
 
+    // lượt mượn chỉ bắt đầu tính hạn khi saga xác nhận; mỗi lượt mượn đúng một deadline
+    @CommandHandler
+    public void handle(ConfirmBorrowingCommand command, DeadlineManager deadlineManager) {
+        if (deleted) {
+            throw new IllegalStateException("Borrowing " + id + " has been deleted");
+        }
+        // xác nhận lần hai sẽ lập deadline thứ hai và ghi đè id lịch, deadline đầu không huỷ được nữa
+        if (confirmed) {
+            throw new IllegalStateException("Borrowing " + id + " has already been confirmed");
+        }
+        String scheduleId = dueDate != null ? deadlineManager.schedule(dueDate.toInstant(), OVERDUE_DEADLINE) : null;
+        AggregateLifecycle.apply(new BorrowingConfirmedEvent(command.getId(), scheduleId));
+    }
+
+    @CommandHandler
+    public void handle(ReturnBookCommand command, DeadlineManager deadlineManager) {
+        if (!confirmed) {
+            throw new IllegalStateException("Borrowing " + id + " is not active");
+        }
+        if (returnDate != null) {
+            throw new IllegalStateException("Borrowing " + id + " has already been returned");
+        }
+        AggregateLifecycle.apply(new BookReturnedEvent(id, bookId, employeeId, command.getReturnDate(), batchId));
+        if (overdueScheduleId != null) {
+            deadlineManager.cancelSchedule(OVERDUE_DEADLINE, overdueScheduleId);
+        }
+    }
+
+    @DeadlineHandler(deadlineName = OVERDUE_DEADLINE)
+    public void onOverdue() {
+        if (returnDate == null) {
+            AggregateLifecycle.apply(new BorrowingOverdueEvent(id, bookId, employeeId, dueDate));
+        }
+    }
+
     @EventSourcingHandler
     public void on(BorrowingCreatedEvent event) {
         this.id = event.getId();
         this.bookId = event.getBookId();
         this.employeeId = event.getEmployeeId();
         this.borrowingDate = event.getBorrowingDate();
+        this.dueDate = event.getDueDate();
+    }
+
+    @EventSourcingHandler
+    public void on(BatchLoanCreatedEvent event) {
+        this.id = event.getId();
+        this.batchId = event.getBatchId();
+        this.bookId = event.getBookId();
+        this.employeeId = event.getEmployeeId();
+        this.borrowingDate = event.getBorrowingDate();
+        this.dueDate = event.getDueDate();
+    }
+
+    @EventSourcingHandler
+    public void on(BorrowingConfirmedEvent event) {
+        this.id = event.getId();
+        this.confirmed = true;
+        this.overdueScheduleId = event.getOverdueScheduleId();
+    }
+
+    @EventSourcingHandler
+    public void on(BookReturnedEvent event) {
+        this.returnDate = event.getReturnDate();
     }
 
     @EventSourcingHandler
     public void on(BorrowingDeletedEvent event) {
         this.id = event.getId();
+        this.deleted = true;
     }
 }
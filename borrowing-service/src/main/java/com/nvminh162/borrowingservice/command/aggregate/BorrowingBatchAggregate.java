@@ -0,0 +1,100 @@
+package com.nvminh162.borrowingservice.command.aggregate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.axonframework.commandhandling.CommandHandler;
+import org.axonframework.deadline.DeadlineManager;
+import org.axonframework.eventsourcing.EventSourcingHandler;
+import org.axonframework.modelling.command.AggregateIdentifier;
+import org.axonframework.modelling.command.AggregateLifecycle;
+import org.axonframework.spring.stereotype.Aggregate;
+
+import com.nvminh162.borrowingservice.command.command.CancelBatchBorrowingCommand;
+import com.nvminh162.borrowingservice.command.command.ConfirmBatchBorrowingCommand;
+import com.nvminh162.borrowingservice.command.command.CreateBatchBorrowingCommand;
+import com.nvminh162.borrowingservice.command.event.BatchBorrowingCancelledEvent;
+import com.nvminh162.borrowingservice.command.event.BatchBorrowingConfirmedEvent;
+import com.nvminh162.borrowingservice.command.event.BatchBorrowingCreatedEvent;
+import com.nvminh162.borrowingservice.command.event.BatchLoanCreatedEvent;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * One checkout of several books for one employee. The batch is all-or-nothing:
+ * it ends either confirmed (every book reserved) or cancelled (every reserved book rolled back).
+ * On confirmation each book becomes its own {@link BorrowingAggregate}, which is returned and
+ * goes overdue exactly like a single borrowing.
+ */
+@Aggregate
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BorrowingBatchAggregate {
+
+    @AggregateIdentifier
+    String id;
+    String employeeId;
+    List<String> bookIds;
+    Date borrowingDate;
+    Date dueDate;
+    boolean confirmed;
+    boolean cancelled;
+
+    @CommandHandler
+    public BorrowingBatchAggregate(CreateBatchBorrowingCommand command) {
+        AggregateLifecycle.apply(new BatchBorrowingCreatedEvent(
+                command.getId(), command.getEmployeeId(), command.getBookIds(), command.getBorrowingDate(), command.getDueDate()));
+    }
+
+    @CommandHandler
+    public void handle(CancelBatchBorrowingCommand command) {
+        if (confirmed) {
+            throw new IllegalStateException("Batch borrowing " + id + " is already confirmed");
+        }
+        AggregateLifecycle.apply(new BatchBorrowingCancelledEvent(id, command.getRejectedBookIds(), command.getReason()));
+    }
+
+    @CommandHandler
+    public void handle(ConfirmBatchBorrowingCommand command, DeadlineManager deadlineManager) throws Exception {
+        if (cancelled) {
+            throw new IllegalStateException("Batch borrowing " + id + " is already cancelled");
+        }
+        if (confirmed) {
+            return;
+        }
+        AggregateLifecycle.apply(new BatchBorrowingConfirmedEvent(id, employeeId, bookIds, borrowingDate));
+        for (String bookId : bookIds) {
+            BatchLoanCreatedEvent loan = new BatchLoanCreatedEvent(
+                    loanId(id, bookId), id, bookId, employeeId, borrowingDate, dueDate);
+            AggregateLifecycle.createNew(BorrowingAggregate.class, () -> new BorrowingAggregate(loan, deadlineManager));
+        }
+    }
+
+    // id của lượt mượn từng sách suy ra từ batchId: xác nhận lặp lại hay replay đều cho cùng id
+    public static String loanId(String batchId, String bookId) {
+        return UUID.nameUUIDFromBytes((batchId + ":" + bookId).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    @EventSourcingHandler
+    public void on(BatchBorrowingCreatedEvent event) {
+        this.id = event.getId();
+        this.employeeId = event.getEmployeeId();
+        this.bookIds = event.getBookIds();
+        this.borrowingDate = event.getBorrowingDate();
+        this.dueDate = event.getDueDate();
+    }
+
+    @EventSourcingHandler
+    public void on(BatchBorrowingCancelledEvent event) {
+        this.cancelled = true;
+    }
+
+    @EventSourcingHandler
+    public void on(BatchBorrowingConfirmedEvent event) {
+        this.confirmed = true;
+    }
+}
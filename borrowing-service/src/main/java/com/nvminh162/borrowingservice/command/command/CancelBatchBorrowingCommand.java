@@ -0,0 +1,28 @@
+package com.nvminh162.borrowingservice.command.command;
+
+import java.util.List;
+
+import org.axonframework.modelling.command.TargetAggregateIdentifier;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CancelBatchBorrowingCommand {
+
+    @TargetAggregateIdentifier
+    String id;
+    // sách không giữ được (không tồn tại, đang được mượn, hoặc lệnh khoá sách bị lỗi)
+    List<String> rejectedBookIds;
+    String reason;
+}
@@ -0,0 +1,23 @@
+package com.nvminh162.borrowingservice.command.command;
+
+import org.axonframework.modelling.command.TargetAggregateIdentifier;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ConfirmBatchBorrowingCommand {
+
+    @TargetAggregateIdentifier
+    String id;
+}
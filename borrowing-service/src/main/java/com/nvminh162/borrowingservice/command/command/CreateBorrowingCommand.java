@@ -25,4 +25,5 @@ public class CreateBorrowingCommand {
     String bookId;
     String employeeId;
     Date borrowingDate;
+    Date dueDate;
 }
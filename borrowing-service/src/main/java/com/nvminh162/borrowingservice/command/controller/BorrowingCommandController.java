@@ -1,18 +1,36 @@
 package com.nvminh162.borrowingservice.command.controller;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.UUID;
 
 import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.nvminh162.borrowingservice.command.command.CreateBatchBorrowingCommand;
 import com.nvminh162.borrowingservice.command.command.CreateBorrowingCommand;
+import com.nvminh162.borrowingservice.command.command.ReturnBookCommand;
+import com.nvminh162.borrowingservice.command.model.BorrowingBatchCreateModel;
 import com.nvminh162.borrowingservice.command.model.BorrowingCreateModel;
+import com.nvminh162.borrowingservice.command.precheck.BorrowingPrecheck;
+import com.nvminh162.commonservice.idempotency.IdempotencyKeyStore;
+
+import jakarta.validation.Valid;
 
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
@@ -23,16 +41,61 @@ import org.springframework.web.bind.annotation.RequestBody;
 public class BorrowingCommandController {
 
     CommandGateway commandGateway;
+    BorrowingPrecheck borrowingPrecheck;
+    IdempotencyKeyStore idempotencyKeyStore;
+
+    @NonFinal
+    @Value("${borrowing.batch.max-books:20}")
+    int maxBooksPerBatch;
+
+    @NonFinal
+    @Value("${borrowing.loan-period:14d}")
+    Duration loanPeriod;
 
     @PostMapping
-    public String createBorrowing(@RequestBody BorrowingCreateModel model) {
-        CreateBorrowingCommand command = CreateBorrowingCommand.builder()
-                .id(UUID.randomUUID().toString())
-                .bookId(model.getBookId())
-                .employeeId(model.getEmployeeId())
-                .borrowingDate(new Date())
-                .build();
-        return commandGateway.sendAndWait(command);
+    public String createBorrowing(@RequestBody BorrowingCreateModel model,
+                                  @RequestHeader(value = IdempotencyKeyStore.HEADER, required = false) String idempotencyKey) {
+        // client retry cùng key nhận lại borrowing id cũ thay vì tạo aggregate + saga mới
+        return idempotencyKeyStore.execute("borrowing", idempotencyKey, model, () -> {
+            borrowingPrecheck.requireAvailable(model.getBookId());
+            Instant now = Instant.now();
+            CreateBorrowingCommand command = CreateBorrowingCommand.builder()
+                    .id(UUID.randomUUID().toString())
+                    .bookId(model.getBookId())
+                    .employeeId(model.getEmployeeId())
+                    .borrowingDate(Date.from(now))
+                    .dueDate(Date.from(now.plus(loanPeriod)))
+                    .build();
+            return commandGateway.sendAndWait(command);
+        });
+    }
+
+    @PutMapping("/{borrowingId}/return")
+    public void returnBook(@PathVariable String borrowingId) {
+        commandGateway.sendAndWait(new ReturnBookCommand(borrowingId, new Date()));
+    }
+
+    // mượn nhiều sách trong một lần: một aggregate, một saga, all-or-nothing
+    @PostMapping("/batch")
+    public String createBatchBorrowing(@Valid @RequestBody BorrowingBatchCreateModel model,
+                                       @RequestHeader(value = IdempotencyKeyStore.HEADER, required = false) String idempotencyKey) {
+        List<String> bookIds = List.copyOf(new LinkedHashSet<>(model.getBookIds()));
+        if (bookIds.size() > maxBooksPerBatch) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxBooksPerBatch + " books can be borrowed at once");
+        }
+        return idempotencyKeyStore.execute("borrowing-batch", idempotencyKey, model, () -> {
+            borrowingPrecheck.requireAvailable(bookIds);
+            Instant now = Instant.now();
+            CreateBatchBorrowingCommand command = CreateBatchBorrowingCommand.builder()
+                    .id(UUID.randomUUID().toString())
+                    .employeeId(model.getEmployeeId())
+                    .bookIds(bookIds)
+                    .borrowingDate(Date.from(now))
+                    .dueDate(Date.from(now.plus(loanPeriod)))
+                    .build();
+            return commandGateway.sendAndWait(command);
+        });
     }
 
 }
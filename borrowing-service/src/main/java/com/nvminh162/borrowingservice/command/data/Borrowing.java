@@ -4,6 +4,7 @@ import java.util.Date;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
@@ -20,7 +21,10 @@ import lombok.experimental.FieldDefaults;
 @NoArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Entity
-@Table(name = "borrowing")
+@Table(name = "borrowing", indexes = {
+        @Index(name = "idx_borrowing_employee_return_id", columnList = "employeeId, returnDate, id"),
+        @Index(name = "idx_borrowing_book_id", columnList = "bookId, id")
+})
 public class Borrowing {
     @Id
     String id;
@@ -28,5 +32,9 @@ public class Borrowing {
     String bookId;
     String employeeId;
     Date borrowingDate;
+    Date dueDate;
     Date returnDate;
+    Boolean overdue;
+    // null với lượt mượn đơn lẻ
+    String batchId;
 }
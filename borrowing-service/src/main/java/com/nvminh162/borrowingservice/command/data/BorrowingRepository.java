@@ -1,7 +1,44 @@
 package com.nvminh162.borrowingservice.command.data;
 
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface BorrowingRepository extends JpaRepository<Borrowing, String> {}
+public interface BorrowingRepository extends JpaRepository<Borrowing, String> {
+
+    // keyset pagination trên idx_borrowing_employee_return_id
+    @Query("""
+            select b from Borrowing b
+            where b.employeeId = :employeeId
+              and b.returnDate is null
+              and (:after is null or b.id > :after)
+            order by b.id
+            """)
+    List<Borrowing> findActiveByEmployee(@Param("employeeId") String employeeId,
+                                         @Param("after") String after,
+                                         Limit limit);
+
+    // keyset pagination trên idx_borrowing_book_id
+    @Query("""
+            select b from Borrowing b
+            where b.bookId = :bookId
+              and (:after is null or b.id > :after)
+            order by b.id
+            """)
+    List<Borrowing> findByBook(@Param("bookId") String bookId,
+                               @Param("after") String after,
+                               Limit limit);
+
+    long countByEmployeeIdAndReturnDateIsNull(String employeeId);
+
+    long countByEmployeeId(String employeeId);
+
+    long countByBookIdAndReturnDateIsNull(String bookId);
+
+    long countByBookId(String bookId);
+}
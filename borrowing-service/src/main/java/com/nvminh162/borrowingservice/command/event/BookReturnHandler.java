@@ -0,0 +1,42 @@
+package com.nvminh162.borrowingservice.command.event;
+
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.eventhandling.DisallowReplay;
+import org.axonframework.eventhandling.EventHandler;
+import org.springframework.stereotype.Component;
+
+import com.nvminh162.commonservice.command.UpdateStatusBookCommand;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@RequiredArgsConstructor
+public class BookReturnHandler {
+
+    CommandGateway commandGateway;
+
+    // trả sách thì mở lại sách cho lượt mượn khác; không chạy lại khi replay
+    @EventHandler
+    @DisallowReplay
+    public void on(BookReturnedEvent event) {
+        // BookAggregate chỉ mở sách cho đúng lượt mượn đang giữ nó: với lượt mượn theo lô là batchId
+        String holderId = event.getBatchId() != null ? event.getBatchId() : event.getId();
+        UpdateStatusBookCommand command = new UpdateStatusBookCommand(event.getBookId(), true, event.getEmployeeId(), holderId);
+        commandGateway.send(command).exceptionally(e -> {
+            log.error("(x) >>>>>>>>>> Could not restore availability of book {}: {}", event.getBookId(), e.getMessage());
+            return null;
+        });
+    }
+
+    @EventHandler
+    @DisallowReplay
+    public void on(BorrowingOverdueEvent event) {
+        log.warn("(!) >>>>>>>>> Borrowing {} is overdue: book {} by employee {} was due {}",
+                event.getId(), event.getBookId(), event.getEmployeeId(), event.getDueDate());
+    }
+}
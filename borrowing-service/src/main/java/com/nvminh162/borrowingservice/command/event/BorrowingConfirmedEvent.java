@@ -0,0 +1,22 @@
+package com.nvminh162.borrowingservice.command.event;
+
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BorrowingConfirmedEvent {
+    String id;
+    // id lịch deadline quá hạn, dùng để huỷ đúng lịch đó khi trả sách; null nếu lượt mượn không có hạn
+    String overdueScheduleId;
+}
@@ -21,4 +21,5 @@ public class BorrowingCreatedEvent {
     String bookId;
     String employeeId;
     Date borrowingDate;
+    Date dueDate;
 }
@@ -26,9 +26,39 @@ public class BorrowingEventHandler {
         borrowing.setBookId(event.getBookId());
         borrowing.setEmployeeId(event.getEmployeeId());
         borrowing.setBorrowingDate(event.getBorrowingDate());
+        borrowing.setDueDate(event.getDueDate());
         borrowingRepository.save(borrowing);
     }
 
+    @EventHandler
+    public void on(BookReturnedEvent event) {
+        borrowingRepository.findById(event.getId()).ifPresent(borrowing -> {
+            borrowing.setReturnDate(event.getReturnDate());
+            borrowingRepository.save(borrowing);
+        });
+    }
+
+    @EventHandler
+    public void on(BorrowingOverdueEvent event) {
+        borrowingRepository.findById(event.getId()).ifPresent(borrowing -> {
+            borrowing.setOverdue(true);
+            borrowingRepository.save(borrowing);
+        });
+    }
+
+    // mỗi sách của một lượt mượn theo lô là một BorrowingAggregate, id suy ra từ batchId
+    @EventHandler
+    public void on(BatchLoanCreatedEvent event) {
+        borrowingRepository.save(Borrowing.builder()
+                .id(event.getId())
+                .bookId(event.getBookId())
+                .employeeId(event.getEmployeeId())
+                .borrowingDate(event.getBorrowingDate())
+                .dueDate(event.getDueDate())
+                .batchId(event.getBatchId())
+                .build());
+    }
+
     @EventHandler
     public void on(BorrowingDeletedEvent event) {
         Optional<Borrowing> optionalBorrowing = borrowingRepository.findById(event.getId());
@@ -0,0 +1,28 @@
+package com.nvminh162.borrowingservice.command.model;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BorrowingBatchCreateModel {
+    @NotBlank(message = "Employee id is mandatory")
+    String employeeId;
+
+    @NotEmpty(message = "At least one book id is required")
+    List<String> bookIds;
+}
@@ -0,0 +1,73 @@
+package com.nvminh162.borrowingservice.command.precheck;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.ResetHandler;
+import org.springframework.stereotype.Component;
+
+import com.nvminh162.commonservice.event.BookRollBackStatusEvent;
+import com.nvminh162.commonservice.event.BookUpdatedStatusEvent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Local, eventually consistent copy of which books are currently borrowed, fed by the book
+ * status events. Used only to fail fast in the controller: a book missing from the view is
+ * assumed available, and {@code BorrowingSaga} stays the authority.
+ * The view lives in memory; its processor uses an in-memory token store (see {@code AxonConfig}),
+ * so it is rebuilt from the event stream on every start.
+ */
+@Component
+@ProcessingGroup(BookAvailabilityView.PROCESSING_GROUP)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BookAvailabilityView {
+
+    public static final String PROCESSING_GROUP = "book-availability-view";
+
+    Set<String> borrowedBookIds = ConcurrentHashMap.newKeySet();
+
+    public BookAvailabilityView(MeterRegistry meterRegistry) {
+        Gauge.builder("borrowing.precheck.borrowed.books", borrowedBookIds, Set::size)
+                .description("Books known as borrowed by the local availability view")
+                .register(meterRegistry);
+    }
+
+    @EventHandler
+    public void on(BookUpdatedStatusEvent event) {
+        apply(event.getBookId(), event.getIsReady());
+    }
+
+    @EventHandler
+    public void on(BookRollBackStatusEvent event) {
+        apply(event.getBookId(), event.getIsReady());
+    }
+
+    @ResetHandler
+    public void onReset() {
+        borrowedBookIds.clear();
+    }
+
+    public boolean isBorrowed(String bookId) {
+        return borrowedBookIds.contains(bookId);
+    }
+
+    public List<String> borrowed(Collection<String> bookIds) {
+        return bookIds.stream().filter(borrowedBookIds::contains).toList();
+    }
+
+    private void apply(String bookId, Boolean isReady) {
+        if (Boolean.FALSE.equals(isReady)) {
+            borrowedBookIds.add(bookId);
+        } else {
+            borrowedBookIds.remove(bookId);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.nvminh162.borrowingservice.command.precheck;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Rejects borrow requests for books the {@link BookAvailabilityView} already knows are borrowed,
+ * before any aggregate or saga is created.
+ * {@code borrowing.precheck.requests{outcome=rejected}} counts the aggregates and sagas avoided;
+ * {@code borrowing.precheck.events.avoided} counts the created/deleted event pairs that the
+ * rollback path would otherwise have stored.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BorrowingPrecheck {
+
+    // BorrowingCreatedEvent + BorrowingDeletedEvent cho mỗi lượt mượn bị rollback
+    static final int EVENTS_PER_REJECTED_BORROWING = 2;
+
+    BookAvailabilityView bookAvailabilityView;
+    Counter passed;
+    Counter rejected;
+    Counter eventsAvoided;
+
+    public BorrowingPrecheck(BookAvailabilityView bookAvailabilityView, MeterRegistry meterRegistry) {
+        this.bookAvailabilityView = bookAvailabilityView;
+        this.passed = Counter.builder("borrowing.precheck.requests").tag("outcome", "passed")
+                .description("Borrow requests checked against the local availability view")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("borrowing.precheck.requests").tag("outcome", "rejected")
+                .description("Borrow requests checked against the local availability view")
+                .register(meterRegistry);
+        this.eventsAvoided = Counter.builder("borrowing.precheck.events.avoided")
+                .description("Events not written because a request was rejected up front")
+                .register(meterRegistry);
+    }
+
+    public void requireAvailable(String bookId) {
+        if (bookAvailabilityView.isBorrowed(bookId)) {
+            reject("Book " + bookId + " is already borrowed");
+        }
+        passed.increment();
+    }
+
+    public void requireAvailable(Collection<String> bookIds) {
+        List<String> borrowed = bookAvailabilityView.borrowed(bookIds);
+        if (!borrowed.isEmpty()) {
+            reject("Books already borrowed: " + borrowed);
+        }
+        passed.increment();
+    }
+
+    private void reject(String message) {
+        rejected.increment();
+        eventsAvoided.increment(EVENTS_PER_REJECTED_BORROWING);
+        throw new ResponseStatusException(HttpStatus.CONFLICT, message);
+    }
+}
@@ -0,0 +1,121 @@
+package com.nvminh162.borrowingservice.command.precheck;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.ResetHandler;
+import org.axonframework.messaging.responsetypes.ResponseTypes;
+import org.axonframework.queryhandling.QueryGateway;
+import org.springframework.stereotype.Component;
+
+import com.nvminh162.commonservice.event.EmployeeDisciplineChangedEvent;
+import com.nvminh162.commonservice.model.EmployeeDisciplineSnapshotCommonModel;
+import com.nvminh162.commonservice.model.EmployeeResponseCommonModel;
+import com.nvminh162.commonservice.queries.GetDetailEmployeeQuery;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Local replica of each employee's discipline flag, so the borrowing sagas can check it without a
+ * {@code GetDetailEmployeeQuery} round trip. Fed by {@link EmployeeDisciplineChangedEvent} and
+ * bootstrapped once from a snapshot (see {@link EmployeeDisciplineViewLoader}); events always win
+ * over the snapshot. An unknown employee is a miss and the saga falls back to the query.
+ * Like {@link BookAvailabilityView} it lives in memory with an in-memory token store, so every boot
+ * replays the stream from the start: until the loader has seen the processor catch up and applied
+ * the snapshot, every lookup is a miss rather than an answer from a half-replayed flag.
+ */
+@Component
+@ProcessingGroup(EmployeeDisciplineView.PROCESSING_GROUP)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class EmployeeDisciplineView {
+
+    public static final String PROCESSING_GROUP = "employee-discipline-view";
+
+    // một entry cho mỗi nhân viên đã biết: true = đang bị kỷ luật
+    Map<String, Boolean> disciplined = new ConcurrentHashMap<>();
+    // nhân viên đã xoá: snapshot đọc trước khi xoá không được thêm họ lại
+    Set<String> removedIds = ConcurrentHashMap.newKeySet();
+    AtomicBoolean bootstrapped = new AtomicBoolean();
+    Counter hits;
+    Counter misses;
+
+    public EmployeeDisciplineView(MeterRegistry meterRegistry) {
+        Gauge.builder("borrowing.precheck.employees", disciplined, Map::size)
+                .description("Employees known by the local discipline view")
+                .register(meterRegistry);
+        this.hits = Counter.builder("borrowing.precheck.employee.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("borrowing.precheck.employee.lookups").tag("result", "miss").register(meterRegistry);
+    }
+
+    @EventHandler
+    public void on(EmployeeDisciplineChangedEvent event) {
+        if (event.getIsDisciplined() == null) {
+            removedIds.add(event.getEmployeeId());
+            disciplined.remove(event.getEmployeeId());
+        } else {
+            removedIds.remove(event.getEmployeeId());
+            disciplined.put(event.getEmployeeId(), event.getIsDisciplined());
+        }
+    }
+
+    @ResetHandler
+    public void onReset() {
+        disciplined.clear();
+        removedIds.clear();
+    }
+
+    /**
+     * @return the employee's discipline flag, or {@code null} when the employee is unknown locally
+     */
+    public Boolean isDisciplined(String employeeId) {
+        // đang đọc lại event cũ: cờ có thể cũ hơn trạng thái thật
+        Boolean value = bootstrapped.get() ? disciplined.get(employeeId) : null;
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+
+    /**
+     * @return the employee's discipline flag, read from the replica or, when the employee is unknown locally,
+     *         from {@code GetDetailEmployeeQuery}
+     */
+    public CompletableFuture<Boolean> isDisciplined(String employeeId, QueryGateway queryGateway) {
+        Boolean value = isDisciplined(employeeId);
+        if (value != null) {
+            return CompletableFuture.completedFuture(value);
+        }
+        return queryGateway.query(new GetDetailEmployeeQuery(employeeId), ResponseTypes.instanceOf(EmployeeResponseCommonModel.class))
+                .thenApply(EmployeeResponseCommonModel::getIsDisciplined);
+    }
+
+    public boolean isBootstrapped() {
+        return bootstrapped.get();
+    }
+
+    /**
+     * Fills in employees the event stream has not mentioned and starts answering lookups. Must only be
+     * called once the view's processor has caught up, otherwise older replayed events would overwrite
+     * the snapshot's newer flags.
+     */
+    public void bootstrap(EmployeeDisciplineSnapshotCommonModel snapshot) {
+        Set<String> disciplinedIds = Set.copyOf(snapshot.getDisciplinedIds());
+        for (String employeeId : snapshot.getEmployeeIds()) {
+            if (!removedIds.contains(employeeId)) {
+                disciplined.putIfAbsent(employeeId, disciplinedIds.contains(employeeId));
+            }
+        }
+        bootstrapped.set(true);
+    }
+
+    public int size() {
+        return disciplined.size();
+    }
+}
@@ -0,0 +1,77 @@
+package com.nvminh162.borrowingservice.command.precheck;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.axonframework.config.EventProcessingConfiguration;
+import org.axonframework.eventhandling.EventTrackerStatus;
+import org.axonframework.eventhandling.StreamingEventProcessor;
+import org.axonframework.messaging.responsetypes.ResponseTypes;
+import org.axonframework.queryhandling.QueryGateway;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.nvminh162.commonservice.model.EmployeeDisciplineSnapshotCommonModel;
+import com.nvminh162.commonservice.queries.GetEmployeeDisciplineSnapshotQuery;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bootstraps {@link EmployeeDisciplineView} from employee-service's snapshot query on startup.
+ * The snapshot is only applied once the view's processor has caught up with the event stream,
+ * so no replayed event older than the snapshot can overwrite it. Until the processor has caught up,
+ * or while employee-service is not reachable, the load is retried every
+ * {@code borrowing.employee-view.bootstrap-retry}; meanwhile the saga simply misses and queries
+ * employee-service as before.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class EmployeeDisciplineViewLoader {
+
+    QueryGateway queryGateway;
+    EventProcessingConfiguration eventProcessingConfiguration;
+    EmployeeDisciplineView employeeDisciplineView;
+    AtomicBoolean loading = new AtomicBoolean();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (employeeDisciplineView.isBootstrapped() || !processorCaughtUp() || !loading.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        queryGateway.query(new GetEmployeeDisciplineSnapshotQuery(),
+                        ResponseTypes.instanceOf(EmployeeDisciplineSnapshotCommonModel.class))
+                .whenComplete((snapshot, e) -> {
+                    loading.set(false);
+                    if (e != null) {
+                        log.warn(">>> Could not load employee discipline snapshot, will retry: {}", e.getMessage());
+                        return;
+                    }
+                    employeeDisciplineView.bootstrap(snapshot);
+                    log.info(">>> Employee discipline view loaded: {} employee(s) in {} ms",
+                            employeeDisciplineView.size(), System.currentTimeMillis() - start);
+                });
+    }
+
+    private boolean processorCaughtUp() {
+        // chưa nhận segment nào thì processingStatus rỗng: coi như chưa bắt kịp
+        Map<Integer, EventTrackerStatus> status = eventProcessingConfiguration
+                .eventProcessorByProcessingGroup(EmployeeDisciplineView.PROCESSING_GROUP, StreamingEventProcessor.class)
+                .map(StreamingEventProcessor::processingStatus)
+                .orElse(Map.of());
+        return !status.isEmpty() && status.values().stream().allMatch(EventTrackerStatus::isCaughtUp);
+    }
+
+    @Scheduled(initialDelayString = "${borrowing.employee-view.bootstrap-retry:5s}",
+            fixedDelayString = "${borrowing.employee-view.bootstrap-retry:5s}")
+    public void retry() {
+        load();
+    }
+}
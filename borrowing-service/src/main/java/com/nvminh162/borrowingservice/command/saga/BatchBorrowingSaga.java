@@ -0,0 +1,224 @@
+package com.nvminh162.borrowingservice.command.saga;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.deadline.DeadlineManager;
+import org.axonframework.deadline.annotation.DeadlineHandler;
+import org.axonframework.messaging.responsetypes.ResponseTypes;
+import org.axonframework.modelling.saga.EndSaga;
+import org.axonframework.modelling.saga.SagaEventHandler;
+import org.axonframework.modelling.saga.SagaLifecycle;
+import org.axonframework.modelling.saga.StartSaga;
+import org.axonframework.queryhandling.QueryGateway;
+import org.axonframework.spring.stereotype.Saga;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import com.nvminh162.borrowingservice.command.command.CancelBatchBorrowingCommand;
+import com.nvminh162.borrowingservice.command.command.ConfirmBatchBorrowingCommand;
+import com.nvminh162.borrowingservice.command.event.BatchBorrowingCancelledEvent;
+import com.nvminh162.borrowingservice.command.event.BatchBorrowingConfirmedEvent;
+import com.nvminh162.borrowingservice.command.event.BatchBorrowingCreatedEvent;
+import com.nvminh162.borrowingservice.command.precheck.EmployeeDisciplineView;
+import com.nvminh162.commonservice.command.RollBackStatusBookCommand;
+import com.nvminh162.commonservice.command.UpdateStatusBookCommand;
+import com.nvminh162.commonservice.event.BookRollBackStatusEvent;
+import com.nvminh162.commonservice.event.BookUpdatedStatusEvent;
+import com.nvminh162.commonservice.model.BookResponseCommonModel;
+import com.nvminh162.commonservice.model.BooksByIdsResponseCommonModel;
+import com.nvminh162.commonservice.queries.GetBooksByIdsQuery;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Saga of a {@code BorrowingBatchAggregate}: one employee check and one batched book check,
+ * then one {@link UpdateStatusBookCommand} per book. Book events carry the batch id as
+ * {@code borrowingId}, so a single saga instance follows every book of the checkout.
+ * If any book cannot be reserved the batch is cancelled and every reserved book is rolled back.
+ * A batch still open after {@code borrowing.saga.timeout} is cancelled the same way; a reservation
+ * that lands after the cancel is rolled back when its event arrives.
+ */
+@Slf4j
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Saga
+public class BatchBorrowingSaga {
+
+    static final String TIMEOUT_DEADLINE = "batchBorrowingSagaTimeout";
+
+    @Autowired
+    transient CommandGateway commandGateway;
+    @Autowired
+    transient QueryGateway queryGateway;
+    @Autowired
+    transient DeadlineManager deadlineManager;
+    @Autowired
+    transient EmployeeDisciplineView employeeDisciplineView;
+    // chỉ được Spring inject; ngoài Spring dùng BorrowingSaga.DEFAULT_TIMEOUT
+    @Value("${borrowing.saga.timeout:5m}")
+    transient Duration timeout;
+
+    String batchId;
+    String employeeId;
+    // chờ BookUpdatedStatusEvent
+    Set<String> pendingBookIds = new HashSet<>();
+    Set<String> reservedBookIds = new HashSet<>();
+    // chờ BookRollBackStatusEvent
+    Set<String> rollingBackBookIds = new HashSet<>();
+    boolean cancelled;
+    String timeoutScheduleId;
+
+    @StartSaga
+    @SagaEventHandler(associationProperty = "id")
+    private void handle(BatchBorrowingCreatedEvent event) {
+        log.info("(i) >>>>>>>>> Batch borrowing {} started for EmployeeId: {} & {} book(s)", event.getId(), event.getEmployeeId(), event.getBookIds().size());
+        batchId = event.getId();
+        employeeId = event.getEmployeeId();
+        pendingBookIds.addAll(event.getBookIds());
+        SagaLifecycle.associateWith("borrowingId", batchId);
+        timeoutScheduleId = deadlineManager.schedule(timeout(), TIMEOUT_DEADLINE);
+
+        CompletableFuture<BooksByIdsResponseCommonModel> books = queryGateway.query(
+                new GetBooksByIdsQuery(event.getBookIds()), ResponseTypes.instanceOf(BooksByIdsResponseCommonModel.class));
+        CompletableFuture<Boolean> employeeDisciplined = employeeDisciplineView.isDisciplined(event.getEmployeeId(), queryGateway);
+
+        books.thenCombine(employeeDisciplined, (booksModel, disciplined) -> {
+                    if (disciplined) {
+                        throw new IllegalStateException("(x) >>>>>>>>>> Employee has been disciplined!");
+                    }
+                    List<String> rejected = new ArrayList<>(booksModel.getMissingIds());
+                    booksModel.getBooks().stream()
+                            .filter(book -> !book.getIsReady())
+                            .map(BookResponseCommonModel::getId)
+                            .forEach(rejected::add);
+                    if (!rejected.isEmpty()) {
+                        throw new IllegalStateException("(x) >>>>>>>>>> Books not available: " + rejected);
+                    }
+                    return booksModel.getBooks();
+                })
+                .whenComplete((readyBooks, e) -> {
+                    if (e == null) {
+                        readyBooks.forEach(book -> reserve(book.getId()));
+                    } else {
+                        // chưa giữ sách nào: cả lô thôi chờ, saga kết thúc ngay khi nhận event huỷ
+                        cancel(event.getBookIds(), unwrap(e).getMessage());
+                    }
+                });
+    }
+
+    @SagaEventHandler(associationProperty = "borrowingId")
+    private void handle(BookUpdatedStatusEvent event) {
+        // chỉ event khoá sách là kết quả của reserve
+        if (!Boolean.FALSE.equals(event.getIsReady())) {
+            return;
+        }
+        boolean pending = pendingBookIds.remove(event.getBookId());
+        if (cancelled) {
+            // kể cả sách đã bị coi là thất bại: được giữ sau khi lô đã huỷ thì mở lại
+            rollback(event.getBookId());
+        } else if (pending) {
+            reservedBookIds.add(event.getBookId());
+        }
+        tryComplete();
+    }
+
+    @SagaEventHandler(associationProperty = "borrowingId")
+    private void handle(BookRollBackStatusEvent event) {
+        rollingBackBookIds.remove(event.getBookId());
+        tryComplete();
+    }
+
+    // fan-out rollback cho toàn bộ sách đã giữ; rejectedBookIds là các sách sẽ không bao giờ được giữ
+    @SagaEventHandler(associationProperty = "id")
+    private void handle(BatchBorrowingCancelledEvent event) {
+        log.error("(x) >>>>>>>>>> Batch borrowing {} cancelled: {}", event.getId(), event.getReason());
+        cancelled = true;
+        pendingBookIds.removeAll(event.getRejectedBookIds());
+        reservedBookIds.forEach(this::rollback);
+        reservedBookIds.clear();
+        tryComplete();
+    }
+
+    @EndSaga
+    @SagaEventHandler(associationProperty = "id")
+    private void handle(BatchBorrowingConfirmedEvent event) {
+        log.info("(i) >>>>>>>>> Batch borrowing {} confirmed: {} book(s)", event.getId(), event.getBookIds().size());
+        deadlineManager.cancelSchedule(TIMEOUT_DEADLINE, timeoutScheduleId);
+    }
+
+    /*
+     * Lần đầu: lô còn dở thì huỷ như khi một sách bị từ chối, sách chưa có kết quả vẫn chờ thêm một
+     * khoảng timeout để kịp mở lại nếu được giữ muộn. Lần hai (lô đã huỷ): thôi chờ và kết thúc.
+     */
+    @DeadlineHandler(deadlineName = TIMEOUT_DEADLINE)
+    private void onTimeout() {
+        if (!cancelled) {
+            log.warn("(x) >>>>>>>>>> Batch borrowing {} timed out, cancelling", batchId);
+            cancel(List.of(), "Batch borrowing timed out");
+            timeoutScheduleId = deadlineManager.schedule(timeout(), TIMEOUT_DEADLINE);
+            return;
+        }
+        log.warn("(x) >>>>>>>>>> Batch borrowing {} ended with unconfirmed book(s) {} and unfinished rollback(s) {}",
+                batchId, pendingBookIds, rollingBackBookIds);
+        SagaLifecycle.end();
+    }
+
+    private void tryComplete() {
+        if (!pendingBookIds.isEmpty()) {
+            return;
+        }
+        if (!cancelled) {
+            commandGateway.send(new ConfirmBatchBorrowingCommand(batchId)).exceptionally(e -> {
+                cancel(List.of(), unwrap(e).getMessage());
+                return null;
+            });
+        } else if (rollingBackBookIds.isEmpty()) {
+            log.info("(i) >>>>>>>>> Batch borrowing {} rolled back", batchId);
+            deadlineManager.cancelSchedule(TIMEOUT_DEADLINE, timeoutScheduleId);
+            SagaLifecycle.end();
+        }
+    }
+
+    // gọi từ callback: không đụng tới trạng thái saga, kết quả quay lại qua event
+    private void reserve(String bookId) {
+        commandGateway.send(new UpdateStatusBookCommand(bookId, false, employeeId, batchId)).exceptionally(e -> {
+            Throwable cause = unwrap(e);
+            // không biết kết quả (timeout, mất kết nối): sách vẫn chờ, nếu đã được giữ thì event đến sau sẽ rollback
+            cancel(CommandOutcomes.isUnknown(cause) ? List.of() : List.of(bookId), cause.getMessage());
+            return null;
+        });
+    }
+
+    private void cancel(List<String> rejectedBookIds, String reason) {
+        commandGateway.send(new CancelBatchBorrowingCommand(batchId, rejectedBookIds, reason)).exceptionally(e -> {
+            log.error("(x) >>>>>>>>>> Could not cancel batch borrowing {}: {}", batchId, unwrap(e).getMessage());
+            return null;
+        });
+    }
+
+    private void rollback(String bookId) {
+        rollingBackBookIds.add(bookId);
+        commandGateway.send(new RollBackStatusBookCommand(bookId, true, employeeId, batchId)).exceptionally(e -> {
+            log.error("(x) >>>>>>>>>> Could not roll back status of book {}: {}", bookId, unwrap(e).getMessage());
+            return null;
+        });
+    }
+
+    private Duration timeout() {
+        return timeout != null ? timeout : BorrowingSaga.DEFAULT_TIMEOUT;
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+}
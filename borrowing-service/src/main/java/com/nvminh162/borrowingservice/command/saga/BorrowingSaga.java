@@ -1,6 +1,12 @@
 package com.nvminh162.borrowingservice.command.saga;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.deadline.DeadlineManager;
+import org.axonframework.deadline.annotation.DeadlineHandler;
 import org.axonframework.messaging.responsetypes.ResponseTypes;
 import org.axonframework.modelling.saga.EndSaga;
 import org.axonframework.modelling.saga.SagaEventHandler;
@@ -9,23 +15,25 @@ import org.axonframework.modelling.saga.StartSaga;
 import org.axonframework.queryhandling.QueryGateway;
 import org.axonframework.spring.stereotype.Saga;
 
+import com.nvminh162.borrowingservice.command.command.ConfirmBorrowingCommand;
 import com.nvminh162.borrowingservice.command.command.DeleteBorrowingCommand;
+import com.nvminh162.borrowingservice.command.event.BorrowingConfirmedEvent;
 import com.nvminh162.borrowingservice.command.event.BorrowingCreatedEvent;
 import com.nvminh162.borrowingservice.command.event.BorrowingDeletedEvent;
+import com.nvminh162.borrowingservice.command.precheck.EmployeeDisciplineView;
 import com.nvminh162.commonservice.command.UpdateStatusBookCommand;
 import com.nvminh162.commonservice.command.RollBackStatusBookCommand;
 import com.nvminh162.commonservice.event.BookUpdatedStatusEvent;
 import com.nvminh162.commonservice.event.BookRollBackStatusEvent;
 import com.nvminh162.commonservice.model.BookResponseCommonModel;
-import com.nvminh162.commonservice.model.EmployeeResponseCommonModel;
 import com.nvminh162.commonservice.queries.GetBookDetailQuery;
-import com.nvminh162.commonservice.queries.GetDetailEmployeeQuery;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 @Slf4j
 @NoArgsConstructor
@@ -33,97 +41,187 @@ import org.springframework.beans.factory.annotation.Autowired;
 @Saga
 public class BorrowingSaga {
 
+    static final String TIMEOUT_DEADLINE = "borrowingSagaTimeout";
+    static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(5);
+
     @Autowired
     transient CommandGateway commandGateway;
     @Autowired
     transient QueryGateway queryGateway;
+    @Autowired
+    transient DeadlineManager deadlineManager;
+    @Autowired
+    transient EmployeeDisciplineView employeeDisciplineView;
+    // chỉ được Spring inject; ngoài Spring (load-harness) dùng DEFAULT_TIMEOUT
+    @Value("${borrowing.saga.timeout:5m}")
+    transient Duration timeout;
+
+    String bookId;
+    String employeeId;
+    // sách đã bị khoá cho lượt mượn này, cần mở lại nếu saga bị huỷ
+    boolean bookReserved;
+    String timeoutScheduleId;
+    // đã bù trừ vì quá hạn, chỉ còn chờ lệnh khoá sách đến muộn
+    boolean timedOut;
+
+    /*
+     * Mọi bước gọi sang service khác đều bất đồng bộ: handler chỉ gửi query/command rồi trả
+     * thread về cho event processor. Callback chạy ngoài unit of work của saga nên không được
+     * đụng tới SagaLifecycle; kết quả quay lại saga dưới dạng event (association đã được
+     * khai báo trước khi gửi đi).
+     * Event của sách được ghép theo borrowingId chứ không theo bookId, để các saga cùng tranh
+     * một cuốn sách không nhận nhầm event của nhau.
+     */
 
     // (a.1) or (b.1)
     @StartSaga
     @SagaEventHandler(associationProperty = "id")
     private void handle(BorrowingCreatedEvent event) {
         log.info("(i) >>>>>>>>> Borrowing created event in saga for BookId: {} & EmployeeId: {}", event.getBookId(), event.getEmployeeId());
-        try {
-            GetBookDetailQuery query = new GetBookDetailQuery(event.getBookId());
-            BookResponseCommonModel model = queryGateway.query(
-                query,
-                ResponseTypes.instanceOf(BookResponseCommonModel.class)
-            ).join();
-
-            if(!model.getIsReady()) {
-                // (a.2)
-                throw new Exception("(x) >>>>>>>>>> This book has already been borrowed!");
-            } else {
-                // (b.2)
-                SagaLifecycle.associateWith("bookId", event.getBookId());
-                UpdateStatusBookCommand updateStatusBookCommand = new UpdateStatusBookCommand(event.getBookId(), false, event.getEmployeeId(), event.getId());
-                commandGateway.sendAndWait(updateStatusBookCommand);
-            }
+        SagaLifecycle.associateWith("borrowingId", event.getId());
+        this.bookId = event.getBookId();
+        this.employeeId = event.getEmployeeId();
+        // saga bị bỏ dở (service khác không trả lời, command thất bại mà không rollback) sẽ tự kết thúc
+        timeoutScheduleId = deadlineManager.schedule(timeout(), TIMEOUT_DEADLINE, event.getId());
 
-        } catch (Exception e) {
-            // (a.3)
-            log.error(e.getMessage());
-            rollbackBorrowingRecord(event.getId());
-            // TODO: handle exception
-        }
+        // kiểm tra sách và nhân viên song song, chỉ khoá sách khi cả hai đều hợp lệ
+        CompletableFuture<BookResponseCommonModel> book = queryGateway.query(
+                new GetBookDetailQuery(event.getBookId()), ResponseTypes.instanceOf(BookResponseCommonModel.class));
+        // đọc từ bản sao cục bộ, chỉ hỏi employee-service khi nhân viên chưa có trong bản sao
+        CompletableFuture<Boolean> employeeDisciplined = employeeDisciplineView.isDisciplined(event.getEmployeeId(), queryGateway);
+
+        book.thenCombine(employeeDisciplined, (bookModel, disciplined) -> {
+                    if (!bookModel.getIsReady()) {
+                        // (a.2)
+                        throw new IllegalStateException("(x) >>>>>>>>>> This book has already been borrowed!");
+                    }
+                    if (disciplined) {
+                        // (a.2)
+                        throw new IllegalStateException("(x) >>>>>>>>>> Employee has been disciplined!");
+                    }
+                    // (b.2)
+                    return new UpdateStatusBookCommand(event.getBookId(), false, event.getEmployeeId(), event.getId());
+                })
+                .thenCompose(commandGateway::send)
+                .exceptionally(e -> {
+                    log.error(rootMessage(e));
+                    if (CommandOutcomes.isUnknown(unwrap(e))) {
+                        // lệnh khoá sách có thể vẫn thành công: BookUpdatedStatusEvent hoặc timeout sẽ quyết định
+                        return null;
+                    }
+                    // (a.3): kể cả khi BookAggregate từ chối vì sách vừa bị người khác mượn,
+                    // sách chưa bị khoá nên chỉ cần xoá bản ghi mượn
+                    rollbackBorrowingRecord(event.getId());
+                    return null;
+                });
     }
 
     // (b.3)
-    @SagaEventHandler(associationProperty = "bookId")
+    @SagaEventHandler(associationProperty = "borrowingId")
     private void handle(BookUpdatedStatusEvent event) {
         log.info("(i) >>>>>>>>> Book updated status event in saga for BookId: {}", event.getBookId());
-        
-        try {
-            GetDetailEmployeeQuery query = new GetDetailEmployeeQuery(event.getEmployeeId());
-            EmployeeResponseCommonModel model = queryGateway.query(
-                query,
-                ResponseTypes.instanceOf(EmployeeResponseCommonModel.class)
-            ).join();
-            if (model.getIsDisciplined()) {
-                // (b.4.1)
-                throw new Exception("(x) >>>>>>>>>> Employee has been disciplined!");
-            } else {
-                // (b.4.2)
-                log.info("(i) >>>>>>>>> You have borrow book successfully: {}", event.getBookId());
-                SagaLifecycle.end();
+        this.bookReserved = Boolean.FALSE.equals(event.getIsReady());
+        if (timedOut) {
+            // sách bị khoá sau khi saga đã huỷ: mở lại, không xác nhận
+            if (bookReserved) {
+                rollbackBookStatus(event.getBookId(), event.getEmployeeId(), event.getBorrowingId());
             }
-        } catch (Exception e) {
-            // (b.4.1.2)
-            rollbackBookStatus(event.getBookId(), event.getEmployeeId(), event.getBorrowingId());
-            log.error(e.getMessage());
+            return;
         }
+
+        // (b.4): saga kết thúc khi nhận BorrowingConfirmedEvent
+        commandGateway.send(new ConfirmBorrowingCommand(event.getBorrowingId()))
+                .exceptionally(e -> {
+                    // (b.4.1)
+                    log.error(rootMessage(e));
+                    rollbackBookStatus(event.getBookId(), event.getEmployeeId(), event.getBorrowingId());
+                    return null;
+                });
+    }
+
+    // (b.5)
+    @SagaEventHandler(associationProperty = "id")
+    @EndSaga
+    private void handle(BorrowingConfirmedEvent event) {
+        log.info("(i) >>>>>>>>> You have borrow book successfully, borrowing ID: {}", event.getId());
+        deadlineManager.cancelSchedule(TIMEOUT_DEADLINE, timeoutScheduleId);
     }
 
-    // (b.4.1.4)
-    @SagaEventHandler(associationProperty = "bookId")
+    // (b.4.3)
+    @SagaEventHandler(associationProperty = "borrowingId")
     private void handle(BookRollBackStatusEvent event) {
         log.info("(i) >>>>>>>>> Book roll back status event in saga for book ID: {}", event.getBookId());
-        rollbackBorrowingRecord(event.getBorrowingId());
+        this.bookReserved = false;
+        if (!timedOut) {
+            rollbackBorrowingRecord(event.getBorrowingId());
+        }
     }
 
-    // (a.5) or (b.4.1.6)
+    // (a.5) or (b.4.5)
     @SagaEventHandler(associationProperty = "id")
-    @EndSaga
     private void handle(BorrowingDeletedEvent event) {
         log.info("(i) >>>>>>>>> Borrowing deleted event in Saga for Borrowing ID: {}", event.getId());
+        if (timedOut) {
+            // (c): kết thúc ở lần deadline thứ hai
+            return;
+        }
+        deadlineManager.cancelSchedule(TIMEOUT_DEADLINE, timeoutScheduleId);
         SagaLifecycle.end();
     }
 
-    // (a.4) or (b.4.1.5)
+    /*
+     * (c): quá hạn mà chưa kết thúc -> bù trừ những gì đã làm, không chờ kết quả bù trừ. Lệnh khoá sách
+     * còn dở vẫn có thể thành công sau đó, nên saga chờ thêm một khoảng timeout để mở lại sách
+     * (xem (b.3)) rồi mới kết thúc ở lần deadline thứ hai.
+     */
+    @DeadlineHandler(deadlineName = TIMEOUT_DEADLINE)
+    private void onTimeout(String borrowingId) {
+        if (timedOut) {
+            log.info("(i) >>>>>>>>> Borrowing saga {} ended after timeout", borrowingId);
+            SagaLifecycle.end();
+            return;
+        }
+        log.warn("(x) >>>>>>>>>> Borrowing saga {} timed out, compensating", borrowingId);
+        if (bookReserved) {
+            rollbackBookStatus(bookId, employeeId, borrowingId);
+        }
+        rollbackBorrowingRecord(borrowingId);
+        timedOut = true;
+        timeoutScheduleId = deadlineManager.schedule(timeout(), TIMEOUT_DEADLINE, borrowingId);
+    }
+
+    private Duration timeout() {
+        return timeout != null ? timeout : DEFAULT_TIMEOUT;
+    }
+
+    // (a.4) or (b.4.4)
     private void rollbackBorrowingRecord(String id) {
         DeleteBorrowingCommand command = new DeleteBorrowingCommand(id);
-        commandGateway.sendAndWait(command);
+        commandGateway.send(command).exceptionally(e -> {
+            log.error("(x) >>>>>>>>>> Could not roll back borrowing {}: {}", id, rootMessage(e));
+            return null;
+        });
     }
 
-    // (b.4.1.3)
+    // (b.4.2)
     private void rollbackBookStatus(String bookId, String employeeId, String borrowingId) {
-        SagaLifecycle.associateWith("bookId", bookId);
         RollBackStatusBookCommand command = new RollBackStatusBookCommand(
             bookId,
             true,
             employeeId,
             borrowingId
         );
-        commandGateway.sendAndWait(command);
+        commandGateway.send(command).exceptionally(e -> {
+            log.error("(x) >>>>>>>>>> Could not roll back status of book {}: {}", bookId, rootMessage(e));
+            return null;
+        });
+    }
+
+    private static String rootMessage(Throwable e) {
+        return unwrap(e).getMessage();
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
     }
 }
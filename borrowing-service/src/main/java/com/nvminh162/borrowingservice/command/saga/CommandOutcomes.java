@@ -0,0 +1,22 @@
+package com.nvminh162.borrowingservice.command.saga;
+
+import java.util.concurrent.TimeoutException;
+
+import org.axonframework.commandhandling.distributed.CommandDispatchException;
+import org.axonframework.common.AxonTransientException;
+
+final class CommandOutcomes {
+
+    private CommandOutcomes() {
+    }
+
+    /**
+     * @return {@code true} when a command failed before its handler answered (dispatch error, timeout),
+     *         so it may still have been applied; {@code false} when the handler itself rejected it
+     */
+    static boolean isUnknown(Throwable cause) {
+        return cause instanceof CommandDispatchException
+                || cause instanceof AxonTransientException
+                || cause instanceof TimeoutException;
+    }
+}
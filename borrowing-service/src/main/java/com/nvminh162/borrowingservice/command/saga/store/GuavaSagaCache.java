@@ -0,0 +1,82 @@
+package com.nvminh162.borrowingservice.command.saga.store;
+
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import org.axonframework.common.Registration;
+import org.axonframework.common.caching.Cache;
+
+import com.google.common.cache.CacheBuilder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Bounded Guava cache behind Axon's {@link Cache} contract, used by {@code CachingSagaStore} for both
+ * saga instances and association lookups. Evicted entries are simply read again from the JPA store.
+ * Hit/miss/eviction counters are published as {@code cache.*} metrics under the given name.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class GuavaSagaCache implements Cache {
+
+    com.google.common.cache.Cache<Object, Object> cache;
+
+    public GuavaSagaCache(String name, long maximumSize, MeterRegistry meterRegistry) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> V get(K key) {
+        return (V) cache.getIfPresent(key);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        cache.put(key, value);
+    }
+
+    @Override
+    public boolean putIfAbsent(Object key, Object value) {
+        return cache.asMap().putIfAbsent(key, value) == null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T computeIfAbsent(Object key, Supplier<T> valueSupplier) {
+        return (T) cache.asMap().computeIfAbsent(key, k -> valueSupplier.get());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <V> void computeIfPresent(Object key, UnaryOperator<V> update) {
+        cache.asMap().computeIfPresent(key, (k, value) -> update.apply((V) value));
+    }
+
+    @Override
+    public boolean remove(Object key) {
+        return cache.asMap().remove(key) != null;
+    }
+
+    @Override
+    public void removeAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return cache.asMap().containsKey(key);
+    }
+
+    // CachingSagaStore không đăng ký listener nào
+    @Override
+    public Registration registerCacheEntryListener(EntryListener cacheEntryListener) {
+        return () -> true;
+    }
+}
@@ -0,0 +1,62 @@
+package com.nvminh162.borrowingservice.command.saga.store;
+
+import java.util.Set;
+
+import org.axonframework.modelling.saga.AssociationValue;
+import org.axonframework.modelling.saga.AssociationValues;
+import org.axonframework.modelling.saga.repository.SagaStore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Times the lookups every saga event goes through ({@code findSagas} by association, then {@code loadSaga})
+ * as {@code saga.store.lookup{operation=find|load}}; writes are passed through untouched.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class InstrumentedSagaStore<T> implements SagaStore<T> {
+
+    SagaStore<T> delegate;
+    Timer findTimer;
+    Timer loadTimer;
+
+    public InstrumentedSagaStore(SagaStore<T> delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.findTimer = lookupTimer("find", meterRegistry);
+        this.loadTimer = lookupTimer("load", meterRegistry);
+    }
+
+    @Override
+    public Set<String> findSagas(Class<? extends T> sagaType, AssociationValue associationValue) {
+        return findTimer.record(() -> delegate.findSagas(sagaType, associationValue));
+    }
+
+    @Override
+    public <S extends T> Entry<S> loadSaga(Class<S> sagaType, String sagaIdentifier) {
+        return loadTimer.record(() -> delegate.loadSaga(sagaType, sagaIdentifier));
+    }
+
+    @Override
+    public void deleteSaga(Class<? extends T> sagaType, String sagaIdentifier, Set<AssociationValue> associationValues) {
+        delegate.deleteSaga(sagaType, sagaIdentifier, associationValues);
+    }
+
+    @Override
+    public void insertSaga(Class<? extends T> sagaType, String sagaIdentifier, T saga, Set<AssociationValue> associationValues) {
+        delegate.insertSaga(sagaType, sagaIdentifier, saga, associationValues);
+    }
+
+    @Override
+    public void updateSaga(Class<? extends T> sagaType, String sagaIdentifier, T saga, AssociationValues associationValues) {
+        delegate.updateSaga(sagaType, sagaIdentifier, saga, associationValues);
+    }
+
+    private static Timer lookupTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("saga.store.lookup")
+                .tag("operation", operation)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,57 @@
+package com.nvminh162.borrowingservice.command.saga.store;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.axonframework.common.jpa.EntityManagerProvider;
+import org.axonframework.common.transaction.TransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Periodic clean-up of the JPA saga store: removes association rows whose saga is gone and publishes
+ * the number of stored sagas as {@code saga.store.size}. It never ends sagas itself; every saga has a
+ * persistent timeout deadline that compensates and then ends it.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SagaStoreCompactor {
+
+    EntityManagerProvider entityManagerProvider;
+    TransactionManager transactionManager;
+    AtomicLong size = new AtomicLong();
+    Counter orphanAssociations;
+
+    public SagaStoreCompactor(
+            EntityManagerProvider entityManagerProvider,
+            TransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.entityManagerProvider = entityManagerProvider;
+        this.transactionManager = transactionManager;
+        Gauge.builder("saga.store.size", size, AtomicLong::get).register(meterRegistry);
+        this.orphanAssociations = Counter.builder("saga.store.compacted").tag("kind", "orphan-association").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${borrowing.saga.compaction-interval:10m}")
+    public void compact() {
+        transactionManager.executeInTransaction(() -> {
+            EntityManager entityManager = entityManagerProvider.getEntityManager();
+            int orphans = entityManager.createQuery(
+                    "DELETE FROM AssociationValueEntry a WHERE a.sagaId NOT IN (SELECT s.sagaId FROM SagaEntry s)")
+                    .executeUpdate();
+            orphanAssociations.increment(orphans);
+            // chỉ đếm, không nạp id của từng saga
+            long sagas = entityManager.createQuery("SELECT COUNT(s) FROM SagaEntry s", Long.class).getSingleResult();
+            size.set(sagas);
+            log.info(">>> Saga store compaction: {} orphan association(s) removed, {} saga(s) stored", orphans, sagas);
+        });
+    }
+}
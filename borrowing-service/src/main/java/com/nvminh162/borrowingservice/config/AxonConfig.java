@@ -0,0 +1,116 @@
+package com.nvminh162.borrowingservice.config;
+
+import org.axonframework.common.jpa.EntityManagerProvider;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.ConfigurationScopeAwareProvider;
+import org.axonframework.config.EventProcessingConfigurer;
+import org.axonframework.deadline.DeadlineManager;
+import org.axonframework.deadline.quartz.QuartzDeadlineManager;
+import org.axonframework.eventhandling.tokenstore.TokenStore;
+import org.axonframework.eventhandling.tokenstore.inmemory.InMemoryTokenStore;
+import org.axonframework.eventhandling.tokenstore.jpa.JpaTokenStore;
+import org.axonframework.eventsourcing.SnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.Snapshotter;
+import org.axonframework.modelling.saga.repository.CachingSagaStore;
+import org.axonframework.modelling.saga.repository.SagaStore;
+import org.axonframework.modelling.saga.repository.jpa.JpaSagaStore;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.spring.messaging.unitofwork.SpringTransactionManager;
+import org.axonframework.springboot.util.jpa.ContainerManagedEntityManagerProvider;
+import org.quartz.Scheduler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.persistence.autoconfigure.EntityScan;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.nvminh162.borrowingservice.command.precheck.BookAvailabilityView;
+import com.nvminh162.borrowingservice.command.precheck.EmployeeDisciplineView;
+import com.nvminh162.borrowingservice.command.saga.store.GuavaSagaCache;
+import com.nvminh162.borrowingservice.command.saga.store.InstrumentedSagaStore;
+import com.nvminh162.commonservice.configuration.AxonSnapshotConfig;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@org.springframework.context.annotation.Configuration
+@EntityScan(basePackages = {
+        "com.nvminh162.borrowingservice",
+        "org.axonframework.modelling.saga.repository.jpa",
+        "org.axonframework.eventhandling.tokenstore.jpa"})
+public class AxonConfig {
+
+    /*
+     * Hạn trả sách và timeout của saga nằm trong job store JDBC của Quartz (spring.quartz.job-store-type=jdbc),
+     * nên deadline đã lập lịch vẫn chạy sau khi khởi động lại; huỷ theo id lịch mà schedule(...) trả về.
+     */
+    @Bean
+    public DeadlineManager deadlineManager(
+            Scheduler scheduler, Configuration configuration, TransactionManager transactionManager, Serializer serializer) {
+        return QuartzDeadlineManager.builder()
+                .scheduler(scheduler)
+                .scopeAwareProvider(new ConfigurationScopeAwareProvider(configuration))
+                .transactionManager(transactionManager)
+                .serializer(serializer)
+                .build();
+    }
+
+    // JpaAutoConfiguration và TransactionAutoConfiguration của Axon 4.9 không kích hoạt trên Spring Boot 4:
+    // thiếu hai bean này thì saga store JPA không có EntityManager, còn unit of work chạy với NoTransactionManager
+    @Bean
+    public EntityManagerProvider entityManagerProvider() {
+        return new ContainerManagedEntityManagerProvider();
+    }
+
+    @Bean
+    public TransactionManager axonTransactionManager(PlatformTransactionManager transactionManager) {
+        return new SpringTransactionManager(transactionManager);
+    }
+
+    /*
+     * Mỗi event của saga đi qua findSagas (theo association) rồi loadSaga: cache cả hai trước JPA store.
+     * Bảng AssociationValueEntry của Axon đã có index (sagaType, associationKey, associationValue),
+     * khác với InMemorySagaStore mặc định phải duyệt mọi saga cho mỗi lần tìm.
+     */
+    @Bean
+    public SagaStore<Object> sagaStore(
+            Serializer serializer,
+            EntityManagerProvider entityManagerProvider,
+            MeterRegistry meterRegistry,
+            @Value("${borrowing.saga.cache.maximum-size:10000}") long maximumSize) {
+        JpaSagaStore jpaSagaStore = JpaSagaStore.builder()
+                .entityManagerProvider(entityManagerProvider)
+                .serializer(serializer)
+                .build();
+        SagaStore<Object> cachingSagaStore = CachingSagaStore.builder()
+                .delegateSagaStore(jpaSagaStore)
+                .sagaCache(new GuavaSagaCache("saga", maximumSize, meterRegistry))
+                .associationsCache(new GuavaSagaCache("saga-associations", maximumSize, meterRegistry))
+                .build();
+        return new InstrumentedSagaStore<>(cachingSagaStore, meterRegistry);
+    }
+
+    // token của processor lưu cùng DB: khởi động lại không đọc lại event cũ (vd. trả sách) và gửi lại command
+    @Bean
+    public TokenStore tokenStore(Serializer serializer, EntityManagerProvider entityManagerProvider) {
+        return JpaTokenStore.builder()
+                .entityManagerProvider(entityManagerProvider)
+                .serializer(serializer)
+                .build();
+    }
+
+    @Bean
+    public SnapshotTriggerDefinition borrowingSnapshotTrigger(
+            Snapshotter snapshotter,
+            @Value("${borrowing.snapshot.event-count-threshold:100}") int eventCountThreshold,
+            @Value("${borrowing.snapshot.load-time-threshold-ms:0}") long loadTimeThresholdMs) {
+        return AxonSnapshotConfig.snapshotTrigger(snapshotter, eventCountThreshold, loadTimeThresholdMs);
+    }
+
+    // view nằm trong bộ nhớ nên token cũng không được lưu: mỗi lần khởi động đọc lại từ đầu stream
+    @Autowired
+    public void configureInMemoryViews(EventProcessingConfigurer configurer) {
+        configurer.registerTokenStore(BookAvailabilityView.PROCESSING_GROUP, configuration -> new InMemoryTokenStore());
+        configurer.registerTokenStore(EmployeeDisciplineView.PROCESSING_GROUP, configuration -> new InMemoryTokenStore());
+    }
+}
@@ -0,0 +1,73 @@
+package com.nvminh162.borrowingservice.query.controller;
+
+import java.util.List;
+
+import org.axonframework.messaging.responsetypes.ResponseTypes;
+import org.axonframework.queryhandling.QueryGateway;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.nvminh162.borrowingservice.query.model.BorrowingCountResponseModel;
+import com.nvminh162.borrowingservice.query.model.BorrowingResponseModel;
+import com.nvminh162.borrowingservice.query.projection.BorrowingProjection;
+import com.nvminh162.borrowingservice.query.queries.CountBorrowingsQuery;
+import com.nvminh162.borrowingservice.query.queries.GetActiveBorrowingsByEmployeeQuery;
+import com.nvminh162.borrowingservice.query.queries.GetBorrowingHistoryByBookQuery;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+@RestController
+@RequestMapping("/api/v1/borrowing")
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@RequiredArgsConstructor
+public class BorrowingQueryController {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    QueryGateway queryGateway;
+
+    @GetMapping("/employees/{employeeId}/active")
+    public ResponseEntity<List<BorrowingResponseModel>> getActiveBorrowings(
+            @PathVariable String employeeId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false, defaultValue = "" + BorrowingProjection.DEFAULT_PAGE_SIZE) Integer size) {
+        return page(new GetActiveBorrowingsByEmployeeQuery(employeeId, after, size), size);
+    }
+
+    @GetMapping("/books/{bookId}")
+    public ResponseEntity<List<BorrowingResponseModel>> getBorrowingHistory(
+            @PathVariable String bookId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false, defaultValue = "" + BorrowingProjection.DEFAULT_PAGE_SIZE) Integer size) {
+        return page(new GetBorrowingHistoryByBookQuery(bookId, after, size), size);
+    }
+
+    @GetMapping("/count")
+    public BorrowingCountResponseModel countBorrowings(
+            @RequestParam(required = false) String employeeId,
+            @RequestParam(required = false) String bookId) {
+        if ((employeeId == null) == (bookId == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Exactly one of employeeId or bookId is required");
+        }
+        CountBorrowingsQuery query = new CountBorrowingsQuery(employeeId, bookId);
+        return queryGateway.query(query, ResponseTypes.instanceOf(BorrowingCountResponseModel.class)).join();
+    }
+
+    private ResponseEntity<List<BorrowingResponseModel>> page(Object query, int size) {
+        List<BorrowingResponseModel> borrowings = queryGateway.query(query,
+                ResponseTypes.multipleInstancesOf(BorrowingResponseModel.class)).join();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!borrowings.isEmpty() && borrowings.size() == Math.clamp(size, 1, BorrowingProjection.MAX_PAGE_SIZE)) {
+            response.header(NEXT_CURSOR_HEADER, borrowings.getLast().getId());
+        }
+        return response.body(borrowings);
+    }
+}
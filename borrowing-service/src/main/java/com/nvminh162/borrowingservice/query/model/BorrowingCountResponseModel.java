@@ -0,0 +1,22 @@
+package com.nvminh162.borrowingservice.query.model;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BorrowingCountResponseModel {
+    String employeeId;
+    String bookId;
+    Long active;
+    Long total;
+}
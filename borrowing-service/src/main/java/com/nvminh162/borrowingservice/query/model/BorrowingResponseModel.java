@@ -0,0 +1,26 @@
+package com.nvminh162.borrowingservice.query.model;
+
+import java.util.Date;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BorrowingResponseModel {
+    String id;
+    String bookId;
+    String employeeId;
+    Date borrowingDate;
+    Date returnDate;
+    String batchId;
+}
@@ -0,0 +1,69 @@
+package com.nvminh162.borrowingservice.query.projection;
+
+import java.util.List;
+
+import org.axonframework.queryhandling.QueryHandler;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import com.nvminh162.borrowingservice.command.data.Borrowing;
+import com.nvminh162.borrowingservice.command.data.BorrowingRepository;
+import com.nvminh162.borrowingservice.query.model.BorrowingCountResponseModel;
+import com.nvminh162.borrowingservice.query.model.BorrowingResponseModel;
+import com.nvminh162.borrowingservice.query.queries.CountBorrowingsQuery;
+import com.nvminh162.borrowingservice.query.queries.GetActiveBorrowingsByEmployeeQuery;
+import com.nvminh162.borrowingservice.query.queries.GetBorrowingHistoryByBookQuery;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BorrowingProjection {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    BorrowingRepository borrowingRepository;
+
+    @QueryHandler
+    public List<BorrowingResponseModel> handle(GetActiveBorrowingsByEmployeeQuery query) {
+        return borrowingRepository.findActiveByEmployee(query.getEmployeeId(), query.getAfter(), Limit.of(pageSize(query.getSize())))
+                .stream().map(BorrowingProjection::toModel).toList();
+    }
+
+    @QueryHandler
+    public List<BorrowingResponseModel> handle(GetBorrowingHistoryByBookQuery query) {
+        return borrowingRepository.findByBook(query.getBookId(), query.getAfter(), Limit.of(pageSize(query.getSize())))
+                .stream().map(BorrowingProjection::toModel).toList();
+    }
+
+    @QueryHandler
+    public BorrowingCountResponseModel handle(CountBorrowingsQuery query) {
+        if (query.getEmployeeId() != null) {
+            return new BorrowingCountResponseModel(query.getEmployeeId(), null,
+                    borrowingRepository.countByEmployeeIdAndReturnDateIsNull(query.getEmployeeId()),
+                    borrowingRepository.countByEmployeeId(query.getEmployeeId()));
+        }
+        return new BorrowingCountResponseModel(null, query.getBookId(),
+                borrowingRepository.countByBookIdAndReturnDateIsNull(query.getBookId()),
+                borrowingRepository.countByBookId(query.getBookId()));
+    }
+
+    private static int pageSize(Integer size) {
+        return size == null ? DEFAULT_PAGE_SIZE : Math.clamp(size, 1, MAX_PAGE_SIZE);
+    }
+
+    private static BorrowingResponseModel toModel(Borrowing borrowing) {
+        return BorrowingResponseModel.builder()
+                .id(borrowing.getId())
+                .bookId(borrowing.getBookId())
+                .employeeId(borrowing.getEmployeeId())
+                .borrowingDate(borrowing.getBorrowingDate())
+                .returnDate(borrowing.getReturnDate())
+                .batchId(borrowing.getBatchId())
+                .build();
+    }
+}
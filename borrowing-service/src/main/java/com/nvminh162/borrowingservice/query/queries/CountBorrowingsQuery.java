@@ -0,0 +1,21 @@
+package com.nvminh162.borrowingservice.query.queries;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CountBorrowingsQuery {
+    // đúng một trong hai được set
+    String employeeId;
+    String bookId;
+}
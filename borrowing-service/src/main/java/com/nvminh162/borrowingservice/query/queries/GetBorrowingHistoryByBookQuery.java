@@ -0,0 +1,22 @@
+package com.nvminh162.borrowingservice.query.queries;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class GetBorrowingHistoryByBookQuery {
+    String bookId;
+    // keyset cursor: id of the last borrowing of the previous page (null = first page)
+    String after;
+    Integer size;
+}
@@ -0,0 +1,109 @@
+package com.nvminh162.borrowingservice.command.aggregate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import org.axonframework.test.aggregate.AggregateTestFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nvminh162.borrowingservice.command.command.ConfirmBorrowingCommand;
+import com.nvminh162.borrowingservice.command.command.CreateBorrowingCommand;
+import com.nvminh162.borrowingservice.command.command.DeleteBorrowingCommand;
+import com.nvminh162.borrowingservice.command.command.ReturnBookCommand;
+import com.nvminh162.borrowingservice.command.event.BatchLoanCreatedEvent;
+import com.nvminh162.borrowingservice.command.event.BookReturnedEvent;
+import com.nvminh162.borrowingservice.command.event.BorrowingConfirmedEvent;
+import com.nvminh162.borrowingservice.command.event.BorrowingCreatedEvent;
+import com.nvminh162.borrowingservice.command.event.BorrowingOverdueEvent;
+
+/**
+ * Return and overdue flow of {@link BorrowingAggregate} on Axon's stub deadline manager.
+ */
+class BorrowingAggregateTest {
+
+    static final Duration LOAN_PERIOD = Duration.ofDays(14);
+
+    AggregateTestFixture<BorrowingAggregate> fixture;
+    Instant borrowedAt;
+    Date dueDate;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new AggregateTestFixture<>(BorrowingAggregate.class);
+        borrowedAt = fixture.currentTime();
+        dueDate = Date.from(borrowedAt.plus(LOAN_PERIOD));
+    }
+
+    @Test
+    void confirmingSchedulesTheOverdueDeadlineAtTheDueDate() {
+        fixture.givenCommands(create())
+                .when(new ConfirmBorrowingCommand("b-1"))
+                .expectSuccessfulHandlerExecution()
+                .expectScheduledDeadlineWithName(dueDate.toInstant(), BorrowingAggregate.OVERDUE_DEADLINE);
+    }
+
+    @Test
+    void returningCancelsTheOverdueDeadline() {
+        Date returnDate = Date.from(borrowedAt.plus(Duration.ofDays(3)));
+        fixture.givenCommands(create(), new ConfirmBorrowingCommand("b-1"))
+                .when(new ReturnBookCommand("b-1", returnDate))
+                .expectEvents(new BookReturnedEvent("b-1", "book-1", "emp-1", returnDate, null))
+                .expectNoScheduledDeadlines();
+    }
+
+    @Test
+    void overdueFiresWhenTheDueDatePassesWithoutReturn() {
+        fixture.givenCommands(create(), new ConfirmBorrowingCommand("b-1"))
+                .whenTimeElapses(LOAN_PERIOD.plusSeconds(1))
+                .expectTriggeredDeadlinesWithName(BorrowingAggregate.OVERDUE_DEADLINE)
+                .expectEvents(new BorrowingOverdueEvent("b-1", "book-1", "emp-1", dueDate));
+    }
+
+    @Test
+    void returningABatchLoanNamesTheBatchHoldingTheBook() {
+        Date returnDate = Date.from(borrowedAt.plus(Duration.ofDays(3)));
+        fixture.given(new BatchLoanCreatedEvent("b-1", "batch-1", "book-1", "emp-1", Date.from(borrowedAt), dueDate),
+                        new BorrowingConfirmedEvent("b-1", null))
+                .when(new ReturnBookCommand("b-1", returnDate))
+                .expectEvents(new BookReturnedEvent("b-1", "book-1", "emp-1", returnDate, "batch-1"));
+    }
+
+    @Test
+    void returningAnUnconfirmedBorrowingIsRejected() {
+        fixture.given(new BorrowingCreatedEvent("b-1", "book-1", "emp-1", Date.from(borrowedAt), dueDate))
+                .when(new ReturnBookCommand("b-1", new Date()))
+                .expectException(IllegalStateException.class)
+                .expectExceptionMessage("Borrowing b-1 is not active");
+    }
+
+    @Test
+    void returningTwiceIsRejected() {
+        Date returnDate = Date.from(borrowedAt.plus(Duration.ofDays(3)));
+        fixture.givenCommands(create(), new ConfirmBorrowingCommand("b-1"), new ReturnBookCommand("b-1", returnDate))
+                .when(new ReturnBookCommand("b-1", returnDate))
+                .expectException(IllegalStateException.class)
+                .expectExceptionMessage("Borrowing b-1 has already been returned");
+    }
+
+    @Test
+    void confirmingTwiceIsRejected() {
+        fixture.givenCommands(create(), new ConfirmBorrowingCommand("b-1"))
+                .when(new ConfirmBorrowingCommand("b-1"))
+                .expectException(IllegalStateException.class)
+                .expectExceptionMessage("Borrowing b-1 has already been confirmed");
+    }
+
+    @Test
+    void confirmingADeletedBorrowingIsRejected() {
+        fixture.givenCommands(create(), new DeleteBorrowingCommand("b-1"))
+                .when(new ConfirmBorrowingCommand("b-1"))
+                .expectException(IllegalStateException.class)
+                .expectExceptionMessage("Borrowing b-1 has been deleted");
+    }
+
+    private CreateBorrowingCommand create() {
+        return new CreateBorrowingCommand("b-1", "book-1", "emp-1", Date.from(borrowedAt), dueDate);
+    }
+}
@@ -0,0 +1,102 @@
+package com.nvminh162.borrowingservice.command.aggregate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.notNullValue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventsourcing.EventSourcingRepository;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.axonframework.modelling.command.Repository;
+import org.axonframework.modelling.command.RepositoryProvider;
+import org.axonframework.test.aggregate.AggregateTestFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.hamcrest.Matcher;
+import org.junit.jupiter.api.Test;
+
+import com.nvminh162.borrowingservice.command.command.ConfirmBatchBorrowingCommand;
+import com.nvminh162.borrowingservice.command.event.BatchBorrowingCancelledEvent;
+import com.nvminh162.borrowingservice.command.event.BatchBorrowingConfirmedEvent;
+import com.nvminh162.borrowingservice.command.event.BatchBorrowingCreatedEvent;
+import com.nvminh162.borrowingservice.command.event.BatchLoanCreatedEvent;
+import com.nvminh162.borrowingservice.command.event.BorrowingConfirmedEvent;
+
+/**
+ * Confirming a batch opens one {@link BorrowingAggregate} per book, each with its own overdue deadline.
+ */
+class BorrowingBatchAggregateTest {
+
+    AggregateTestFixture<BorrowingBatchAggregate> fixture;
+    // event store của fixture chỉ nhận event của BorrowingBatchAggregate
+    EventStore loanEventStore = EmbeddedEventStore.builder().storageEngine(new InMemoryEventStorageEngine()).build();
+    Date borrowingDate;
+    Date dueDate;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new AggregateTestFixture<>(BorrowingBatchAggregate.class);
+        // createNew(BorrowingAggregate.class, ...) cần repository của aggregate kia
+        Repository<BorrowingAggregate> loans = EventSourcingRepository.builder(BorrowingAggregate.class)
+                .eventStore(loanEventStore)
+                .build();
+        fixture.registerRepositoryProvider(new RepositoryProvider() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> Repository<T> repositoryFor(Class<T> aggregateType) {
+                return aggregateType == BorrowingAggregate.class ? (Repository<T>) loans : null;
+            }
+        });
+        Instant now = fixture.currentTime();
+        borrowingDate = Date.from(now);
+        dueDate = Date.from(now.plus(Duration.ofDays(14)));
+    }
+
+    @Test
+    void confirmingOpensOneLoanPerBookWithAnOverdueDeadline() {
+        String loan1 = BorrowingBatchAggregate.loanId("batch-1", "book-1");
+        String loan2 = BorrowingBatchAggregate.loanId("batch-1", "book-2");
+        fixture.given(new BatchBorrowingCreatedEvent("batch-1", "emp-1", List.of("book-1", "book-2"), borrowingDate, dueDate))
+                .when(new ConfirmBatchBorrowingCommand("batch-1"))
+                .expectEvents(new BatchBorrowingConfirmedEvent("batch-1", "emp-1", List.of("book-1", "book-2"), borrowingDate))
+                .expectScheduledDeadlineWithName(dueDate.toInstant(), BorrowingAggregate.OVERDUE_DEADLINE);
+
+        assertThat(loanEvents(loan1), contains(loanCreated(loan1, "book-1"), loanConfirmed(loan1)));
+        assertThat(loanEvents(loan2), contains(loanCreated(loan2, "book-2"), loanConfirmed(loan2)));
+    }
+
+    @Test
+    void confirmingACancelledBatchIsRejected() {
+        fixture.given(new BatchBorrowingCreatedEvent("batch-1", "emp-1", List.of("book-1"), borrowingDate, dueDate),
+                        new BatchBorrowingCancelledEvent("batch-1", List.of("book-1"), "rejected"))
+                .when(new ConfirmBatchBorrowingCommand("batch-1"))
+                .expectException(IllegalStateException.class);
+    }
+
+    private List<Object> loanEvents(String loanId) {
+        return loanEventStore.readEvents(loanId).asStream().<Object>map(EventMessage::getPayload).toList();
+    }
+
+    private static Matcher<Object> loanCreated(String loanId, String bookId) {
+        return allOf(instanceOf(BatchLoanCreatedEvent.class),
+                hasProperty("id", equalTo(loanId)),
+                hasProperty("batchId", equalTo("batch-1")),
+                hasProperty("bookId", equalTo(bookId)));
+    }
+
+    private static Matcher<Object> loanConfirmed(String loanId) {
+        return allOf(instanceOf(BorrowingConfirmedEvent.class),
+                hasProperty("id", equalTo(loanId)),
+                hasProperty("overdueScheduleId", notNullValue()));
+    }
+}
@@ -0,0 +1,80 @@
+package com.nvminh162.borrowingservice.command.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.persistence.autoconfigure.EntityScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * Keyset pages and counts of the borrowing query side, on the service's H2 schema.
+ */
+@DataJpaTest
+@ContextConfiguration(classes = BorrowingRepositoryTest.JpaConfig.class)
+class BorrowingRepositoryTest {
+
+    // @ComponentScan riêng của BorrowingServiceApplication tắt bộ lọc của test slice: chỉ nạp phần JPA
+    @Configuration
+    @EntityScan(basePackageClasses = Borrowing.class)
+    @EnableJpaRepositories(basePackageClasses = BorrowingRepository.class)
+    static class JpaConfig {
+    }
+
+    @Autowired
+    BorrowingRepository borrowingRepository;
+
+    @BeforeEach
+    void setUp() {
+        borrowingRepository.saveAll(List.of(
+                borrowing("b-1", "book-1", "emp-1", null),
+                borrowing("b-2", "book-2", "emp-1", new Date()),
+                borrowing("b-3", "book-1", "emp-1", null),
+                borrowing("b-4", "book-3", "emp-1", null),
+                borrowing("b-5", "book-1", "emp-2", null),
+                borrowing("b-6", "book-1", "emp-1", new Date())));
+    }
+
+    @Test
+    void activeBorrowingsOfAnEmployeeArePagedByIdAfterTheCursor() {
+        assertEquals(List.of("b-1", "b-3"), ids(borrowingRepository.findActiveByEmployee("emp-1", null, Limit.of(2))));
+        assertEquals(List.of("b-4"), ids(borrowingRepository.findActiveByEmployee("emp-1", "b-3", Limit.of(2))));
+        assertEquals(List.of(), ids(borrowingRepository.findActiveByEmployee("emp-1", "b-4", Limit.of(2))));
+    }
+
+    @Test
+    void historyOfABookIsPagedByIdAfterTheCursorIncludingReturnedBorrowings() {
+        assertEquals(List.of("b-1", "b-3", "b-5"), ids(borrowingRepository.findByBook("book-1", null, Limit.of(3))));
+        assertEquals(List.of("b-6"), ids(borrowingRepository.findByBook("book-1", "b-5", Limit.of(3))));
+    }
+
+    @Test
+    void countsSplitActiveFromAllBorrowings() {
+        assertEquals(3, borrowingRepository.countByEmployeeIdAndReturnDateIsNull("emp-1"));
+        assertEquals(5, borrowingRepository.countByEmployeeId("emp-1"));
+        assertEquals(3, borrowingRepository.countByBookIdAndReturnDateIsNull("book-1"));
+        assertEquals(4, borrowingRepository.countByBookId("book-1"));
+    }
+
+    private static Borrowing borrowing(String id, String bookId, String employeeId, Date returnDate) {
+        return Borrowing.builder()
+                .id(id)
+                .bookId(bookId)
+                .employeeId(employeeId)
+                .borrowingDate(new Date())
+                .returnDate(returnDate)
+                .build();
+    }
+
+    private static List<String> ids(List<Borrowing> borrowings) {
+        return borrowings.stream().map(Borrowing::getId).toList();
+    }
+}
@@ -0,0 +1,47 @@
+package com.nvminh162.borrowingservice.command.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.nvminh162.commonservice.command.UpdateStatusBookCommand;
+
+class BookReturnHandlerTest {
+
+    CommandGateway commandGateway = mock(CommandGateway.class);
+    BookReturnHandler handler = new BookReturnHandler(commandGateway);
+
+    @Test
+    void returnReleasesTheBookHeldByTheBorrowing() {
+        when(commandGateway.send(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        handler.on(new BookReturnedEvent("b-1", "book-1", "emp-1", new Date(), null));
+
+        ArgumentCaptor<UpdateStatusBookCommand> sent = ArgumentCaptor.forClass(UpdateStatusBookCommand.class);
+        verify(commandGateway).send(sent.capture());
+        assertEquals("book-1", sent.getValue().getBookId());
+        assertTrue(sent.getValue().getIsReady());
+        assertEquals("b-1", sent.getValue().getBorrowingId());
+    }
+
+    @Test
+    void batchLoanReturnReleasesTheBookHeldByTheBatch() {
+        when(commandGateway.send(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        handler.on(new BookReturnedEvent("b-1", "book-1", "emp-1", new Date(), "batch-1"));
+
+        ArgumentCaptor<UpdateStatusBookCommand> sent = ArgumentCaptor.forClass(UpdateStatusBookCommand.class);
+        verify(commandGateway).send(sent.capture());
+        assertEquals("batch-1", sent.getValue().getBorrowingId());
+    }
+}
@@ -0,0 +1,66 @@
+package com.nvminh162.borrowingservice.command.precheck;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.nvminh162.commonservice.event.BookRollBackStatusEvent;
+import com.nvminh162.commonservice.event.BookUpdatedStatusEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BorrowingPrecheckTest {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    BookAvailabilityView bookAvailabilityView = new BookAvailabilityView(meterRegistry);
+    BorrowingPrecheck precheck = new BorrowingPrecheck(bookAvailabilityView, meterRegistry);
+
+    @Test
+    void rejectsBooksTheViewKnowsAreBorrowed() {
+        bookAvailabilityView.on(new BookUpdatedStatusEvent("book-1", false, "emp-1", "b-1"));
+
+        ResponseStatusException conflict = assertThrows(ResponseStatusException.class, () -> precheck.requireAvailable("book-1"));
+        assertEquals(HttpStatus.CONFLICT, conflict.getStatusCode());
+        // sách view chưa biết được coi là còn, saga vẫn là nơi quyết định
+        precheck.requireAvailable("book-2");
+
+        assertEquals(1, count("rejected"));
+        assertEquals(1, count("passed"));
+        assertEquals(2, meterRegistry.get("borrowing.precheck.events.avoided").counter().count());
+    }
+
+    @Test
+    void batchNamesEveryBorrowedBook() {
+        bookAvailabilityView.on(new BookUpdatedStatusEvent("book-1", false, "emp-1", "b-1"));
+        bookAvailabilityView.on(new BookUpdatedStatusEvent("book-3", false, "emp-1", "b-2"));
+
+        ResponseStatusException conflict = assertThrows(ResponseStatusException.class,
+                () -> precheck.requireAvailable(List.of("book-1", "book-2", "book-3")));
+        assertEquals("Books already borrowed: [book-1, book-3]", conflict.getReason());
+    }
+
+    @Test
+    void bookIsAvailableAgainAfterRollbackOrReturn() {
+        bookAvailabilityView.on(new BookUpdatedStatusEvent("book-1", false, "emp-1", "b-1"));
+        bookAvailabilityView.on(new BookRollBackStatusEvent("book-1", true, "emp-1", "b-1"));
+        precheck.requireAvailable("book-1");
+
+        bookAvailabilityView.on(new BookUpdatedStatusEvent("book-1", false, "emp-2", "b-2"));
+        bookAvailabilityView.on(new BookUpdatedStatusEvent("book-1", true, "emp-2", "b-2"));
+        precheck.requireAvailable(List.of("book-1"));
+
+        bookAvailabilityView.on(new BookUpdatedStatusEvent("book-1", false, "emp-3", "b-3"));
+        bookAvailabilityView.onReset();
+        precheck.requireAvailable("book-1");
+        assertEquals(0, count("rejected"));
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("borrowing.precheck.requests").tag("outcome", outcome).counter().count();
+    }
+}
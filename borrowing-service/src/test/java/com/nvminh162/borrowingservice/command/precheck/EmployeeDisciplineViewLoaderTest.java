@@ -0,0 +1,80 @@
+package com.nvminh162.borrowingservice.command.precheck;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.axonframework.config.EventProcessingConfiguration;
+import org.axonframework.eventhandling.EventTrackerStatus;
+import org.axonframework.eventhandling.StreamingEventProcessor;
+import org.axonframework.messaging.responsetypes.ResponseType;
+import org.axonframework.queryhandling.QueryGateway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nvminh162.commonservice.event.EmployeeDisciplineChangedEvent;
+import com.nvminh162.commonservice.model.EmployeeDisciplineSnapshotCommonModel;
+import com.nvminh162.commonservice.queries.GetEmployeeDisciplineSnapshotQuery;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EmployeeDisciplineViewLoaderTest {
+
+    QueryGateway queryGateway = mock(QueryGateway.class);
+    EventProcessingConfiguration eventProcessingConfiguration = mock(EventProcessingConfiguration.class);
+    StreamingEventProcessor processor = mock(StreamingEventProcessor.class);
+    EventTrackerStatus segment = mock(EventTrackerStatus.class);
+    EmployeeDisciplineView view = new EmployeeDisciplineView(new SimpleMeterRegistry());
+    EmployeeDisciplineViewLoader loader = new EmployeeDisciplineViewLoader(queryGateway, eventProcessingConfiguration, view);
+
+    @BeforeEach
+    void setUp() {
+        when(eventProcessingConfiguration.eventProcessorByProcessingGroup(EmployeeDisciplineView.PROCESSING_GROUP,
+                StreamingEventProcessor.class)).thenReturn(Optional.of(processor));
+        when(processor.processingStatus()).thenReturn(Map.of(0, segment));
+        // snapshot mới nhất: emp-1 đang bị kỷ luật
+        when(queryGateway.query(any(GetEmployeeDisciplineSnapshotQuery.class), any(ResponseType.class))).thenReturn(
+                CompletableFuture.completedFuture(new EmployeeDisciplineSnapshotCommonModel(List.of("emp-1", "emp-2"), List.of("emp-1"))));
+    }
+
+    @Test
+    void snapshotWaitsForTheReplayToCatchUp() {
+        // processor vừa khởi động, đang đọc lại event cũ
+        when(segment.isCaughtUp()).thenReturn(false);
+        loader.load();
+        verify(queryGateway, never()).query(any(GetEmployeeDisciplineSnapshotQuery.class), any(ResponseType.class));
+
+        view.on(new EmployeeDisciplineChangedEvent("emp-1", false));
+        // cờ cũ từ event đọc lại không được coi là hit
+        assertNull(view.isDisciplined("emp-1"));
+        assertFalse(view.isBootstrapped());
+
+        view.on(new EmployeeDisciplineChangedEvent("emp-1", true));
+        when(segment.isCaughtUp()).thenReturn(true);
+        loader.load();
+
+        assertTrue(view.isBootstrapped());
+        assertEquals(true, view.isDisciplined("emp-1"));
+        assertEquals(false, view.isDisciplined("emp-2"));
+    }
+
+    @Test
+    void processorWithoutSegmentsHasNotCaughtUp() {
+        when(processor.processingStatus()).thenReturn(Map.of());
+        loader.load();
+
+        verify(queryGateway, never()).query(any(GetEmployeeDisciplineSnapshotQuery.class), any(ResponseType.class));
+        assertFalse(view.isBootstrapped());
+    }
+}
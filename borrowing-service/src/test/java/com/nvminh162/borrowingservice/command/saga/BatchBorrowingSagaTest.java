@@ -0,0 +1,115 @@
+package com.nvminh162.borrowingservice.command.saga;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.axonframework.messaging.responsetypes.ResponseType;
+import org.axonframework.queryhandling.QueryGateway;
+import org.axonframework.test.saga.SagaTestFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nvminh162.borrowingservice.command.command.CancelBatchBorrowingCommand;
+import com.nvminh162.borrowingservice.command.event.BatchBorrowingCancelledEvent;
+import com.nvminh162.borrowingservice.command.event.BatchBorrowingCreatedEvent;
+import com.nvminh162.borrowingservice.command.precheck.EmployeeDisciplineView;
+import com.nvminh162.commonservice.command.RollBackStatusBookCommand;
+import com.nvminh162.commonservice.command.UpdateStatusBookCommand;
+import com.nvminh162.commonservice.event.BookUpdatedStatusEvent;
+import com.nvminh162.commonservice.model.BookResponseCommonModel;
+import com.nvminh162.commonservice.model.BooksByIdsResponseCommonModel;
+import com.nvminh162.commonservice.model.EmployeeDisciplineSnapshotCommonModel;
+import com.nvminh162.commonservice.queries.GetBooksByIdsQuery;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BatchBorrowingSagaTest {
+
+    SagaTestFixture<BatchBorrowingSaga> fixture;
+    QueryGateway queryGateway = mock(QueryGateway.class);
+    EmployeeDisciplineView employeeDisciplineView = new EmployeeDisciplineView(new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        employeeDisciplineView.bootstrap(new EmployeeDisciplineSnapshotCommonModel(List.of("emp-1"), List.of()));
+        when(queryGateway.query(any(GetBooksByIdsQuery.class), any(ResponseType.class))).thenReturn(CompletableFuture.completedFuture(
+                new BooksByIdsResponseCommonModel(List.of(book("book-1"), book("book-2")), List.of())));
+        fixture = new SagaTestFixture<>(BatchBorrowingSaga.class);
+        fixture.registerResource(queryGateway);
+        fixture.registerResource(employeeDisciplineView);
+    }
+
+    @Test
+    void startReservesEveryBookUsingTheLocalDisciplineView() {
+        fixture.givenNoPriorActivity()
+                .whenPublishingA(created())
+                .expectActiveSagas(1)
+                .expectDispatchedCommands(
+                        new UpdateStatusBookCommand("book-1", false, "emp-1", "batch-1"),
+                        new UpdateStatusBookCommand("book-2", false, "emp-1", "batch-1"));
+        // nhân viên có trong bản sao: không hỏi employee-service
+        verify(queryGateway).query(any(GetBooksByIdsQuery.class), any(ResponseType.class));
+        verifyNoMoreInteractions(queryGateway);
+    }
+
+    @Test
+    void timeoutCancelsAnOpenBatch() {
+        fixture.givenAPublished(created())
+                .whenTimeElapses(BorrowingSaga.DEFAULT_TIMEOUT)
+                .expectDispatchedCommands(new CancelBatchBorrowingCommand("batch-1", List.of(), "Batch borrowing timed out"))
+                .expectActiveSagas(1);
+    }
+
+    @Test
+    void reservationLandingAfterTheCancelIsRolledBack() {
+        fixture.givenAPublished(created())
+                .andThenAPublished(new BatchBorrowingCancelledEvent("batch-1", List.of(), "Batch borrowing timed out"))
+                .whenPublishingA(new BookUpdatedStatusEvent("book-1", false, "emp-1", "batch-1"))
+                .expectDispatchedCommands(new RollBackStatusBookCommand("book-1", true, "emp-1", "batch-1"))
+                .expectActiveSagas(1);
+    }
+
+    @Test
+    void cancelledBatchEndsAtTheSecondTimeoutWhenAReservationNeverResolves() throws Exception {
+        fixture.givenAPublished(created())
+                .andThenTimeElapses(BorrowingSaga.DEFAULT_TIMEOUT)
+                .andThenAPublished(new BatchBorrowingCancelledEvent("batch-1", List.of(), "Batch borrowing timed out"))
+                .whenTimeElapses(BorrowingSaga.DEFAULT_TIMEOUT)
+                .expectActiveSagas(0);
+    }
+
+    @Test
+    void precheckRejectionReleasesTheWholeBatch() {
+        when(queryGateway.query(any(GetBooksByIdsQuery.class), any(ResponseType.class))).thenReturn(CompletableFuture.completedFuture(
+                new BooksByIdsResponseCommonModel(List.of(book("book-1"), new BookResponseCommonModel("book-2", "name", "author", false)), List.of())));
+
+        fixture.givenNoPriorActivity()
+                .whenPublishingA(created())
+                .expectDispatchedCommands(new CancelBatchBorrowingCommand("batch-1", List.of("book-1", "book-2"),
+                        "(x) >>>>>>>>>> Books not available: [book-2]"));
+    }
+
+    @Test
+    void rejectedBatchEndsWithoutWaitingForTheTimeout() {
+        fixture.givenAPublished(created())
+                .whenPublishingA(new BatchBorrowingCancelledEvent("batch-1", List.of("book-1", "book-2"), "Books not available"))
+                .expectNoDispatchedCommands()
+                .expectActiveSagas(0)
+                .expectNoScheduledDeadlines();
+    }
+
+    private BatchBorrowingCreatedEvent created() {
+        return new BatchBorrowingCreatedEvent("batch-1", "emp-1", List.of("book-1", "book-2"), new Date(0), new Date(1));
+    }
+
+    private static BookResponseCommonModel book(String id) {
+        return new BookResponseCommonModel(id, "name", "author", true);
+    }
+}
@@ -0,0 +1,92 @@
+package com.nvminh162.borrowingservice.command.saga;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.axonframework.messaging.responsetypes.ResponseType;
+import org.axonframework.queryhandling.QueryGateway;
+import org.axonframework.test.saga.SagaTestFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nvminh162.borrowingservice.command.command.ConfirmBorrowingCommand;
+import com.nvminh162.borrowingservice.command.command.DeleteBorrowingCommand;
+import com.nvminh162.borrowingservice.command.event.BorrowingCreatedEvent;
+import com.nvminh162.borrowingservice.command.event.BorrowingDeletedEvent;
+import com.nvminh162.borrowingservice.command.precheck.EmployeeDisciplineView;
+import com.nvminh162.commonservice.command.RollBackStatusBookCommand;
+import com.nvminh162.commonservice.command.UpdateStatusBookCommand;
+import com.nvminh162.commonservice.event.BookUpdatedStatusEvent;
+import com.nvminh162.commonservice.model.BookResponseCommonModel;
+import com.nvminh162.commonservice.model.EmployeeDisciplineSnapshotCommonModel;
+import com.nvminh162.commonservice.queries.GetBookDetailQuery;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BorrowingSagaTest {
+
+    SagaTestFixture<BorrowingSaga> fixture;
+    QueryGateway queryGateway = mock(QueryGateway.class);
+    EmployeeDisciplineView employeeDisciplineView = new EmployeeDisciplineView(new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        employeeDisciplineView.bootstrap(new EmployeeDisciplineSnapshotCommonModel(List.of("emp-1"), List.of()));
+        when(queryGateway.query(any(GetBookDetailQuery.class), any(ResponseType.class))).thenReturn(
+                CompletableFuture.completedFuture(new BookResponseCommonModel("book-1", "name", "author", true)));
+        fixture = new SagaTestFixture<>(BorrowingSaga.class);
+        fixture.registerResource(queryGateway);
+        fixture.registerResource(employeeDisciplineView);
+    }
+
+    @Test
+    void reservedBookIsConfirmed() {
+        fixture.givenAPublished(created())
+                .whenPublishingA(new BookUpdatedStatusEvent("book-1", false, "emp-1", "b-1"))
+                .expectDispatchedCommands(new ConfirmBorrowingCommand("b-1"));
+    }
+
+    @Test
+    void timeoutDeletesTheBorrowingButWaitsForALateReservation() {
+        fixture.givenAPublished(created())
+                .whenTimeElapses(BorrowingSaga.DEFAULT_TIMEOUT)
+                .expectDispatchedCommands(new DeleteBorrowingCommand("b-1"))
+                .expectActiveSagas(1);
+    }
+
+    @Test
+    void reservationLandingAfterTheTimeoutIsRolledBack() throws Exception {
+        fixture.givenAPublished(created())
+                .andThenTimeElapses(BorrowingSaga.DEFAULT_TIMEOUT)
+                .andThenAPublished(new BorrowingDeletedEvent("b-1"))
+                .whenPublishingA(new BookUpdatedStatusEvent("book-1", false, "emp-1", "b-1"))
+                .expectDispatchedCommands(new RollBackStatusBookCommand("book-1", true, "emp-1", "b-1"))
+                .expectActiveSagas(1);
+    }
+
+    @Test
+    void timedOutSagaEndsAtTheSecondDeadline() throws Exception {
+        fixture.givenAPublished(created())
+                .andThenTimeElapses(BorrowingSaga.DEFAULT_TIMEOUT)
+                .andThenAPublished(new BorrowingDeletedEvent("b-1"))
+                .whenTimeElapses(BorrowingSaga.DEFAULT_TIMEOUT)
+                .expectActiveSagas(0);
+    }
+
+    @Test
+    void deletionBeforeTheTimeoutEndsTheSaga() {
+        fixture.givenAPublished(created())
+                .whenPublishingA(new BorrowingDeletedEvent("b-1"))
+                .expectActiveSagas(0)
+                .expectNoScheduledDeadlines();
+    }
+
+    private BorrowingCreatedEvent created() {
+        return new BorrowingCreatedEvent("b-1", "book-1", "emp-1", new Date(0), new Date(1));
+    }
+}
@@ -0,0 +1,81 @@
+package com.nvminh162.commonservice.configuration;
+
+import org.axonframework.axonserver.connector.AxonServerConfiguration;
+import org.axonframework.axonserver.connector.AxonServerConnectionManager;
+import org.axonframework.axonserver.connector.event.axon.AxonServerEventStore;
+import org.axonframework.config.Configuration;
+import org.axonframework.eventhandling.EventBusSpanFactory;
+import org.axonframework.eventsourcing.AggregateLoadTimeSnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.EventCountSnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.NoSnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.SnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.Snapshotter;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Snapshot dùng chung cho các aggregate event-sourced (BookAggregate, EmployeeAggregate, BorrowingAggregate).
+ * Mỗi service khai báo bean {@link SnapshotTriggerDefinition} riêng qua {@link #snapshotTrigger}; event store với
+ * serializer snapshot gọn chỉ bật khi {@code snapshot.serializer=jackson}.
+ */
+@org.springframework.context.annotation.Configuration
+public class AxonSnapshotConfig {
+
+    /**
+     * Chọn trigger có sẵn của Axon: snapshot khi load aggregate lâu hơn {@code loadTimeThresholdMs} nếu giá trị này
+     * > 0, ngược lại sau mỗi {@code eventCountThreshold} event. Cả hai bằng 0 thì không snapshot.
+     */
+    public static SnapshotTriggerDefinition snapshotTrigger(
+            Snapshotter snapshotter, int eventCountThreshold, long loadTimeThresholdMs) {
+        if (loadTimeThresholdMs > 0) {
+            return new AggregateLoadTimeSnapshotTriggerDefinition(snapshotter, loadTimeThresholdMs);
+        }
+        return eventCountThreshold > 0
+                ? new EventCountSnapshotTriggerDefinition(snapshotter, eventCountThreshold)
+                : NoSnapshotTriggerDefinition.INSTANCE;
+    }
+
+    /**
+     * Serializer cho snapshot: JSON chỉ gồm các field của aggregate, bỏ field null, thay cho XML của XStream mặc định.
+     * Aggregate không cần getter/setter, chỉ cần constructor không tham số như Axon đã yêu cầu.
+     */
+    public static Serializer snapshotSerializer() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+                .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return JacksonSerializer.builder().objectMapper(objectMapper).build();
+    }
+
+    // giống event store mặc định của Axon Server, chỉ thay serializer của snapshot; event vẫn dùng eventSerializer.
+    // snapshot cũ (XStream) đọc lỗi thì Axon bỏ qua và dựng lại aggregate từ toàn bộ event
+    @Bean
+    @ConditionalOnProperty(name = "snapshot.serializer", havingValue = "jackson")
+    public EventStore eventStore(
+            AxonServerConfiguration axonServerConfiguration,
+            Configuration configuration,
+            AxonServerConnectionManager axonServerConnectionManager,
+            @Qualifier("eventSerializer") Serializer eventSerializer) {
+        return AxonServerEventStore.builder()
+                .messageMonitor(configuration.messageMonitor(AxonServerEventStore.class, "eventStore"))
+                .configuration(axonServerConfiguration)
+                .platformConnectionManager(axonServerConnectionManager)
+                .snapshotSerializer(snapshotSerializer())
+                .eventSerializer(eventSerializer)
+                .snapshotFilter(configuration.snapshotFilter())
+                .upcasterChain(configuration.upcasterChain())
+                .spanFactory(configuration.getComponent(EventBusSpanFactory.class))
+                .build();
+    }
+}
@@ -0,0 +1,21 @@
+package com.nvminh162.commonservice.event;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+// phát ra khi nhân viên được tạo, đổi trạng thái kỷ luật hoặc bị xoá (isDisciplined = null)
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class EmployeeDisciplineChangedEvent {
+    String employeeId;
+    Boolean isDisciplined;
+}
@@ -0,0 +1,136 @@
+package com.nvminh162.commonservice.idempotency;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import tools.jackson.databind.MapperFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Bounded, expiring store of {@code Idempotency-Key} results for command endpoints.
+ * The first request with a key runs the action; retries with the same key get the original
+ * result, waiting up to {@code idempotency.replay-timeout} if the first request is still in flight
+ * (then 409, so the client retries later). Failed actions, whatever they throw, are forgotten so the
+ * client can retry them.
+ * A key is bound to a SHA-256 of the request it was first used with; reusing it with a different
+ * request is rejected with 422 instead of silently returning the first result.
+ * The store is in-memory and per instance: a retry routed to another replica, or sent after a
+ * restart, runs again. Deployments that need that guarantee must route a key to one instance.
+ * {@code idempotency.requests{outcome=executed|replayed|mismatched}} shows how many duplicate
+ * commands were absorbed.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class IdempotencyKeyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    // thứ tự field cố định để cùng một request luôn cho cùng một hash
+    static final JsonMapper FINGERPRINT_MAPPER = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .build();
+
+    Cache<String, Entry> results;
+    Duration replayTimeout;
+    MeterRegistry meterRegistry;
+
+    public IdempotencyKeyStore(
+            @Value("${idempotency.maximum-size:100000}") long maximumSize,
+            @Value("${idempotency.expire-after-write:24h}") Duration expireAfterWrite,
+            @Value("${idempotency.replay-timeout:30s}") Duration replayTimeout,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.results = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+        this.replayTimeout = replayTimeout;
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+    }
+
+    /**
+     * @param scope   endpoint name, so the same key on two endpoints does not collide
+     * @param key     value of the {@value #HEADER} header; {@code null} runs the action unconditionally
+     * @param request the request body the key is bound to
+     * @throws ResponseStatusException 422 if the key was already used with a different request,
+     *                                 409 if the first request with the key is still running after the replay timeout
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String scope, String key, Object request, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        String cacheKey = scope + ":" + key;
+        Entry entry = new Entry(fingerprint(request), new CompletableFuture<>());
+        Entry original = results.asMap().putIfAbsent(cacheKey, entry);
+        if (original != null) {
+            if (!original.fingerprint().equals(entry.fingerprint())) {
+                count(scope, "mismatched");
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        HEADER + " was already used with a different request");
+            }
+            count(scope, "replayed");
+            return (T) awaitOriginal(original);
+        }
+
+        count(scope, "executed");
+        try {
+            T value = action.get();
+            entry.result().complete(value);
+            return value;
+        } catch (Throwable e) {
+            // cả Error và checked exception ném lén: future phải kết thúc, nếu không các lượt retry chờ mãi
+            results.asMap().remove(cacheKey, entry);
+            entry.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object awaitOriginal(Entry original) {
+        try {
+            return original.result().get(replayTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "A request with this " + HEADER + " is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the original request", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    private static String fingerprint(Object request) {
+        return Hashing.sha256().hashBytes(FINGERPRINT_MAPPER.writeValueAsBytes(request)).toString();
+    }
+
+    private void count(String scope, String outcome) {
+        meterRegistry.counter("idempotency.requests", "scope", scope, "outcome", outcome).increment();
+    }
+
+    record Entry(String fingerprint, CompletableFuture<Object> result) {}
+}
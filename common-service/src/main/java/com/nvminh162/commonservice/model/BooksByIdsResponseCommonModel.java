@@ -0,0 +1,18 @@
+package com.nvminh162.commonservice.model;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BooksByIdsResponseCommonModel {
+    // theo thứ tự id trong query, đã bỏ id trùng
+    List<BookResponseCommonModel> books;
+    List<String> missingIds;
+}
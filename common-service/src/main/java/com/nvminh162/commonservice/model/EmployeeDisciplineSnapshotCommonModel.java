@@ -0,0 +1,18 @@
+package com.nvminh162.commonservice.model;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class EmployeeDisciplineSnapshotCommonModel {
+    // mọi nhân viên đang tồn tại; disciplinedIds là tập con của employeeIds
+    List<String> employeeIds;
+    List<String> disciplinedIds;
+}
@@ -0,0 +1,15 @@
+package com.nvminh162.commonservice.queries;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class GetBooksByIdsQuery {
+    List<String> ids;
+}
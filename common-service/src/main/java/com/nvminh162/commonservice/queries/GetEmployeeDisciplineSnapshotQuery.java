@@ -0,0 +1,7 @@
+package com.nvminh162.commonservice.queries;
+
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+public class GetEmployeeDisciplineSnapshotQuery {
+}
@@ -0,0 +1,91 @@
+package com.nvminh162.commonservice.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.axonframework.eventsourcing.AggregateLoadTimeSnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.EventCountSnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.NoSnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.Snapshotter;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.junit.jupiter.api.Test;
+
+import com.thoughtworks.xstream.XStream;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+class AxonSnapshotConfigTest {
+
+    Snapshotter snapshotter = mock(Snapshotter.class);
+
+    @Test
+    void loadTimeThresholdWinsOverEventCount() {
+        assertInstanceOf(AggregateLoadTimeSnapshotTriggerDefinition.class,
+                AxonSnapshotConfig.snapshotTrigger(snapshotter, 100, 50));
+        assertInstanceOf(AggregateLoadTimeSnapshotTriggerDefinition.class,
+                AxonSnapshotConfig.snapshotTrigger(snapshotter, 0, 50));
+    }
+
+    @Test
+    void eventCountIsUsedWithoutALoadTimeThreshold() {
+        assertInstanceOf(EventCountSnapshotTriggerDefinition.class,
+                AxonSnapshotConfig.snapshotTrigger(snapshotter, 100, 0));
+    }
+
+    @Test
+    void bothThresholdsAtZeroDisableSnapshots() {
+        assertSame(NoSnapshotTriggerDefinition.INSTANCE, AxonSnapshotConfig.snapshotTrigger(snapshotter, 0, 0));
+    }
+
+    @Test
+    void snapshotsRoundTripAndStaySmallerThanXStream() {
+        Serializer snapshotSerializer = AxonSnapshotConfig.snapshotSerializer();
+        XStream xStream = new XStream();
+        xStream.allowTypes(new Class[] {SampleAggregate.class});
+        Serializer xStreamSerializer = XStreamSerializer.builder().xStream(xStream).build();
+        SampleAggregate aggregate = new SampleAggregate(
+                "borrowing-1", "book-1", new ArrayList<>(List.of("book-1", "book-2")), new Date(0), null);
+
+        SerializedObject<byte[]> json = snapshotSerializer.serialize(aggregate, byte[].class);
+        SerializedObject<byte[]> xml = xStreamSerializer.serialize(aggregate, byte[].class);
+        log.info(">>> snapshot size: jackson {} bytes, xstream {} bytes", json.getData().length, xml.getData().length);
+
+        assertTrue(json.getData().length < xml.getData().length);
+        SampleAggregate restored = snapshotSerializer.deserialize(json);
+        assertEquals("borrowing-1", restored.id);
+        assertEquals(List.of("book-1", "book-2"), restored.bookIds);
+        assertEquals(new Date(0), restored.borrowingDate);
+        assertNull(restored.returnDate);
+    }
+
+    // giống các aggregate: field private, không getter/setter, có constructor không tham số
+    static class SampleAggregate {
+        private String id;
+        private String bookId;
+        private List<String> bookIds;
+        private Date borrowingDate;
+        private Date returnDate;
+
+        SampleAggregate() {
+        }
+
+        SampleAggregate(String id, String bookId, List<String> bookIds, Date borrowingDate, Date returnDate) {
+            this.id = id;
+            this.bookId = bookId;
+            this.bookIds = bookIds;
+            this.borrowingDate = borrowingDate;
+            this.returnDate = returnDate;
+        }
+    }
+}
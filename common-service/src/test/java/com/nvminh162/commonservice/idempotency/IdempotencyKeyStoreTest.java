@@ -0,0 +1,118 @@
+package com.nvminh162.commonservice.idempotency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class IdempotencyKeyStoreTest {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    IdempotencyKeyStore store = new IdempotencyKeyStore(100, Duration.ofMinutes(10), Duration.ofSeconds(5), registry());
+    AtomicInteger runs = new AtomicInteger();
+
+    @Test
+    void replaysTheFirstResultForTheSameRequest() {
+        assertEquals("id-1", store.execute("book", "key", Map.of("name", "Dune"), () -> "id-" + runs.incrementAndGet()));
+        assertEquals("id-1", store.execute("book", "key", Map.of("name", "Dune"), () -> "id-" + runs.incrementAndGet()));
+        // cùng key nhưng khác endpoint là một request khác
+        assertEquals("id-2", store.execute("employee", "key", Map.of("name", "Dune"), () -> "id-" + runs.incrementAndGet()));
+        assertEquals(1, meterRegistry.get("idempotency.requests").tag("scope", "book").tag("outcome", "replayed").counter().count());
+    }
+
+    @Test
+    void rejectsAKeyReusedWithADifferentRequest() {
+        store.execute("book", "key", Map.of("name", "Dune"), () -> "id-" + runs.incrementAndGet());
+
+        ResponseStatusException mismatch = assertThrows(ResponseStatusException.class,
+                () -> store.execute("book", "key", Map.of("name", "Emma"), () -> "id-" + runs.incrementAndGet()));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, mismatch.getStatusCode());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void forgetsFailedActions() {
+        assertThrows(IllegalStateException.class, () -> store.execute("book", "key", "body", () -> {
+            throw new IllegalStateException("down");
+        }));
+        assertEquals("retried", store.execute("book", "key", "body", () -> "retried"));
+    }
+
+    @Test
+    void waitsForTheFirstRequestStillInFlight() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> store.execute("book", "key", "body", () -> {
+            running.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "id-" + runs.incrementAndGet();
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> retry = CompletableFuture.supplyAsync(() -> store.execute("book", "key", "body", () -> "duplicate"));
+
+        release.countDown();
+        assertEquals("id-1", first.get(5, TimeUnit.SECONDS));
+        assertEquals("id-1", retry.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void retryAfterAnErrorRunsAgain() {
+        assertThrows(AssertionError.class, () -> store.execute("book", "key", "body", () -> {
+            throw new AssertionError("boom");
+        }));
+        assertEquals("retried", store.execute("book", "key", "body", () -> "retried"));
+    }
+
+    @Test
+    void retryWaitsForTheFirstRequestOnlyUpToTheTimeout() throws Exception {
+        IdempotencyKeyStore store = new IdempotencyKeyStore(100, Duration.ofMinutes(10), Duration.ofMillis(100), registry());
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> store.execute("book", "key", "body", () -> {
+            running.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "id-1";
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        ResponseStatusException inProgress = assertThrows(ResponseStatusException.class,
+                () -> store.execute("book", "key", "body", () -> "duplicate"));
+        assertEquals(HttpStatus.CONFLICT, inProgress.getStatusCode());
+
+        release.countDown();
+        assertEquals("id-1", first.get(5, TimeUnit.SECONDS));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ObjectProvider<MeterRegistry> registry() {
+        ObjectProvider<MeterRegistry> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable(any())).thenReturn(meterRegistry);
+        return provider;
+    }
+}
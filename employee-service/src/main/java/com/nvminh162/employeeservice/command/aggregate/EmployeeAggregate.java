@@ -1,25 +1,28 @@
 package com.nvminh162.employeeservice.command.aggregate;
 
+import java.util.Objects;
+
 import org.axonframework.commandhandling.CommandHandler;
 import org.axonframework.eventsourcing.EventSourcingHandler;
 import org.axonframework.modelling.command.AggregateIdentifier;
 import org.axonframework.modelling.command.AggregateLifecycle;
 import org.axonframework.spring.stereotype.Aggregate;
-import org.springframework.beans.BeanUtils;
 
+import com.nvminh162.commonservice.event.EmployeeDisciplineChangedEvent;
 import com.nvminh162.employeeservice.command.command.CreateEmployeeCommand;
 import com.nvminh162.employeeservice.command.command.DeleteEmployeeCommand;
 import com.nvminh162.employeeservice.command.command.UpdateEmployeeCommand;
 import com.nvminh162.employeeservice.command.event.EmployeeCreatedEvent;
 import com.nvminh162.employeeservice.command.event.EmployeeDeletedEvent;
 import com.nvminh162.employeeservice.command.event.EmployeeUpdatedEvent;
+import com.nvminh162.employeeservice.mapper.EmployeeMapper;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.experimental.FieldDefaults;
 
 @NoArgsConstructor
-@Aggregate
+@Aggregate(snapshotTriggerDefinition = "employeeSnapshotTrigger")
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class EmployeeAggregate {
 
@@ -32,23 +35,27 @@ public class EmployeeAggregate {
 
     @CommandHandler
     public EmployeeAggregate(CreateEmployeeCommand command) {
-        EmployeeCreatedEvent event = new EmployeeCreatedEvent();
-        BeanUtils.copyProperties(command, event);
+        EmployeeCreatedEvent event = EmployeeMapper.INSTANCE.toCreatedEvent(command);
         AggregateLifecycle.apply(event);
+        // bản sao trạng thái kỷ luật ở borrowing-service chỉ nghe event chung này
+        AggregateLifecycle.apply(new EmployeeDisciplineChangedEvent(command.getId(), command.getIsDisciplined()));
     }
 
     @CommandHandler
     public void handle(UpdateEmployeeCommand command) {
-        EmployeeUpdatedEvent event = new EmployeeUpdatedEvent();
-        BeanUtils.copyProperties(command, event);
+        Boolean wasDisciplined = this.isDisciplined;
+        EmployeeUpdatedEvent event = EmployeeMapper.INSTANCE.toUpdatedEvent(command);
         AggregateLifecycle.apply(event);
+        if (!Objects.equals(wasDisciplined, command.getIsDisciplined())) {
+            AggregateLifecycle.apply(new EmployeeDisciplineChangedEvent(command.getId(), command.getIsDisciplined()));
+        }
     }
 
     @CommandHandler
     public void handle(DeleteEmployeeCommand command) {
-        EmployeeDeletedEvent event = new EmployeeDeletedEvent();
-        BeanUtils.copyProperties(command, event);
+        EmployeeDeletedEvent event = EmployeeMapper.INSTANCE.toDeletedEvent(command);
         AggregateLifecycle.apply(event);
+        AggregateLifecycle.apply(new EmployeeDisciplineChangedEvent(command.getId(), null));
     }
 
     @EventSourcingHandler
@@ -6,6 +6,7 @@ import org.axonframework.commandhandling.gateway.CommandGateway;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.nvminh162.commonservice.idempotency.IdempotencyKeyStore;
 import com.nvminh162.employeeservice.command.command.CreateEmployeeCommand;
 import com.nvminh162.employeeservice.command.command.DeleteEmployeeCommand;
 import com.nvminh162.employeeservice.command.command.UpdateEmployeeCommand;
@@ -21,6 +22,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 
 
 @RestController
@@ -31,17 +33,21 @@ import org.springframework.web.bind.annotation.PathVariable;
 public class EmployeeCommandController {
 
     CommandGateway commandGateway;
+    IdempotencyKeyStore idempotencyKeyStore;
 
     @PostMapping
-    public String addEmployee(@Valid @RequestBody CreateEmployeeModel model) {
-        CreateEmployeeCommand command = CreateEmployeeCommand.builder()
-            .id(UUID.randomUUID().toString())
-            .firstName(model.getFirstName())
-            .lastName(model.getLastName())
-            .kin(model.getKin())
-            .isDisciplined(false)
-            .build();
-        return commandGateway.sendAndWait(command);
+    public String addEmployee(@Valid @RequestBody CreateEmployeeModel model,
+                              @RequestHeader(value = IdempotencyKeyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyKeyStore.execute("employee", idempotencyKey, model, () -> {
+            CreateEmployeeCommand command = CreateEmployeeCommand.builder()
+                .id(UUID.randomUUID().toString())
+                .firstName(model.getFirstName())
+                .lastName(model.getLastName())
+                .kin(model.getKin())
+                .isDisciplined(false)
+                .build();
+            return commandGateway.sendAndWait(command);
+        });
     }
 
     @PutMapping("/{employeeId}")
@@ -1,9 +1,14 @@
 package com.nvminh162.employeeservice.command.data;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import java.util.List;
 
 
 public interface EmployeeRepository extends JpaRepository<Employee, String> {
     List<Employee> findByIsDisciplined(Boolean isDisciplined);    
+
+    // [id, isDisciplined] của mọi nhân viên, một lần đọc
+    @Query("SELECT e.id, e.isDisciplined FROM Employee e")
+    List<Object[]> findDisciplineStatuses();
 }
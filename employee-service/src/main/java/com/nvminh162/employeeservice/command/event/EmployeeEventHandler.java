@@ -4,11 +4,14 @@ import java.util.Optional;
 
 import org.axonframework.eventhandling.DisallowReplay;
 import org.axonframework.eventhandling.EventHandler;
-import org.springframework.beans.BeanUtils;
+import org.axonframework.eventhandling.ResetHandler;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
 import org.springframework.stereotype.Component;
 
 import com.nvminh162.employeeservice.command.data.Employee;
 import com.nvminh162.employeeservice.command.data.EmployeeRepository;
+import com.nvminh162.employeeservice.mapper.EmployeeMapper;
+import com.nvminh162.employeeservice.query.cache.EmployeeDetailCache;
 
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -22,12 +25,15 @@ import lombok.extern.slf4j.Slf4j;
 public class EmployeeEventHandler {
 
     EmployeeRepository employeeRepository;
+    EmployeeMapper employeeMapper;
+    EmployeeDetailCache employeeDetailCache;
 
+    // nhân viên mới thường được mượn sách ngay: nạp sẵn vào cache
     @EventHandler
     public void on(EmployeeCreatedEvent event) {
-        Employee employee = new Employee();
-        BeanUtils.copyProperties(event, employee);
+        Employee employee = employeeMapper.toEmployee(event);
         employeeRepository.save(employee);
+        afterCommit(() -> employeeDetailCache.put(employeeMapper.toResponse(employee)));
     }
 
     @EventHandler
@@ -39,6 +45,7 @@ public class EmployeeEventHandler {
         employee.setLastName(event.getLastName());
         employee.setIsDisciplined(event.getIsDisciplined());
         employeeRepository.save(employee);
+        afterCommit(() -> employeeDetailCache.put(employeeMapper.toResponse(employee)));
     }
 
     @EventHandler
@@ -50,5 +57,20 @@ public class EmployeeEventHandler {
         } catch (Exception e) {
             log.error(e.getMessage());
         }
+        afterCommit(() -> employeeDetailCache.invalidate(event.getId()));
+    }
+
+    @ResetHandler
+    public void onReset() {
+        employeeDetailCache.invalidateAll();
+    }
+
+    // chỉ đụng vào cache sau khi projection đã commit, tránh query đọc lại dữ liệu cũ rồi cache nó
+    private void afterCommit(Runnable action) {
+        if (CurrentUnitOfWork.isStarted()) {
+            CurrentUnitOfWork.get().afterCommit(unitOfWork -> action.run());
+        } else {
+            action.run();
+        }
     }
 }
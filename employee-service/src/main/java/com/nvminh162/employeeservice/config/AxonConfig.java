@@ -0,0 +1,21 @@
+package com.nvminh162.employeeservice.config;
+
+import org.axonframework.eventsourcing.SnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.Snapshotter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.nvminh162.commonservice.configuration.AxonSnapshotConfig;
+
+@Configuration
+public class AxonConfig {
+
+    @Bean
+    public SnapshotTriggerDefinition employeeSnapshotTrigger(
+            Snapshotter snapshotter,
+            @Value("${employee.snapshot.event-count-threshold:100}") int eventCountThreshold,
+            @Value("${employee.snapshot.load-time-threshold-ms:0}") long loadTimeThresholdMs) {
+        return AxonSnapshotConfig.snapshotTrigger(snapshotter, eventCountThreshold, loadTimeThresholdMs);
+    }
+}
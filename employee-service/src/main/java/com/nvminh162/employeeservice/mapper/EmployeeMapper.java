@@ -0,0 +1,30 @@
+package com.nvminh162.employeeservice.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+
+import com.nvminh162.commonservice.model.EmployeeResponseCommonModel;
+import com.nvminh162.employeeservice.command.command.CreateEmployeeCommand;
+import com.nvminh162.employeeservice.command.command.DeleteEmployeeCommand;
+import com.nvminh162.employeeservice.command.command.UpdateEmployeeCommand;
+import com.nvminh162.employeeservice.command.data.Employee;
+import com.nvminh162.employeeservice.command.event.EmployeeCreatedEvent;
+import com.nvminh162.employeeservice.command.event.EmployeeDeletedEvent;
+import com.nvminh162.employeeservice.command.event.EmployeeUpdatedEvent;
+
+@Mapper(componentModel = "spring")
+public interface EmployeeMapper {
+
+    // aggregate không phải Spring bean nên dùng instance tĩnh
+    EmployeeMapper INSTANCE = Mappers.getMapper(EmployeeMapper.class);
+
+    EmployeeCreatedEvent toCreatedEvent(CreateEmployeeCommand command);
+
+    EmployeeUpdatedEvent toUpdatedEvent(UpdateEmployeeCommand command);
+
+    EmployeeDeletedEvent toDeletedEvent(DeleteEmployeeCommand command);
+
+    Employee toEmployee(EmployeeCreatedEvent event);
+
+    EmployeeResponseCommonModel toResponse(Employee employee);
+}
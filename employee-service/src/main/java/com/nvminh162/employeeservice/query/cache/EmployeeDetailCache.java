@@ -0,0 +1,82 @@
+package com.nvminh162.employeeservice.query.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.nvminh162.commonservice.model.EmployeeResponseCommonModel;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded in-process cache in front of the {@code GetDetailEmployeeQuery} handler, which borrowing-service
+ * calls on every borrow to read the discipline flag. Warmed and kept in sync by {@code EmployeeEventHandler}.
+ * As in {@code BookDetailCache}, every write bumps a version counter (striped by id) and a loaded row is
+ * only cached if no write touched its stripe while it was being read, so a lookup racing with an update
+ * or delete cannot cache the old employee for the whole TTL.
+ * {@code employee.cache.enabled=false} turns it into a pass-through (size 0), so the handler can be
+ * compared with and without it; hit/miss counters are published as {@code cache.*} with {@code cache=employee-detail}.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class EmployeeDetailCache {
+
+    static final int VERSION_STRIPES = 1024;
+
+    Cache<String, EmployeeResponseCommonModel> cache;
+    AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public EmployeeDetailCache(
+            @Value("${employee.cache.enabled:true}") boolean enabled,
+            @Value("${employee.cache.maximum-size:10000}") long maximumSize,
+            @Value("${employee.cache.expire-after-write:10m}") Duration expireAfterWrite,
+            MeterRegistry meterRegistry) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(enabled ? maximumSize : 0)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "employee-detail");
+    }
+
+    public EmployeeResponseCommonModel get(String id, Callable<EmployeeResponseCommonModel> loader) throws Exception {
+        EmployeeResponseCommonModel cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        long version = versions.get(stripe(id));
+        EmployeeResponseCommonModel loaded = loader.call();
+        // invalidate của Guava không chặn được lượt nạp đang chạy: có ghi trong lúc đọc DB thì không cache
+        cache.asMap().compute(id, (key, current) ->
+                current != null || versions.get(stripe(id)) != version ? current : loaded);
+        return loaded;
+    }
+
+    public void put(EmployeeResponseCommonModel model) {
+        versions.incrementAndGet(stripe(model.getId()));
+        cache.put(model.getId(), model);
+    }
+
+    public void invalidate(String id) {
+        versions.incrementAndGet(stripe(id));
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        cache.invalidateAll();
+    }
+
+    private static int stripe(String id) {
+        return Math.floorMod(id.hashCode(), VERSION_STRIPES);
+    }
+}
@@ -1,15 +1,19 @@
 package com.nvminh162.employeeservice.query.projection;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.axonframework.queryhandling.QueryHandler;
-import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Component;
 
+import com.nvminh162.commonservice.model.EmployeeDisciplineSnapshotCommonModel;
 import com.nvminh162.commonservice.model.EmployeeResponseCommonModel;
 import com.nvminh162.commonservice.queries.GetDetailEmployeeQuery;
+import com.nvminh162.commonservice.queries.GetEmployeeDisciplineSnapshotQuery;
 import com.nvminh162.employeeservice.command.data.Employee;
 import com.nvminh162.employeeservice.command.data.EmployeeRepository;
+import com.nvminh162.employeeservice.mapper.EmployeeMapper;
+import com.nvminh162.employeeservice.query.cache.EmployeeDetailCache;
 import com.nvminh162.employeeservice.query.queries.GetAllEmployeeQuery;
 
 import lombok.AccessLevel;
@@ -22,22 +26,35 @@ import lombok.experimental.FieldDefaults;
 public class EmployeeProjection {
 
     EmployeeRepository employeeRepository;
+    EmployeeMapper employeeMapper;
+    EmployeeDetailCache employeeDetailCache;
 
     @QueryHandler
     public List<EmployeeResponseCommonModel> handle(GetAllEmployeeQuery query) {
-        return employeeRepository.findByIsDisciplined(query.getIsDisciplined()).stream().map(employee -> {
-            EmployeeResponseCommonModel model = new EmployeeResponseCommonModel();
-            BeanUtils.copyProperties(employee, model);
-            return model;
-        }).toList();
+        return employeeRepository.findByIsDisciplined(query.getIsDisciplined()).stream().map(employeeMapper::toResponse).toList();
     }
 
     @QueryHandler
     public EmployeeResponseCommonModel handle(GetDetailEmployeeQuery query) throws Exception {
-        EmployeeResponseCommonModel model = new EmployeeResponseCommonModel();
-        Employee employee = employeeRepository.findById(query.getId())
-                .orElseThrow(() -> new Exception("Employee ID not found " + query.getId()));
-        BeanUtils.copyProperties(employee, model);
-        return model;
+        return employeeDetailCache.get(query.getId(), () -> {
+            Employee employee = employeeRepository.findById(query.getId())
+                    .orElseThrow(() -> new Exception("Employee ID not found " + query.getId()));
+            return employeeMapper.toResponse(employee);
+        });
+    }
+
+    // chỉ lấy id, không nạp entity: dùng để khởi tạo bản sao trạng thái kỷ luật ở borrowing-service
+    @QueryHandler
+    public EmployeeDisciplineSnapshotCommonModel handle(GetEmployeeDisciplineSnapshotQuery query) {
+        List<String> employeeIds = new ArrayList<>();
+        List<String> disciplinedIds = new ArrayList<>();
+        for (Object[] status : employeeRepository.findDisciplineStatuses()) {
+            String id = (String) status[0];
+            employeeIds.add(id);
+            if (Boolean.TRUE.equals(status[1])) {
+                disciplinedIds.add(id);
+            }
+        }
+        return new EmployeeDisciplineSnapshotCommonModel(employeeIds, disciplinedIds);
     }
 }
@@ -0,0 +1,56 @@
+package com.nvminh162.employeeservice.command.aggregate;
+
+import org.axonframework.test.aggregate.AggregateTestFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nvminh162.commonservice.event.EmployeeDisciplineChangedEvent;
+import com.nvminh162.employeeservice.command.command.CreateEmployeeCommand;
+import com.nvminh162.employeeservice.command.command.DeleteEmployeeCommand;
+import com.nvminh162.employeeservice.command.command.UpdateEmployeeCommand;
+import com.nvminh162.employeeservice.command.event.EmployeeCreatedEvent;
+import com.nvminh162.employeeservice.command.event.EmployeeDeletedEvent;
+import com.nvminh162.employeeservice.command.event.EmployeeUpdatedEvent;
+
+/**
+ * {@link EmployeeDisciplineChangedEvent}s that feed borrowing-service's discipline view.
+ */
+class EmployeeAggregateTest {
+
+    AggregateTestFixture<EmployeeAggregate> fixture;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new AggregateTestFixture<>(EmployeeAggregate.class);
+    }
+
+    @Test
+    void creatingPublishesTheInitialFlag() {
+        fixture.givenNoPriorActivity()
+                .when(new CreateEmployeeCommand("emp-1", "An", "Nguyen", "Kinh", false))
+                .expectEvents(new EmployeeCreatedEvent("emp-1", "An", "Nguyen", "Kinh", false),
+                        new EmployeeDisciplineChangedEvent("emp-1", false));
+    }
+
+    @Test
+    void updateWithoutAFlagChangePublishesNoDisciplineEvent() {
+        fixture.given(new EmployeeCreatedEvent("emp-1", "An", "Nguyen", "Kinh", false))
+                .when(new UpdateEmployeeCommand("emp-1", "Binh", "Nguyen", "Kinh", false))
+                .expectEvents(new EmployeeUpdatedEvent("emp-1", "Binh", "Nguyen", "Kinh", false));
+    }
+
+    @Test
+    void flagChangeIsPublished() {
+        fixture.given(new EmployeeCreatedEvent("emp-1", "An", "Nguyen", "Kinh", false))
+                .when(new UpdateEmployeeCommand("emp-1", "An", "Nguyen", "Kinh", true))
+                .expectEvents(new EmployeeUpdatedEvent("emp-1", "An", "Nguyen", "Kinh", true),
+                        new EmployeeDisciplineChangedEvent("emp-1", true));
+    }
+
+    @Test
+    void deletingPublishesANullFlag() {
+        fixture.given(new EmployeeCreatedEvent("emp-1", "An", "Nguyen", "Kinh", true))
+                .when(new DeleteEmployeeCommand("emp-1"))
+                .expectEvents(new EmployeeDeletedEvent("emp-1"), new EmployeeDisciplineChangedEvent("emp-1", null));
+    }
+}
@@ -0,0 +1,91 @@
+package com.nvminh162.employeeservice.query.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.nvminh162.commonservice.model.EmployeeResponseCommonModel;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EmployeeDetailCacheTest {
+
+    EmployeeDetailCache cache = new EmployeeDetailCache(true, 100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+
+    @Test
+    void servesHitsWithoutLoading() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("emp-1", () -> employee(false, loads.incrementAndGet()));
+        cache.get("emp-1", () -> employee(false, loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() throws Exception {
+        EmployeeDetailCache disabled = new EmployeeDetailCache(false, 100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+        disabled.get("emp-1", () -> employee(false, loads.incrementAndGet()));
+        disabled.get("emp-1", () -> employee(false, loads.incrementAndGet()));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void doesNotCacheAnEmployeeReadBeforeTheDelete() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch deleted = new CountDownLatch(1);
+        // query đọc nhân viên, event handler xoá và invalidate trước khi query kịp ghi vào cache
+        CompletableFuture<EmployeeResponseCommonModel> staleRead = CompletableFuture.supplyAsync(() -> {
+            try {
+                return cache.get("emp-1", () -> {
+                    reading.countDown();
+                    assertTrue(deleted.await(5, TimeUnit.SECONDS));
+                    return employee(false, 1);
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+        cache.invalidate("emp-1");
+        deleted.countDown();
+
+        assertEquals("Employee 1", staleRead.get(5, TimeUnit.SECONDS).getLastName());
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("emp-1", () -> employee(true, loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void updateWinsOverALoadStillInFlight() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch updated = new CountDownLatch(1);
+        CompletableFuture<EmployeeResponseCommonModel> staleRead = CompletableFuture.supplyAsync(() -> {
+            try {
+                return cache.get("emp-1", () -> {
+                    reading.countDown();
+                    assertTrue(updated.await(5, TimeUnit.SECONDS));
+                    return employee(false, 1);
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+        cache.put(employee(true, 2));
+        updated.countDown();
+        staleRead.get(5, TimeUnit.SECONDS);
+
+        assertEquals(true, cache.get("emp-1", () -> employee(false, 3)).getIsDisciplined());
+    }
+
+    static EmployeeResponseCommonModel employee(boolean isDisciplined, int load) {
+        return new EmployeeResponseCommonModel("emp-1", "An", "Employee " + load, "Kinh", isDisciplined);
+    }
+}
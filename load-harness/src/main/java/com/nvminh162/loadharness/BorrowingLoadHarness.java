@@ -0,0 +1,198 @@
+package com.nvminh162.loadharness;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.config.AggregateConfigurer;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.ConfigurationScopeAwareProvider;
+import org.axonframework.config.Configurer;
+import org.axonframework.config.DefaultConfigurer;
+import org.axonframework.deadline.DeadlineManager;
+import org.axonframework.deadline.SimpleDeadlineManager;
+import org.axonframework.eventhandling.TrackingEventProcessorConfiguration;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+
+import com.nvminh162.bookservice.command.aggregate.BookAggregate;
+import com.nvminh162.bookservice.command.command.CreateBookCommand;
+import com.nvminh162.borrowingservice.command.aggregate.BorrowingAggregate;
+import com.nvminh162.borrowingservice.command.command.CreateBorrowingCommand;
+import com.nvminh162.borrowingservice.command.precheck.EmployeeDisciplineView;
+import com.nvminh162.borrowingservice.command.saga.BorrowingSaga;
+import com.nvminh162.employeeservice.command.aggregate.EmployeeAggregate;
+import com.nvminh162.employeeservice.command.command.CreateEmployeeCommand;
+import com.nvminh162.commonservice.model.EmployeeDisciplineSnapshotCommonModel;
+import com.nvminh162.loadharness.report.LoadReport;
+import com.nvminh162.loadharness.report.RunStats;
+import com.nvminh162.loadharness.standin.InMemoryAggregateCache;
+import com.nvminh162.loadharness.standin.StandIns;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs the real {@link BookAggregate}, {@link EmployeeAggregate}, {@link BorrowingAggregate} and
+ * {@link BorrowingSaga} in one JVM on an in-memory event store with local command/query buses,
+ * and drives a closed-loop mix of {@link Scenario}s through the saga.
+ * Only the JPA read models are replaced (see {@link StandIns}); no Axon Server, Eureka or database.
+ */
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BorrowingLoadHarness implements AutoCloseable {
+
+    static final String SAGA_PROCESSOR = "BorrowingSagaProcessor";
+    static final Duration LOAN_PERIOD = Duration.ofDays(14);
+
+    LoadProfile profile;
+    SagaOutcomeTracker tracker = new SagaOutcomeTracker();
+    Configuration configuration;
+    CommandGateway commandGateway;
+
+    public BorrowingLoadHarness(LoadProfile profile) {
+        this.profile = profile;
+        EmployeeDisciplineView employeeDisciplineView = new EmployeeDisciplineView(new SimpleMeterRegistry());
+        // event store rỗng và processor subscribing: không có gì để đọc lại, view trả lời ngay từ đầu
+        employeeDisciplineView.bootstrap(new EmployeeDisciplineSnapshotCommonModel(List.of(), List.of()));
+        Configurer configurer = DefaultConfigurer.defaultConfiguration(false)
+                .configureEmbeddedEventStore(config -> new InMemoryEventStorageEngine())
+                .configureAggregate(cached(BookAggregate.class))
+                .configureAggregate(cached(EmployeeAggregate.class))
+                .configureAggregate(cached(BorrowingAggregate.class))
+                // deadline theo scope aggregate/saga như borrowing-service, nhưng giữ trong bộ nhớ thay cho Quartz JDBC
+                .registerComponent(DeadlineManager.class, config -> SimpleDeadlineManager.builder()
+                        .scopeAwareProvider(new ConfigurationScopeAwareProvider(config))
+                        .build())
+                .eventProcessing(processing -> processing
+                        .registerSaga(BorrowingSaga.class)
+                        .registerTrackingEventProcessorConfiguration(SAGA_PROCESSOR, config ->
+                                TrackingEventProcessorConfiguration.forParallelProcessing(profile.getSagaThreads())
+                                        .andInitialSegmentsCount(profile.getSagaThreads()))
+                        .registerSubscribingEventProcessor(SagaOutcomeTracker.PROCESSING_GROUP)
+                        .registerEventHandler(config -> tracker)
+                        // bản sao kỷ luật được cập nhật ngay khi nhân viên được tạo, nên saga không cần query nhân viên
+                        .registerSubscribingEventProcessor(EmployeeDisciplineView.PROCESSING_GROUP)
+                        .registerEventHandler(config -> employeeDisciplineView))
+                .registerComponent(EmployeeDisciplineView.class, config -> employeeDisciplineView);
+        StandIns.configure(configurer);
+        this.configuration = configurer.buildConfiguration();
+        this.configuration.start();
+        this.commandGateway = configuration.commandGateway();
+    }
+
+    /**
+     * Warmup run (discarded, lets the JIT settle), then the measured run.
+     */
+    public LoadReport run() throws InterruptedException {
+        if (profile.getWarmup() > 0) {
+            LoadReport warmup = drive("warmup", profile.getWarmup());
+            log.info(">>> Warmup: {} saga(s) in {} ms", warmup.getStats().completed(),
+                    TimeUnit.NANOSECONDS.toMillis(warmup.getElapsedNanos()));
+        }
+        return drive("run", profile.getBorrows());
+    }
+
+    private LoadReport drive(String phase, int borrows) throws InterruptedException {
+        List<PlannedBorrowing> plan = seed(phase, borrows);
+        RunStats stats = new RunStats(borrows);
+        Semaphore inFlight = new Semaphore(profile.getInFlight());
+        CountDownLatch ended = new CountDownLatch(borrows);
+        long deadline = System.nanoTime() + profile.getTimeout().toNanos();
+
+        int submitted = 0;
+        long start = System.nanoTime();
+        for (PlannedBorrowing borrowing : plan) {
+            if (!inFlight.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                log.warn(">>> {}: timed out waiting for a free slot after {} submission(s)", phase, submitted);
+                break;
+            }
+            tracker.begin(borrowing.id(), borrowing.scenario(), stats, () -> {
+                inFlight.release();
+                ended.countDown();
+            });
+            Date now = new Date();
+            commandGateway.send(new CreateBorrowingCommand(borrowing.id(), borrowing.bookId(), borrowing.employeeId(),
+                            now, Date.from(now.toInstant().plus(LOAN_PERIOD))))
+                    .exceptionally(e -> {
+                        log.warn(">>> Could not create borrowing {}: {}", borrowing.id(), e.getMessage());
+                        tracker.abandon(borrowing.id());
+                        return null;
+                    });
+            submitted++;
+        }
+        ended.await(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        long elapsed = System.nanoTime() - start;
+        return new LoadReport(profile, submitted, elapsed, stats);
+    }
+
+    // tạo sách/nhân viên cho một lượt chạy; id có tiền tố phase nên warmup không ảnh hưởng lượt đo
+    private List<PlannedBorrowing> seed(String phase, int borrows) {
+        Random random = new Random(profile.getSeed());
+        List<String> employees = new ArrayList<>();
+        for (int i = 0; i < profile.getEmployees(); i++) {
+            String id = phase + "-employee-" + i;
+            commandGateway.sendAndWait(new CreateEmployeeCommand(id, "Load", "Employee " + i, "Kinh", false));
+            employees.add(id);
+        }
+        List<String> disciplined = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, profile.getEmployees() / 10); i++) {
+            String id = phase + "-disciplined-" + i;
+            commandGateway.sendAndWait(new CreateEmployeeCommand(id, "Load", "Disciplined " + i, "Kinh", true));
+            disciplined.add(id);
+        }
+        List<String> hotBooks = new ArrayList<>();
+        for (int i = 0; i < profile.getHotBooks(); i++) {
+            String id = phase + "-hot-book-" + i;
+            commandGateway.sendAndWait(new CreateBookCommand(id, "Hot book " + i, "Load", true));
+            hotBooks.add(id);
+        }
+
+        List<PlannedBorrowing> plan = new ArrayList<>(borrows);
+        for (int i = 0; i < borrows; i++) {
+            String borrowingId = phase + "-borrowing-" + i;
+            double draw = random.nextDouble();
+            if (draw < profile.getContention() && !hotBooks.isEmpty()) {
+                plan.add(new PlannedBorrowing(borrowingId, Scenario.CONTENTION,
+                        pick(random, hotBooks), pick(random, employees)));
+                continue;
+            }
+            String bookId = phase + "-book-" + i;
+            commandGateway.sendAndWait(new CreateBookCommand(bookId, "Book " + i, "Load", true));
+            if (draw < profile.getContention() + profile.getRollback()) {
+                plan.add(new PlannedBorrowing(borrowingId, Scenario.ROLLBACK, bookId, pick(random, disciplined)));
+            } else {
+                plan.add(new PlannedBorrowing(borrowingId, Scenario.BORROW, bookId, pick(random, employees)));
+            }
+        }
+        log.info(">>> {}: seeded {} employee(s), {} hot book(s), {} borrowing(s) planned at {}",
+                phase, employees.size() + disciplined.size(), hotBooks.size(), plan.size(), Instant.now());
+        return plan;
+    }
+
+    private static <A> AggregateConfigurer<A> cached(Class<A> aggregateType) {
+        return AggregateConfigurer.defaultConfiguration(aggregateType)
+                .configureCache(config -> new InMemoryAggregateCache());
+    }
+
+    private static String pick(Random random, List<String> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    @Override
+    public void close() {
+        configuration.getComponent(DeadlineManager.class).shutdown();
+        configuration.shutdown();
+    }
+
+    private record PlannedBorrowing(String id, Scenario scenario, String bookId, String employeeId) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.nvminh162.loadharness;
+
+import com.nvminh162.loadharness.report.LoadReport;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Offline borrowing load test. Usage (from {@code load-harness/}):
+ * <pre>
+ * mvn -B compile exec:java -Dexec.args="--borrows=50000 --contention=0.3 --rollback=0.1 --in-flight=256"
+ * </pre>
+ * Exits with status 1 when a saga invariant was broken or sagas did not finish within {@code --timeout}.
+ */
+@Slf4j
+public class LoadHarnessApplication {
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadProfile profile = LoadProfile.fromArgs(args);
+        LoadReport report;
+        try (BorrowingLoadHarness harness = new BorrowingLoadHarness(profile)) {
+            report = harness.run();
+        }
+        log.info(">>> Borrowing load report\n{}", report.render());
+        System.exit(report.violations().isEmpty() ? 0 : 1);
+    }
+}
@@ -0,0 +1,87 @@
+package com.nvminh162.loadharness;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * One load run: how many borrowings, how they split across {@link Scenario}s and how hard they are pushed.
+ * Parsed from {@code --name=value} arguments, e.g. {@code --borrows=50000 --contention=0.3 --in-flight=256}.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LoadProfile {
+
+    // số lượt mượn được đo (không tính warmup)
+    @Builder.Default
+    int borrows = 10_000;
+    @Builder.Default
+    int warmup = 2_000;
+    // tỉ lệ lượt mượn tranh nhóm sách "hot"
+    @Builder.Default
+    double contention = 0.2;
+    // tỉ lệ lượt mượn của nhân viên bị kỷ luật
+    @Builder.Default
+    double rollback = 0.1;
+    @Builder.Default
+    int hotBooks = 10;
+    @Builder.Default
+    int employees = 100;
+    // số saga chạy cùng lúc tối đa (vòng kín: mỗi saga kết thúc mới gửi lượt tiếp theo)
+    @Builder.Default
+    int inFlight = 64;
+    // số segment của tracking processor chạy BorrowingSaga
+    @Builder.Default
+    int sagaThreads = 1;
+    @Builder.Default
+    Duration timeout = Duration.ofMinutes(5);
+    @Builder.Default
+    long seed = 162L;
+
+    public static LoadProfile fromArgs(String... args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadProfileBuilder builder = LoadProfile.builder();
+        options.forEach((name, value) -> {
+            switch (name) {
+                case "borrows" -> builder.borrows(Integer.parseInt(value));
+                case "warmup" -> builder.warmup(Integer.parseInt(value));
+                case "contention" -> builder.contention(Double.parseDouble(value));
+                case "rollback" -> builder.rollback(Double.parseDouble(value));
+                case "hot-books" -> builder.hotBooks(Integer.parseInt(value));
+                case "employees" -> builder.employees(Integer.parseInt(value));
+                case "in-flight" -> builder.inFlight(Integer.parseInt(value));
+                case "saga-threads" -> builder.sagaThreads(Integer.parseInt(value));
+                case "timeout" -> builder.timeout(Duration.parse(value));
+                case "seed" -> builder.seed(Long.parseLong(value));
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        });
+        LoadProfile profile = builder.build();
+        if (profile.contention + profile.rollback > 1.0) {
+            throw new IllegalArgumentException("contention + rollback must not exceed 1");
+        }
+        return profile;
+    }
+
+    @Override
+    public String toString() {
+        return "borrows=%d warmup=%d contention=%.2f rollback=%.2f hot-books=%d employees=%d in-flight=%d saga-threads=%d"
+                .formatted(borrows, warmup, contention, rollback, hotBooks, employees, inFlight, sagaThreads);
+    }
+}
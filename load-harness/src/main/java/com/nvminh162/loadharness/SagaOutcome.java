@@ -0,0 +1,9 @@
+package com.nvminh162.loadharness;
+
+/**
+ * How a {@code BorrowingSaga} ended: {@code BorrowingConfirmedEvent} or {@code BorrowingDeletedEvent}.
+ */
+public enum SagaOutcome {
+    CONFIRMED,
+    ROLLED_BACK
+}
@@ -0,0 +1,60 @@
+package com.nvminh162.loadharness;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.eventhandling.EventHandler;
+
+import com.nvminh162.borrowingservice.command.event.BorrowingConfirmedEvent;
+import com.nvminh162.borrowingservice.command.event.BorrowingDeletedEvent;
+import com.nvminh162.loadharness.report.RunStats;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Watches for the two events that end a {@code BorrowingSaga} and records, per borrowing,
+ * the outcome and the time since its create command was sent.
+ */
+@ProcessingGroup(SagaOutcomeTracker.PROCESSING_GROUP)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SagaOutcomeTracker {
+
+    public static final String PROCESSING_GROUP = "load-harness-outcomes";
+
+    Map<String, Pending> pending = new ConcurrentHashMap<>();
+
+    public void begin(String borrowingId, Scenario scenario, RunStats stats, Runnable onEnd) {
+        pending.put(borrowingId, new Pending(scenario, System.nanoTime(), stats, onEnd));
+    }
+
+    // command tạo lượt mượn bị từ chối: saga không bao giờ bắt đầu, chỉ giải phóng chỗ
+    public void abandon(String borrowingId) {
+        Pending entry = pending.remove(borrowingId);
+        if (entry != null) {
+            entry.onEnd().run();
+        }
+    }
+
+    @EventHandler
+    public void on(BorrowingConfirmedEvent event) {
+        end(event.getId(), SagaOutcome.CONFIRMED);
+    }
+
+    @EventHandler
+    public void on(BorrowingDeletedEvent event) {
+        end(event.getId(), SagaOutcome.ROLLED_BACK);
+    }
+
+    private void end(String borrowingId, SagaOutcome outcome) {
+        Pending entry = pending.remove(borrowingId);
+        if (entry != null) {
+            entry.stats().record(entry.scenario(), outcome, System.nanoTime() - entry.startNanos());
+            entry.onEnd().run();
+        }
+    }
+
+    private record Pending(Scenario scenario, long startNanos, RunStats stats, Runnable onEnd) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.nvminh162.loadharness;
+
+/**
+ * Kind of borrowing the driver submits, and the saga path it is expected to take.
+ */
+public enum Scenario {
+    // sách riêng, nhân viên hợp lệ: saga phải xác nhận
+    BORROW,
+    // nhiều lượt mượn tranh một nhóm nhỏ sách: mỗi sách chỉ một lượt thắng, còn lại rollback
+    CONTENTION,
+    // nhân viên bị kỷ luật: saga phải xoá bản ghi mượn
+    ROLLBACK
+}
@@ -0,0 +1,115 @@
+package com.nvminh162.loadharness.lookup;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.axonframework.messaging.responsetypes.ResponseTypes;
+import org.axonframework.queryhandling.DefaultQueryGateway;
+import org.axonframework.queryhandling.QueryGateway;
+import org.axonframework.queryhandling.QueryHandler;
+import org.axonframework.queryhandling.SimpleQueryBus;
+import org.axonframework.queryhandling.annotation.AnnotationQueryHandlerAdapter;
+
+import com.nvminh162.commonservice.model.BookResponseCommonModel;
+import com.nvminh162.commonservice.model.BooksByIdsResponseCommonModel;
+import com.nvminh162.commonservice.queries.GetBookDetailQuery;
+import com.nvminh162.commonservice.queries.GetBooksByIdsQuery;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * book-service's multi-book read: {@code batch-size} {@link GetBookDetailQuery} messages one after another,
+ * or one {@link GetBooksByIdsQuery}, both sent through an in-process Axon {@link QueryGateway} to handlers
+ * that read the same H2 {@code books} table. Neither handler goes through the detail cache, so the
+ * comparison is message and round-trip count only.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BookBatchLookups implements AutoCloseable {
+
+    static final String SELECT_ALL = "select id, name, author, is_ready from books where id = any(?)";
+
+    H2RowStore<BookResponseCommonModel> store;
+    QueryGateway queryGateway;
+
+    public BookBatchLookups(int rows) throws SQLException {
+        this.store = new H2RowStore<>("book-lookups",
+                "create table books (id varchar(64) primary key, name varchar(255), author varchar(255), is_ready boolean)",
+                "insert into books values (?, ?, ?, ?)",
+                "select id, name, author, is_ready from books where id = ?",
+                rows,
+                row -> new Object[] { id(row), "Book " + row, "Author " + row % 100, row % 3 != 0 },
+                resultSet -> new BookResponseCommonModel(resultSet.getString(1), resultSet.getString(2),
+                        resultSet.getString(3), resultSet.getBoolean(4)));
+        SimpleQueryBus queryBus = SimpleQueryBus.builder().build();
+        new AnnotationQueryHandlerAdapter<>(this).subscribe(queryBus);
+        this.queryGateway = DefaultQueryGateway.builder().queryBus(queryBus).build();
+    }
+
+    public String name() {
+        return "book-detail";
+    }
+
+    public String id(int row) {
+        return "book-" + row;
+    }
+
+    // N message, N lần đọc DB
+    public LookupBenchmark.BatchLookup singles() {
+        return ids -> {
+            List<BookResponseCommonModel> books = new ArrayList<>(ids.size());
+            for (String id : ids) {
+                books.add(queryGateway.query(new GetBookDetailQuery(id), ResponseTypes.instanceOf(BookResponseCommonModel.class)).join());
+            }
+            return books;
+        };
+    }
+
+    // một message, một câu IN
+    public LookupBenchmark.BatchLookup batch() {
+        return ids -> queryGateway.query(new GetBooksByIdsQuery(ids),
+                ResponseTypes.instanceOf(BooksByIdsResponseCommonModel.class)).join().getBooks();
+    }
+
+    @QueryHandler
+    public BookResponseCommonModel handle(GetBookDetailQuery query) throws Exception {
+        BookResponseCommonModel book = store.find(query.getId());
+        if (book == null) {
+            throw new Exception("Book ID not found " + query.getId());
+        }
+        return book;
+    }
+
+    // như BookProjection; benchmark không vượt quá MAX_BOOK_IDS id nên chỉ cần một câu IN
+    @QueryHandler
+    public BooksByIdsResponseCommonModel handle(GetBooksByIdsQuery query) throws SQLException {
+        List<String> ids = List.copyOf(new LinkedHashSet<>(query.getIds()));
+        Map<String, BookResponseCommonModel> found = store.findAll(SELECT_ALL, ids).stream()
+                .collect(Collectors.toMap(BookResponseCommonModel::getId, Function.identity()));
+        List<BookResponseCommonModel> books = new ArrayList<>(found.size());
+        List<String> missingIds = new ArrayList<>();
+        for (String id : ids) {
+            BookResponseCommonModel book = found.get(id);
+            if (book != null) {
+                books.add(book);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new BooksByIdsResponseCommonModel(books, missingIds);
+    }
+
+    public long loads() {
+        return store.loads();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        store.close();
+    }
+}
@@ -0,0 +1,22 @@
+package com.nvminh162.loadharness.lookup;
+
+import java.sql.SQLException;
+
+/**
+ * One service read path under benchmark: a cache in front of a store lookup, built with the cache
+ * enabled or disabled.
+ */
+public interface CachedLookups extends AutoCloseable {
+
+    String name();
+
+    String id(int row);
+
+    LookupBenchmark.Lookup through(boolean cacheEnabled, long cacheSize);
+
+    // tổng số lượt đọc đã xuống tới store
+    long loads();
+
+    @Override
+    void close() throws SQLException;
+}
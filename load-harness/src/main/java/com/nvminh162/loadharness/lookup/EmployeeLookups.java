@@ -0,0 +1,60 @@
+package com.nvminh162.loadharness.lookup;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+import com.nvminh162.commonservice.model.EmployeeResponseCommonModel;
+import com.nvminh162.employeeservice.query.cache.EmployeeDetailCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * employee-service's {@code GetDetailEmployeeQuery} path: the real {@link EmployeeDetailCache} in front of
+ * a primary-key read of the {@code employee} table, with the cache enabled or disabled
+ * ({@code employee.cache.enabled}).
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class EmployeeLookups implements CachedLookups {
+
+    H2RowStore<EmployeeResponseCommonModel> store;
+
+    public EmployeeLookups(int rows) throws SQLException {
+        this.store = new H2RowStore<>("employee-lookups",
+                "create table employee (id varchar(64) primary key, first_name varchar(255), last_name varchar(255),"
+                        + " kin varchar(255), is_disciplined boolean)",
+                "insert into employee values (?, ?, ?, ?, ?)",
+                "select id, first_name, last_name, kin, is_disciplined from employee where id = ?",
+                rows,
+                row -> new Object[] { "employee-" + row, "Load", "Employee " + row, "Kinh", row % 10 == 0 },
+                resultSet -> new EmployeeResponseCommonModel(resultSet.getString(1), resultSet.getString(2),
+                        resultSet.getString(3), resultSet.getString(4), resultSet.getBoolean(5)));
+    }
+
+    @Override
+    public String name() {
+        return "employee-detail";
+    }
+
+    @Override
+    public String id(int row) {
+        return "employee-" + row;
+    }
+
+    @Override
+    public LookupBenchmark.Lookup through(boolean cacheEnabled, long cacheSize) {
+        EmployeeDetailCache cache = new EmployeeDetailCache(cacheEnabled, cacheSize, Duration.ofMinutes(10), new SimpleMeterRegistry());
+        return id -> cache.get(id, () -> store.find(id));
+    }
+
+    @Override
+    public long loads() {
+        return store.loads();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        store.close();
+    }
+}
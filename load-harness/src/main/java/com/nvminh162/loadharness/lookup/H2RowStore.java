@@ -0,0 +1,130 @@
+package com.nvminh162.loadharness.lookup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Stands in for a service's JPA table: an in-memory H2 table read by a unique key over JDBC,
+ * one connection per benchmark thread, so a cache miss pays for a real (if local) SQL lookup.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class H2RowStore<T> implements AutoCloseable {
+
+    static final int INSERT_BATCH = 1_000;
+
+    String url;
+    String select;
+    RowMapper<T> mapper;
+    // giữ DB mem sống đến khi close
+    Connection keeper;
+    Queue<Connection> connections = new ConcurrentLinkedQueue<>();
+    ThreadLocal<PreparedStatement> statements;
+    AtomicLong loads = new AtomicLong();
+
+    /**
+     * @param createTable DDL of the table
+     * @param insert      parameterized insert of one row
+     * @param select      parameterized select of one row by its (unique) lookup key
+     * @param rowValues   insert parameters of row {@code i}
+     */
+    public H2RowStore(String name, String createTable, String insert, String select, int rows,
+                      IntFunction<Object[]> rowValues, RowMapper<T> mapper) throws SQLException {
+        this.url = "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1";
+        this.select = select;
+        this.mapper = mapper;
+        this.keeper = DriverManager.getConnection(url);
+        try (Statement statement = keeper.createStatement()) {
+            statement.execute(createTable);
+        }
+        keeper.setAutoCommit(false);
+        try (PreparedStatement statement = keeper.prepareStatement(insert)) {
+            for (int i = 0; i < rows; i++) {
+                Object[] values = rowValues.apply(i);
+                for (int column = 0; column < values.length; column++) {
+                    statement.setObject(column + 1, values[column]);
+                }
+                statement.addBatch();
+                if ((i + 1) % INSERT_BATCH == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+        keeper.commit();
+        keeper.setAutoCommit(true);
+        this.statements = ThreadLocal.withInitial(this::prepare);
+    }
+
+    public T find(String id) throws SQLException {
+        loads.incrementAndGet();
+        PreparedStatement statement = statements.get();
+        statement.setString(1, id);
+        try (ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? mapper.map(resultSet) : null;
+        }
+    }
+
+    /**
+     * Reads many rows in one statement, like a JPA {@code findAllById}; counts as one store read.
+     *
+     * @param selectAll parameterized select taking every key as one array parameter, e.g. {@code ... where id = any(?)}
+     */
+    public List<T> findAll(String selectAll, Collection<String> ids) throws SQLException {
+        loads.incrementAndGet();
+        Connection connection = statements.get().getConnection();
+        try (PreparedStatement statement = connection.prepareStatement(selectAll)) {
+            statement.setObject(1, ids.toArray(String[]::new));
+            List<T> rows = new ArrayList<>(ids.size());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    rows.add(mapper.map(resultSet));
+                }
+            }
+            return rows;
+        }
+    }
+
+    public long loads() {
+        return loads.get();
+    }
+
+    private PreparedStatement prepare() {
+        try {
+            Connection connection = DriverManager.getConnection(url);
+            connections.add(connection);
+            return connection.prepareStatement(select);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        for (Connection connection : connections) {
+            connection.close();
+        }
+        try (Statement statement = keeper.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+        keeper.close();
+    }
+
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(ResultSet resultSet) throws SQLException;
+    }
+}
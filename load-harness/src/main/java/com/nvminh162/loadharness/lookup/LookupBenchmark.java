@@ -0,0 +1,124 @@
+package com.nvminh162.loadharness.lookup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+import com.nvminh162.loadharness.report.LatencyRecorder;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Drives one read path with a skewed key mix from {@code threads} threads and times every lookup.
+ * Each run gets a warmup (discarded, lets the JIT settle and fills the cache) before the measured lookups.
+ */
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LookupBenchmark {
+
+    LookupProfile profile;
+    IntFunction<String> ids;
+
+    /**
+     * @param loads total number of reads that reached the store so far, to tell hits from misses
+     */
+    public LookupReport run(String name, Lookup lookup, LongSupplier loads) throws InterruptedException {
+        return measure(name, random -> ids.apply(nextRow(random)), id -> {
+            if (lookup.get(id) == null) {
+                throw new IllegalStateException("No row for " + id);
+            }
+        }, loads);
+    }
+
+    /**
+     * Same run, but every request reads {@code batch-size} distinct rows at once.
+     */
+    public LookupReport runBatch(String name, BatchLookup lookup, LongSupplier loads) throws InterruptedException {
+        return measure(name, this::nextBatch, batch -> {
+            List<?> rows = lookup.get(batch);
+            if (rows.size() != batch.size()) {
+                throw new IllegalStateException("Expected " + batch.size() + " rows but got " + rows.size());
+            }
+        }, loads);
+    }
+
+    private <K> LookupReport measure(String name, Function<SplittableRandom, K> pick, Read<K> read, LongSupplier loads)
+            throws InterruptedException {
+        drive(pick, read, profile.getWarmup(), null);
+        long loadsBefore = loads.getAsLong();
+        LatencyRecorder latencies = new LatencyRecorder(profile.getLookups());
+        long start = System.nanoTime();
+        drive(pick, read, profile.getLookups(), latencies);
+        long elapsed = System.nanoTime() - start;
+        return new LookupReport(name, profile, elapsed, latencies, loads.getAsLong() - loadsBefore);
+    }
+
+    private <K> void drive(Function<SplittableRandom, K> pick, Read<K> read, int lookups, LatencyRecorder latencies)
+            throws InterruptedException {
+        int threads = profile.getThreads();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                // chia đều, luồng đầu nhận phần dư
+                int share = lookups / threads + (thread == 0 ? lookups % threads : 0);
+                SplittableRandom random = new SplittableRandom(profile.getSeed() + thread);
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < share; i++) {
+                        K key = pick.apply(random);
+                        long start = System.nanoTime();
+                        read.run(key);
+                        if (latencies != null) {
+                            latencies.record(System.nanoTime() - start);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Lookup failed", e.getCause());
+        }
+    }
+
+    private List<String> nextBatch(SplittableRandom random) {
+        Set<String> batch = new LinkedHashSet<>();
+        while (batch.size() < profile.getBatchSize()) {
+            batch.add(ids.apply(nextRow(random)));
+        }
+        return List.copyOf(batch);
+    }
+
+    private int nextRow(SplittableRandom random) {
+        return random.nextDouble() < profile.getHotShare()
+                ? random.nextInt(profile.getHotRows())
+                : random.nextInt(profile.getRows());
+    }
+
+    @FunctionalInterface
+    public interface Lookup {
+        Object get(String id) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface BatchLookup {
+        List<?> get(List<String> ids) throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface Read<K> {
+        void run(K key) throws Exception;
+    }
+}
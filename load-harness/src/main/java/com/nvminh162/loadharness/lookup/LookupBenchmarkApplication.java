@@ -0,0 +1,53 @@
+package com.nvminh162.loadharness.lookup;
+
+import java.sql.SQLException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Offline read-path benchmark: the same lookups with the service's cache enabled and disabled, or for
+ * {@code --target=book} the same multi-book requests as single queries and as one batch query.
+ * Usage (from {@code load-harness/}):
+ * <pre>
+ * mvn -B compile exec:java -Dexec.mainClass=com.nvminh162.loadharness.lookup.LookupBenchmarkApplication \
+ *     -Dexec.args="--target=user --rows=1000000 --lookups=1000000 --threads=8"
+ * </pre>
+ */
+@Slf4j
+public class LookupBenchmarkApplication {
+
+    public static void main(String[] args) throws Exception {
+        LookupProfile profile = LookupProfile.fromArgs(args);
+        if (profile.getTarget() == LookupProfile.Target.BOOK) {
+            log.info(">>> Batch lookup benchmark report\n{}", compareBatch(profile));
+            return;
+        }
+        try (CachedLookups lookups = open(profile)) {
+            LookupBenchmark benchmark = new LookupBenchmark(profile, lookups::id);
+            LookupReport cached = benchmark.run(lookups.name() + ", cache on",
+                    lookups.through(true, profile.getCacheSize()), lookups::loads);
+            LookupReport uncached = benchmark.run(lookups.name() + ", cache off",
+                    lookups.through(false, profile.getCacheSize()), lookups::loads);
+            log.info(">>> Lookup benchmark report\n{}\n\n{}", cached.render(), uncached.render());
+        }
+    }
+
+    static CachedLookups open(LookupProfile profile) throws SQLException {
+        return switch (profile.getTarget()) {
+            case EMPLOYEE -> new EmployeeLookups(profile.getRows());
+            case USER -> new UserLookups(profile.getRows());
+            case BOOK -> throw new IllegalArgumentException("book is compared as single vs batch queries, not cache on/off");
+        };
+    }
+
+    static String compareBatch(LookupProfile profile) throws Exception {
+        try (BookBatchLookups lookups = new BookBatchLookups(profile.getRows())) {
+            LookupBenchmark benchmark = new LookupBenchmark(profile, lookups::id);
+            LookupReport singles = benchmark.runBatch(lookups.name() + ", %d x GetBookDetailQuery".formatted(profile.getBatchSize()),
+                    lookups.singles(), lookups::loads);
+            LookupReport batch = benchmark.runBatch(lookups.name() + ", 1 x GetBooksByIdsQuery",
+                    lookups.batch(), lookups::loads);
+            return singles.render() + "\n\n" + batch.render();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.nvminh162.loadharness.lookup;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * One lookup benchmark run: table size, how many reads, how skewed they are and the cache size under test.
+ * Parsed from {@code --name=value} arguments, e.g. {@code --target=user --rows=1000000 --lookups=2000000 --threads=8}.
+ * With {@code --target=book} every read is a request for {@code --batch-size} books.
+ */
+@Getter
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LookupProfile {
+
+    public enum Target { EMPLOYEE, USER, BOOK }
+
+    @Builder.Default
+    Target target = Target.EMPLOYEE;
+
+    // số dòng trong bảng đứng thay projection
+    @Builder.Default
+    int rows = 100_000;
+    // số lượt đọc được đo (không tính warmup)
+    @Builder.Default
+    int lookups = 1_000_000;
+    @Builder.Default
+    int warmup = 100_000;
+    @Builder.Default
+    int threads = 4;
+    // tỉ lệ lượt đọc rơi vào nhóm dòng "hot" (nhân viên/người dùng hoạt động thường xuyên)
+    @Builder.Default
+    double hotShare = 0.8;
+    @Builder.Default
+    int hotRows = 1_000;
+    // bằng maximum-size mặc định của cache trong service
+    @Builder.Default
+    long cacheSize = 10_000;
+    // số sách trong một request của target book (GetBooksByIdsQuery so với từng GetBookDetailQuery)
+    @Builder.Default
+    int batchSize = 1;
+    @Builder.Default
+    long seed = 162L;
+
+    public static LookupProfile fromArgs(String... args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LookupProfileBuilder builder = LookupProfile.builder();
+        options.forEach((name, value) -> {
+            switch (name) {
+                case "target" -> builder.target(Target.valueOf(value.toUpperCase(Locale.ROOT)));
+                case "rows" -> builder.rows(Integer.parseInt(value));
+                case "lookups" -> builder.lookups(Integer.parseInt(value));
+                case "warmup" -> builder.warmup(Integer.parseInt(value));
+                case "threads" -> builder.threads(Integer.parseInt(value));
+                case "hot-share" -> builder.hotShare(Double.parseDouble(value));
+                case "hot-rows" -> builder.hotRows(Integer.parseInt(value));
+                case "cache-size" -> builder.cacheSize(Long.parseLong(value));
+                case "batch-size" -> builder.batchSize(Integer.parseInt(value));
+                case "seed" -> builder.seed(Long.parseLong(value));
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        });
+        LookupProfile profile = builder.build();
+        if (profile.hotRows > profile.rows) {
+            throw new IllegalArgumentException("hot-rows must not exceed rows");
+        }
+        if (profile.batchSize < 1 || profile.batchSize > profile.rows) {
+            throw new IllegalArgumentException("batch-size must be between 1 and rows");
+        }
+        return profile;
+    }
+
+    @Override
+    public String toString() {
+        return "target=%s rows=%d lookups=%d warmup=%d threads=%d hot-share=%.2f hot-rows=%d cache-size=%d batch-size=%d"
+                .formatted(target.name().toLowerCase(Locale.ROOT), rows, lookups, warmup, threads, hotShare, hotRows, cacheSize,
+                        batchSize);
+    }
+}
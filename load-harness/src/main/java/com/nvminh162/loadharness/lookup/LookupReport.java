@@ -0,0 +1,65 @@
+package com.nvminh162.loadharness.lookup;
+
+import java.util.concurrent.TimeUnit;
+
+import com.nvminh162.loadharness.report.LatencyRecorder;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Result of one measured lookup run: throughput, latency percentiles and how many reads reached the store.
+ */
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LookupReport {
+
+    String name;
+    LookupProfile profile;
+    long elapsedNanos;
+    long loads;
+    long p50Nanos;
+    long p99Nanos;
+    long p999Nanos;
+    long maxNanos;
+
+    public LookupReport(String name, LookupProfile profile, long elapsedNanos, LatencyRecorder latencies, long loads) {
+        this.name = name;
+        this.profile = profile;
+        this.elapsedNanos = elapsedNanos;
+        this.loads = loads;
+        long[] sorted = latencies.sorted();
+        this.p50Nanos = LatencyRecorder.percentile(sorted, 50);
+        this.p99Nanos = LatencyRecorder.percentile(sorted, 99);
+        this.p999Nanos = LatencyRecorder.percentile(sorted, 99.9);
+        this.maxNanos = sorted.length == 0 ? 0 : sorted[sorted.length - 1];
+    }
+
+    public double throughputPerSecond() {
+        return elapsedNanos == 0 ? 0 : profile.getLookups() * 1e9 / elapsedNanos;
+    }
+
+    public double hitRate() {
+        return profile.getLookups() == 0 ? 0 : 1.0 - (double) loads / profile.getLookups();
+    }
+
+    public String render() {
+        StringBuilder report = new StringBuilder();
+        report.append("run          : ").append(name).append('\n');
+        report.append("profile      : ").append(profile).append('\n');
+        report.append(profile.getBatchSize() == 1
+                ? "throughput   : %.0f lookups/s%n".formatted(throughputPerSecond())
+                : "throughput   : %.0f requests/s (%d books each)%n".formatted(throughputPerSecond(), profile.getBatchSize()));
+        report.append("latency      : p50=%.1f us p99=%.1f us p999=%.1f us max=%.1f us%n".formatted(
+                micros(p50Nanos), micros(p99Nanos), micros(p999Nanos), micros(maxNanos)));
+        report.append(profile.getBatchSize() == 1
+                ? "store reads  : %d (hit rate %.2f%%)".formatted(loads, hitRate() * 100)
+                : "store reads  : %d (%.1f per request)".formatted(loads, (double) loads / profile.getLookups()));
+        return report.toString();
+    }
+
+    private static double micros(long nanos) {
+        return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+}
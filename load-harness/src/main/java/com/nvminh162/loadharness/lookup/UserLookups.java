@@ -0,0 +1,76 @@
+package com.nvminh162.loadharness.lookup;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import com.nvminh162.userservice.cache.UserResponseCache;
+import com.nvminh162.userservice.dto.response.UserResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * user-service's {@code getUserById} path: the real {@link UserResponseCache} in front of a read of the
+ * {@code users} table by its unique {@code user_id} (the Keycloak id), with the cache enabled or disabled
+ * ({@code user.cache.enabled}).
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class UserLookups implements CachedLookups {
+
+    static final LocalDate DOB = LocalDate.of(2000, 1, 1);
+
+    H2RowStore<UserResponse> store;
+
+    public UserLookups(int rows) throws SQLException {
+        this.store = new H2RowStore<>("user-lookups",
+                "create table users (id bigint primary key, user_id varchar(64) not null unique, username varchar(255),"
+                        + " email varchar(255), first_name varchar(255), last_name varchar(255), dob date)",
+                "insert into users values (?, ?, ?, ?, ?, ?, ?)",
+                "select id, user_id, username, email, first_name, last_name, dob from users where user_id = ?",
+                rows,
+                row -> new Object[] { row + 1L, "kc-" + row, "user" + row, "user" + row + "@example.com", "Load", "User " + row, DOB },
+                resultSet -> UserResponse.builder()
+                        .id(resultSet.getLong(1))
+                        .userId(resultSet.getString(2))
+                        .username(resultSet.getString(3))
+                        .email(resultSet.getString(4))
+                        .firstName(resultSet.getString(5))
+                        .lastName(resultSet.getString(6))
+                        .dob(resultSet.getObject(7, LocalDate.class))
+                        .build());
+    }
+
+    @Override
+    public String name() {
+        return "user-response";
+    }
+
+    @Override
+    public String id(int row) {
+        return "kc-" + row;
+    }
+
+    @Override
+    public LookupBenchmark.Lookup through(boolean cacheEnabled, long cacheSize) {
+        UserResponseCache cache = new UserResponseCache(cacheEnabled, cacheSize, Duration.ofMinutes(10), new SimpleMeterRegistry());
+        return id -> cache.get(id, () -> {
+            try {
+                return store.find(id);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @Override
+    public long loads() {
+        return store.loads();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        store.close();
+    }
+}
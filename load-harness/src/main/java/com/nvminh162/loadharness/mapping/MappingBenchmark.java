@@ -0,0 +1,93 @@
+package com.nvminh162.loadharness.mapping;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.beans.BeanUtils;
+
+import com.nvminh162.bookservice.command.command.CreateBookCommand;
+import com.nvminh162.bookservice.command.data.Book;
+import com.nvminh162.bookservice.command.event.BookCreatedEvent;
+import com.nvminh162.bookservice.mapper.BookMapper;
+import com.nvminh162.commonservice.model.BookResponseCommonModel;
+import com.nvminh162.commonservice.model.EmployeeResponseCommonModel;
+import com.nvminh162.employeeservice.command.command.CreateEmployeeCommand;
+import com.nvminh162.employeeservice.command.data.Employee;
+import com.nvminh162.employeeservice.command.event.EmployeeCreatedEvent;
+import com.nvminh162.employeeservice.mapper.EmployeeMapper;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Times the command → event and entity → response mappings of book- and employee-service two ways:
+ * the generated MapStruct mappers the services use and the reflective {@link BeanUtils#copyProperties}
+ * they replaced. Single-threaded; each mapping gets a warmup (discarded) before the measured iterations.
+ * Allocation is read from the thread's allocated-bytes counter, so it includes the target object itself.
+ */
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class MappingBenchmark {
+
+    static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // giữ kết quả để JIT không bỏ qua phép map
+    static volatile Object sink;
+
+    int warmup;
+    int iterations;
+
+    public List<Result> run() {
+        CreateBookCommand createBook = new CreateBookCommand("book-1", "Clean Code", "Robert C. Martin", true);
+        Book book = new Book("book-1", "Clean Code", "Robert C. Martin", true);
+        CreateEmployeeCommand createEmployee = new CreateEmployeeCommand("employee-1", "Load", "Employee", "Kinh", false);
+        Employee employee = new Employee("employee-1", "Load", "Employee", "Kinh", false);
+
+        return List.of(
+                measure("CreateBookCommand -> BookCreatedEvent", "BeanUtils",
+                        () -> copy(createBook, new BookCreatedEvent())),
+                measure("CreateBookCommand -> BookCreatedEvent", "BookMapper",
+                        () -> BookMapper.INSTANCE.toCreatedEvent(createBook)),
+                measure("Book -> BookResponseCommonModel", "BeanUtils",
+                        () -> copy(book, new BookResponseCommonModel())),
+                measure("Book -> BookResponseCommonModel", "BookMapper",
+                        () -> BookMapper.INSTANCE.toResponse(book)),
+                measure("CreateEmployeeCommand -> EmployeeCreatedEvent", "BeanUtils",
+                        () -> copy(createEmployee, new EmployeeCreatedEvent())),
+                measure("CreateEmployeeCommand -> EmployeeCreatedEvent", "EmployeeMapper",
+                        () -> EmployeeMapper.INSTANCE.toCreatedEvent(createEmployee)),
+                measure("Employee -> EmployeeResponseCommonModel", "BeanUtils",
+                        () -> copy(employee, new EmployeeResponseCommonModel())),
+                measure("Employee -> EmployeeResponseCommonModel", "EmployeeMapper",
+                        () -> EmployeeMapper.INSTANCE.toResponse(employee)));
+    }
+
+    private Result measure(String mapping, String path, Supplier<Object> map) {
+        for (int i = 0; i < warmup; i++) {
+            sink = map.get();
+        }
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = map.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Result(mapping, path, (double) elapsed / iterations, (double) allocated / iterations);
+    }
+
+    private static <T> T copy(Object source, T target) {
+        BeanUtils.copyProperties(source, target);
+        return target;
+    }
+
+    public record Result(String mapping, String path, double nanosPerOp, double bytesPerOp) {
+
+        public String render() {
+            return "%-48s %-15s %8.1f ns/op %8.0f B/op".formatted(mapping, path, nanosPerOp, bytesPerOp);
+        }
+    }
+}
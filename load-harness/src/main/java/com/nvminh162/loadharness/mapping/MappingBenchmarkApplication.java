@@ -0,0 +1,35 @@
+package com.nvminh162.loadharness.mapping;
+
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Offline mapping benchmark: generated mappers against {@code BeanUtils.copyProperties}.
+ * Usage (from {@code load-harness/}):
+ * <pre>
+ * mvn -B compile exec:java -Dexec.mainClass=com.nvminh162.loadharness.mapping.MappingBenchmarkApplication \
+ *     -Dexec.args="--iterations=5000000 --warmup=1000000"
+ * </pre>
+ */
+@Slf4j
+public class MappingBenchmarkApplication {
+
+    public static void main(String[] args) {
+        int iterations = 5_000_000;
+        int warmup = 1_000_000;
+        for (String arg : args) {
+            if (arg.startsWith("--iterations=")) {
+                iterations = Integer.parseInt(arg.substring("--iterations=".length()));
+            } else if (arg.startsWith("--warmup=")) {
+                warmup = Integer.parseInt(arg.substring("--warmup=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        String report = new MappingBenchmark(warmup, iterations).run().stream()
+                .map(MappingBenchmark.Result::render)
+                .collect(Collectors.joining("\n"));
+        log.info(">>> Mapping benchmark report ({} iterations)\n{}", iterations, report);
+    }
+}
@@ -0,0 +1,44 @@
+package com.nvminh162.loadharness.report;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Lock-free recorder of every latency sample of one run; the run size is known up front,
+ * so samples go into a pre-sized array and percentiles are exact rather than bucketed.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LatencyRecorder {
+
+    long[] samples;
+    AtomicInteger size = new AtomicInteger();
+
+    public LatencyRecorder(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    public void record(long nanos) {
+        int index = size.getAndIncrement();
+        if (index < samples.length) {
+            samples[index] = nanos;
+        }
+    }
+
+    // gọi sau khi run kết thúc; trả về bản sao đã sắp xếp
+    public long[] sorted() {
+        long[] copy = Arrays.copyOf(samples, Math.min(size.get(), samples.length));
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    public static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.clamp(rank - 1, 0, sorted.length - 1)];
+    }
+}
@@ -0,0 +1,102 @@
+package com.nvminh162.loadharness.report;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.nvminh162.loadharness.LoadProfile;
+import com.nvminh162.loadharness.SagaOutcome;
+import com.nvminh162.loadharness.Scenario;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Result of one measured run: throughput, latency percentiles, saga completion rate, and the
+ * saga invariants the run must not break (see {@link #violations()}).
+ */
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LoadReport {
+
+    LoadProfile profile;
+    int submitted;
+    long elapsedNanos;
+    RunStats stats;
+    long p50Nanos;
+    long p99Nanos;
+    long p999Nanos;
+    long maxNanos;
+
+    public LoadReport(LoadProfile profile, int submitted, long elapsedNanos, RunStats stats) {
+        this.profile = profile;
+        this.submitted = submitted;
+        this.elapsedNanos = elapsedNanos;
+        this.stats = stats;
+        long[] sorted = stats.getLatencies().sorted();
+        this.p50Nanos = LatencyRecorder.percentile(sorted, 50);
+        this.p99Nanos = LatencyRecorder.percentile(sorted, 99);
+        this.p999Nanos = LatencyRecorder.percentile(sorted, 99.9);
+        this.maxNanos = sorted.length == 0 ? 0 : sorted[sorted.length - 1];
+    }
+
+    public double throughputPerSecond() {
+        return elapsedNanos == 0 ? 0 : stats.completed() * 1e9 / elapsedNanos;
+    }
+
+    public double completionRate() {
+        return submitted == 0 ? 1.0 : (double) stats.completed() / submitted;
+    }
+
+    public long incomplete() {
+        return submitted - stats.completed();
+    }
+
+    /**
+     * Broken expectations: every saga ends, plain borrows are confirmed, disciplined employees are
+     * rolled back, and no hot book is lent twice.
+     */
+    public List<String> violations() {
+        List<String> violations = new ArrayList<>();
+        if (submitted < profile.getBorrows()) {
+            violations.add("only %d of %d borrowings were submitted".formatted(submitted, profile.getBorrows()));
+        }
+        if (incomplete() > 0) {
+            violations.add("%d saga(s) did not complete".formatted(incomplete()));
+        }
+        if (stats.count(Scenario.BORROW, SagaOutcome.ROLLED_BACK) > 0) {
+            violations.add("%d uncontended borrowing(s) were rolled back".formatted(stats.count(Scenario.BORROW, SagaOutcome.ROLLED_BACK)));
+        }
+        if (stats.count(Scenario.ROLLBACK, SagaOutcome.CONFIRMED) > 0) {
+            violations.add("%d borrowing(s) by disciplined employees were confirmed".formatted(stats.count(Scenario.ROLLBACK, SagaOutcome.CONFIRMED)));
+        }
+        if (stats.count(Scenario.CONTENTION, SagaOutcome.CONFIRMED) > profile.getHotBooks()) {
+            violations.add("%d contended borrowing(s) confirmed for %d hot book(s)".formatted(
+                    stats.count(Scenario.CONTENTION, SagaOutcome.CONFIRMED), profile.getHotBooks()));
+        }
+        return violations;
+    }
+
+    public String render() {
+        StringBuilder report = new StringBuilder();
+        report.append("profile      : ").append(profile).append('\n');
+        report.append("elapsed      : %.2f s%n".formatted(elapsedNanos / 1e9));
+        report.append("throughput   : %.1f sagas/s%n".formatted(throughputPerSecond()));
+        report.append("latency      : p50=%.2f ms p99=%.2f ms p999=%.2f ms max=%.2f ms%n".formatted(
+                millis(p50Nanos), millis(p99Nanos), millis(p999Nanos), millis(maxNanos)));
+        report.append("completion   : %.2f%% (%d/%d, %d incomplete)%n".formatted(
+                completionRate() * 100, stats.completed(), submitted, incomplete()));
+        for (Scenario scenario : Scenario.values()) {
+            report.append("%-13s: confirmed=%d rolled-back=%d%n".formatted(scenario.name().toLowerCase(),
+                    stats.count(scenario, SagaOutcome.CONFIRMED), stats.count(scenario, SagaOutcome.ROLLED_BACK)));
+        }
+        List<String> violations = violations();
+        report.append("violations   : ").append(violations.isEmpty() ? "none" : String.join("; ", violations));
+        return report.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,51 @@
+package com.nvminh162.loadharness.report;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.nvminh162.loadharness.SagaOutcome;
+import com.nvminh162.loadharness.Scenario;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Outcomes and end-to-end latencies (create command sent -> saga ended) of one run.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RunStats {
+
+    @Getter
+    LatencyRecorder latencies;
+    Map<Scenario, AtomicLongArray> outcomes = new EnumMap<>(Scenario.class);
+
+    public RunStats(int borrows) {
+        this.latencies = new LatencyRecorder(borrows);
+        for (Scenario scenario : Scenario.values()) {
+            outcomes.put(scenario, new AtomicLongArray(SagaOutcome.values().length));
+        }
+    }
+
+    public void record(Scenario scenario, SagaOutcome outcome, long latencyNanos) {
+        outcomes.get(scenario).incrementAndGet(outcome.ordinal());
+        latencies.record(latencyNanos);
+    }
+
+    public long count(Scenario scenario, SagaOutcome outcome) {
+        return outcomes.get(scenario).get(outcome.ordinal());
+    }
+
+    public long count(SagaOutcome outcome) {
+        long total = 0;
+        for (Scenario scenario : Scenario.values()) {
+            total += count(scenario, outcome);
+        }
+        return total;
+    }
+
+    public long completed() {
+        return count(SagaOutcome.CONFIRMED) + count(SagaOutcome.ROLLED_BACK);
+    }
+}
@@ -0,0 +1,57 @@
+package com.nvminh162.loadharness.standin;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.queryhandling.QueryHandler;
+
+import com.nvminh162.bookservice.command.event.BookCreatedEvent;
+import com.nvminh162.commonservice.event.BookRollBackStatusEvent;
+import com.nvminh162.commonservice.event.BookUpdatedStatusEvent;
+import com.nvminh162.commonservice.model.BookResponseCommonModel;
+import com.nvminh162.commonservice.queries.GetBookDetailQuery;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Stands in for book-service's JPA projection: same events in, same {@link GetBookDetailQuery} answer out,
+ * but kept in a map and updated in the publishing thread (subscribing processor).
+ */
+@ProcessingGroup(StandIns.PROCESSING_GROUP)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BookQueryStandIn {
+
+    Map<String, BookResponseCommonModel> books = new ConcurrentHashMap<>();
+
+    @EventHandler
+    public void on(BookCreatedEvent event) {
+        books.put(event.getId(), new BookResponseCommonModel(event.getId(), event.getName(), event.getAuthor(), event.getIsReady()));
+    }
+
+    @EventHandler
+    public void on(BookUpdatedStatusEvent event) {
+        books.computeIfPresent(event.getBookId(), (id, book) -> withStatus(book, event.getIsReady()));
+    }
+
+    @EventHandler
+    public void on(BookRollBackStatusEvent event) {
+        books.computeIfPresent(event.getBookId(), (id, book) -> withStatus(book, event.getIsReady()));
+    }
+
+    @QueryHandler
+    public BookResponseCommonModel handle(GetBookDetailQuery query) throws Exception {
+        BookResponseCommonModel book = books.get(query.getId());
+        if (book == null) {
+            throw new Exception("Book ID not found " + query.getId());
+        }
+        return book;
+    }
+
+    // bản ghi trong map không bao giờ bị sửa tại chỗ, để query đang đọc không thấy trạng thái nửa vời
+    private static BookResponseCommonModel withStatus(BookResponseCommonModel book, Boolean isReady) {
+        return new BookResponseCommonModel(book.getId(), book.getName(), book.getAuthor(), isReady);
+    }
+}
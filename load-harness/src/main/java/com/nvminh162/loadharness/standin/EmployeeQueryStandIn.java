@@ -0,0 +1,40 @@
+package com.nvminh162.loadharness.standin;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.queryhandling.QueryHandler;
+
+import com.nvminh162.commonservice.model.EmployeeResponseCommonModel;
+import com.nvminh162.commonservice.queries.GetDetailEmployeeQuery;
+import com.nvminh162.employeeservice.command.event.EmployeeCreatedEvent;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Stands in for employee-service's JPA projection, answering {@link GetDetailEmployeeQuery} from a map.
+ */
+@ProcessingGroup(StandIns.PROCESSING_GROUP)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class EmployeeQueryStandIn {
+
+    Map<String, EmployeeResponseCommonModel> employees = new ConcurrentHashMap<>();
+
+    @EventHandler
+    public void on(EmployeeCreatedEvent event) {
+        employees.put(event.getId(), new EmployeeResponseCommonModel(
+                event.getId(), event.getFirstName(), event.getLastName(), event.getKin(), event.getIsDisciplined()));
+    }
+
+    @QueryHandler
+    public EmployeeResponseCommonModel handle(GetDetailEmployeeQuery query) throws Exception {
+        EmployeeResponseCommonModel employee = employees.get(query.getId());
+        if (employee == null) {
+            throw new Exception("Employee ID not found " + query.getId());
+        }
+        return employee;
+    }
+}
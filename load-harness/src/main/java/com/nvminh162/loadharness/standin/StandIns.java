@@ -0,0 +1,27 @@
+package com.nvminh162.loadharness.standin;
+
+import org.axonframework.config.Configurer;
+
+/**
+ * Registers the in-memory query stand-ins. They run on a subscribing processor, so a book or
+ * employee is queryable as soon as the command that created it returns.
+ */
+public final class StandIns {
+
+    public static final String PROCESSING_GROUP = "load-harness-stand-ins";
+
+    private StandIns() {
+    }
+
+    public static Configurer configure(Configurer configurer) {
+        BookQueryStandIn books = new BookQueryStandIn();
+        EmployeeQueryStandIn employees = new EmployeeQueryStandIn();
+        configurer.registerQueryHandler(config -> books)
+                .registerQueryHandler(config -> employees)
+                .eventProcessing(processing -> processing
+                        .registerSubscribingEventProcessor(PROCESSING_GROUP)
+                        .registerEventHandler(config -> books)
+                        .registerEventHandler(config -> employees));
+        return configurer;
+    }
+}
@@ -0,0 +1,38 @@
+package com.nvminh162.loadharness;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.nvminh162.loadharness.report.LoadReport;
+
+/**
+ * Small run of the full mix, so a change that leaves sagas hanging or lends a book twice fails the build.
+ */
+class BorrowingLoadHarnessTest {
+
+    @Test
+    void everySagaCompletesWithoutBreakingInvariants() throws InterruptedException {
+        LoadProfile profile = LoadProfile.builder()
+                .borrows(600)
+                .warmup(0)
+                .contention(0.3)
+                .rollback(0.2)
+                .hotBooks(5)
+                .employees(20)
+                .inFlight(32)
+                .timeout(Duration.ofMinutes(1))
+                .build();
+
+        LoadReport report;
+        try (BorrowingLoadHarness harness = new BorrowingLoadHarness(profile)) {
+            report = harness.run();
+        }
+
+        assertTrue(report.violations().isEmpty(), report.render());
+        assertEquals(1.0, report.completionRate(), report.render());
+    }
+}
@@ -0,0 +1,69 @@
+package com.nvminh162.loadharness.lookup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Small run of the cache on/off comparison, so a cache that stops serving hits fails the build.
+ */
+@Slf4j
+class LookupBenchmarkTest {
+
+    LookupProfile profile = LookupProfile.builder()
+            .rows(2_000)
+            .lookups(20_000)
+            .warmup(2_000)
+            .threads(2)
+            .hotRows(100)
+            .cacheSize(10_000)
+            .build();
+
+    @Test
+    void employeeCacheServesRepeatedLookups() throws Exception {
+        compare(LookupProfile.Target.EMPLOYEE);
+    }
+
+    @Test
+    void userCacheServesRepeatedLookups() throws Exception {
+        compare(LookupProfile.Target.USER);
+    }
+
+    @Test
+    void batchQueryReadsTheStoreOncePerRequest() throws Exception {
+        LookupProfile profile = this.profile.toBuilder()
+                .target(LookupProfile.Target.BOOK)
+                .lookups(2_000)
+                .warmup(200)
+                .batchSize(20)
+                .build();
+        try (BookBatchLookups lookups = new BookBatchLookups(profile.getRows())) {
+            LookupBenchmark benchmark = new LookupBenchmark(profile, lookups::id);
+            LookupReport singles = benchmark.runBatch(lookups.name() + ", singles", lookups.singles(), lookups::loads);
+            LookupReport batch = benchmark.runBatch(lookups.name() + ", batch", lookups.batch(), lookups::loads);
+            log.info(">>> Batch lookup benchmark report\n{}\n\n{}", singles.render(), batch.render());
+
+            assertEquals((long) profile.getLookups() * profile.getBatchSize(), singles.getLoads(), singles.render());
+            assertEquals(profile.getLookups(), batch.getLoads(), batch.render());
+        }
+    }
+
+    private void compare(LookupProfile.Target target) throws Exception {
+        LookupProfile profile = this.profile.toBuilder().target(target).build();
+        try (CachedLookups lookups = LookupBenchmarkApplication.open(profile)) {
+            LookupBenchmark benchmark = new LookupBenchmark(profile, lookups::id);
+            LookupReport cached = benchmark.run(lookups.name() + ", cache on",
+                    lookups.through(true, profile.getCacheSize()), lookups::loads);
+            LookupReport uncached = benchmark.run(lookups.name() + ", cache off",
+                    lookups.through(false, profile.getCacheSize()), lookups::loads);
+            log.info(">>> Lookup benchmark report\n{}\n\n{}", cached.render(), uncached.render());
+
+            // cache đủ chứa cả bảng: mỗi dòng đọc DB nhiều nhất một lần
+            assertTrue(cached.getLoads() <= profile.getRows(), cached.render());
+            assertEquals(profile.getLookups(), uncached.getLoads(), uncached.render());
+        }
+    }
+}
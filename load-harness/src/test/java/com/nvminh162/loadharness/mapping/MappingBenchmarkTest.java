@@ -0,0 +1,37 @@
+package com.nvminh162.loadharness.mapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Small run of the mapper comparison, so a generated mapper that starts allocating more than the reflective
+ * copy fails the build.
+ */
+@Slf4j
+class MappingBenchmarkTest {
+
+    @Test
+    void generatedMappersAllocateNoMoreThanBeanUtils() {
+        List<MappingBenchmark.Result> results = new MappingBenchmark(20_000, 100_000).run();
+        log.info(">>> Mapping benchmark report\n{}",
+                results.stream().map(MappingBenchmark.Result::render).collect(Collectors.joining("\n")));
+
+        Map<String, List<MappingBenchmark.Result>> byMapping = results.stream()
+                .collect(Collectors.groupingBy(MappingBenchmark.Result::mapping));
+        assertEquals(4, byMapping.size());
+        byMapping.forEach((mapping, paths) -> {
+            // mỗi mapping: [BeanUtils, mapper sinh mã]
+            MappingBenchmark.Result reflective = paths.get(0);
+            MappingBenchmark.Result generated = paths.get(1);
+            assertTrue(generated.bytesPerOp() <= reflective.bytesPerOp(), mapping);
+        });
+    }
+}
@@ -0,0 +1,76 @@
+package com.nvminh162.userservice.cache;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.nvminh162.userservice.dto.response.UserResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Bounded read-through cache of {@link UserResponse} by Keycloak {@code userId}, in front of
+ * {@code UserRepository.findByUserId}. {@code UserService} puts the fresh response on update and
+ * invalidates the entry on delete. As in book-service's {@code BookDetailCache}, both writes bump a
+ * version counter (striped by id), and a loaded row is only cached if no write touched its stripe while
+ * it was being read, so a lookup racing with an update or delete cannot cache the old user.
+ * {@code user.cache.enabled=false} turns it into a pass-through (size 0); hit/miss counters are
+ * published as {@code cache.*} with {@code cache=user-response}.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class UserResponseCache {
+
+    static final int VERSION_STRIPES = 1024;
+
+    Cache<String, UserResponse> cache;
+    AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public UserResponseCache(
+            @Value("${user.cache.enabled:true}") boolean enabled,
+            @Value("${user.cache.maximum-size:10000}") long maximumSize,
+            @Value("${user.cache.expire-after-write:10m}") Duration expireAfterWrite,
+            MeterRegistry meterRegistry) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(enabled ? maximumSize : 0)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "user-response");
+    }
+
+    public UserResponse get(String userId, Supplier<UserResponse> loader) {
+        UserResponse cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long version = versions.get(stripe(userId));
+        UserResponse loaded = loader.get();
+        // invalidate của Guava không chặn được lượt nạp đang chạy: có ghi trong lúc đọc DB thì không cache
+        cache.asMap().compute(userId, (key, current) ->
+                current != null || versions.get(stripe(userId)) != version ? current : loaded);
+        return loaded;
+    }
+
+    public void put(String userId, UserResponse response) {
+        versions.incrementAndGet(stripe(userId));
+        cache.put(userId, response);
+    }
+
+    public void invalidate(String userId) {
+        versions.incrementAndGet(stripe(userId));
+        cache.invalidate(userId);
+    }
+
+    private static int stripe(String userId) {
+        return Math.floorMod(userId.hashCode(), VERSION_STRIPES);
+    }
+}
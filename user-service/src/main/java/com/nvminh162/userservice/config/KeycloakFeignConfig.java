@@ -0,0 +1,22 @@
+package com.nvminh162.userservice.config;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import feign.Client;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Feign configuration of {@code KeycloakClient} only, so deliberately not a {@code @Configuration}:
+ * the pooled Apache HttpClient 5 shared by OpenFeign (sized by {@code spring.cloud.openfeign.httpclient.*}),
+ * wrapped in {@link KeycloakTransport}.
+ */
+public class KeycloakFeignConfig {
+
+    @Bean
+    public Client keycloakFeignClient(CloseableHttpClient httpClient5, MeterRegistry meterRegistry, Environment environment) {
+        return new KeycloakTransport(new ApacheHttp5Client(httpClient5), meterRegistry, environment);
+    }
+}
@@ -0,0 +1,165 @@
+package com.nvminh162.userservice.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.core.env.PropertyResolver;
+
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Feign transport for {@code KeycloakClient}. Each Keycloak operation (the client method name, e.g.
+ * {@code exchangeUserToken} for login) gets its own timeouts and bulkhead, read from
+ * {@code keycloak.client.<operation>.*} with {@code keycloak.client.*} as defaults.
+ * A call that cannot get a bulkhead permit within {@code max-wait} fails with
+ * {@link RejectedExecutionException} instead of queueing on the connection pool. The permit is held
+ * until the response body is closed, since the pooled connection stays leased until then.
+ * Latency is recorded as {@code keycloak.client.requests{operation,status}} with a percentile histogram.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class KeycloakTransport implements Client {
+
+    static final String PREFIX = "keycloak.client.";
+
+    Client delegate;
+    MeterRegistry meterRegistry;
+    PropertyResolver properties;
+    Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    public KeycloakTransport(Client delegate, MeterRegistry meterRegistry, PropertyResolver properties) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        Operation operation = operations.computeIfAbsent(operationName(request), this::operation);
+        try {
+            if (!operation.bulkhead().tryAcquire(operation.maxWait().toNanos(), TimeUnit.NANOSECONDS)) {
+                operation.rejected().increment();
+                throw new RejectedExecutionException("Too many concurrent Keycloak " + operation.name() + " calls");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a Keycloak " + operation.name() + " permit");
+        }
+
+        long start = System.nanoTime();
+        String status = "IO_ERROR";
+        boolean released = false;
+        try {
+            Response response = delegate.execute(request, new Request.Options(
+                    operation.connectTimeout().toMillis(), TimeUnit.MILLISECONDS,
+                    operation.readTimeout().toMillis(), TimeUnit.MILLISECONDS,
+                    options.isFollowRedirects()));
+            status = String.valueOf(response.status());
+            if (response.body() == null) {
+                return response;
+            }
+            // connection vẫn bị chiếm tới khi body được đọc xong và đóng: giữ permit tới lúc đó
+            released = true;
+            return response.toBuilder().body(new PermitReleasingBody(response.body(), operation.bulkhead())).build();
+        } finally {
+            if (!released) {
+                operation.bulkhead().release();
+            }
+            Timer.builder("keycloak.client.requests")
+                    .tag("operation", operation.name())
+                    .tag("status", status)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Operation operation(String name) {
+        return new Operation(
+                name,
+                setting(name, "connect-timeout", Duration.class, Duration.ofSeconds(2)),
+                setting(name, "read-timeout", Duration.class, Duration.ofSeconds(5)),
+                new Semaphore(setting(name, "max-concurrent", Integer.class, 50)),
+                setting(name, "max-wait", Duration.class, Duration.ofMillis(100)),
+                Counter.builder("keycloak.client.rejected").tag("operation", name).register(meterRegistry));
+    }
+
+    // keycloak.client.<operation>.<key>, rồi keycloak.client.<key>, rồi giá trị mặc định
+    private <T> T setting(String operation, String key, Class<T> type, T defaultValue) {
+        T fallback = properties.getProperty(PREFIX + key, type, defaultValue);
+        return properties.getProperty(PREFIX + operation + "." + key, type, fallback);
+    }
+
+    private static String operationName(Request request) {
+        MethodMetadata metadata = request.requestTemplate() != null ? request.requestTemplate().methodMetadata() : null;
+        return metadata != null && metadata.method() != null ? metadata.method().getName() : "unknown";
+    }
+
+    /**
+     * Response body that gives the bulkhead permit back on the first {@link #close()}.
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class PermitReleasingBody implements Response.Body {
+
+        Response.Body delegate;
+        Semaphore bulkhead;
+        AtomicBoolean released = new AtomicBoolean();
+
+        PermitReleasingBody(Response.Body delegate, Semaphore bulkhead) {
+            this.delegate = delegate;
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public Integer length() {
+            return delegate.length();
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return delegate.isRepeatable();
+        }
+
+        @Override
+        public InputStream asInputStream() throws IOException {
+            return delegate.asInputStream();
+        }
+
+        @Override
+        public Reader asReader(Charset charset) throws IOException {
+            return delegate.asReader(charset);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    bulkhead.release();
+                }
+            }
+        }
+    }
+
+    private record Operation(String name, Duration connectTimeout, Duration readTimeout,
+            Semaphore bulkhead, Duration maxWait, Counter rejected) {
+    }
+}
@@ -3,26 +3,33 @@ package com.nvminh162.userservice.controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.nvminh162.userservice.dto.request.BulkUserCreationRequest;
 import com.nvminh162.userservice.dto.request.UserCreationRequest;
 import com.nvminh162.userservice.dto.request.UserUpdatenRequest;
+import com.nvminh162.userservice.dto.response.BulkUserCreationResponse;
 import com.nvminh162.userservice.dto.response.UserResponse;
 import com.nvminh162.userservice.service.IUserService;
 
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.server.ResponseStatusException;
 
 @Slf4j
 @RestController
@@ -31,18 +38,43 @@ import org.springframework.web.bind.annotation.PutMapping;
 @RequiredArgsConstructor
 public class UserController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     IUserService userService;
+
+    @NonFinal
+    @Value("${user.bulk.max-rows:1000}")
+    int maxBulkRows;
     
     @PostMapping
     public ResponseEntity<UserResponse> addUser(@RequestBody UserCreationRequest request) {
         return ResponseEntity.ok(userService.createUser(request));
     }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkUserCreationResponse> addUsers(@RequestBody BulkUserCreationRequest request) {
+        List<UserCreationRequest> users = request.getUsers() != null ? request.getUsers() : List.of();
+        if (users.size() > maxBulkRows) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxBulkRows + " users can be created at once");
+        }
+        return ResponseEntity.ok(userService.createUsers(users));
+    }
     
     @GetMapping
-    public ResponseEntity<List<UserResponse>> getAllUsers(@RequestHeader(value = "X-User-Id", required = false) String userId) {
+    public ResponseEntity<List<UserResponse>> getAllUsers(
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false, defaultValue = "" + IUserService.DEFAULT_PAGE_SIZE) Integer size) {
         if (userId != null)
             log.info(">>> User ID: {}", userId);
-        return ResponseEntity.ok(userService.getAllUsers());
+        List<UserResponse> users = userService.getAllUsers(after, size);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!users.isEmpty() && users.size() == Math.clamp(size, 1, IUserService.MAX_PAGE_SIZE)) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(users.getLast().getId()));
+        }
+        return response.body(users);
     }
     
     @GetMapping("/{userId}")
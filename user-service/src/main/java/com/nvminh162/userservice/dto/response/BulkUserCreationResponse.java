@@ -0,0 +1,24 @@
+package com.nvminh162.userservice.dto.response;
+
+import java.util.List;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BulkUserCreationResponse {
+    int created;
+    int failed;
+    // cùng thứ tự với danh sách trong request
+    List<BulkUserResult> results;
+}
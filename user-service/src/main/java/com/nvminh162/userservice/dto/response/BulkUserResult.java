@@ -0,0 +1,24 @@
+package com.nvminh162.userservice.dto.response;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BulkUserResult {
+    int index;
+    String username;
+    // có userId nhưng có error: đã tạo trên Keycloak nhưng chưa lưu vào database
+    String userId;
+    // null khi dòng này thành công
+    String error;
+}
@@ -6,6 +6,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 
+import com.nvminh162.userservice.config.KeycloakFeignConfig;
 import com.nvminh162.userservice.dto.keycloak.TokenExchangeParam;
 import com.nvminh162.userservice.dto.keycloak.TokenExchangeResponse;
 import com.nvminh162.userservice.dto.keycloak.UserCreationParam;
@@ -17,7 +18,7 @@ import feign.QueryMap;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
-@FeignClient(name = "keycloak-client", url = "${keycloak.url}")
+@FeignClient(name = "keycloak-client", url = "${keycloak.url}", configuration = KeycloakFeignConfig.class)
 public interface KeycloakClient {
 
     @PostMapping(value = "/realms/{realm-name}/protocol/openid-connect/token", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
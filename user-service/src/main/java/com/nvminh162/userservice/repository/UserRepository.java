@@ -1,8 +1,12 @@
 package com.nvminh162.userservice.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.nvminh162.userservice.entity.User;
@@ -13,4 +17,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUserId(String userId);
 
     Optional<User> findByEmail(String email);
+
+    // keyset pagination theo khoá chính: không dùng OFFSET nên trang sau không chậm dần
+    @Query("""
+            select u from User u
+            where (:after is null or u.id > :after)
+            order by u.id
+            """)
+    List<User> findPage(@Param("after") Long after, Limit limit);
 }
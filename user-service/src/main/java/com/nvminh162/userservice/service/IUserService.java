@@ -6,13 +6,19 @@ import com.nvminh162.userservice.dto.keycloak.LoginRequest;
 import com.nvminh162.userservice.dto.keycloak.UserTokenExchangeResponse;
 import com.nvminh162.userservice.dto.request.UserCreationRequest;
 import com.nvminh162.userservice.dto.request.UserUpdatenRequest;
+import com.nvminh162.userservice.dto.response.BulkUserCreationResponse;
 import com.nvminh162.userservice.dto.response.UserResponse;
 
 public interface IUserService {
 
+    int DEFAULT_PAGE_SIZE = 50;
+    int MAX_PAGE_SIZE = 500;
+
     UserResponse createUser(UserCreationRequest request);
 
-    List<UserResponse> getAllUsers();
+    BulkUserCreationResponse createUsers(List<UserCreationRequest> requests);
+
+    List<UserResponse> getAllUsers(Long after, Integer size);
 
     UserResponse getUserById(String id);
 
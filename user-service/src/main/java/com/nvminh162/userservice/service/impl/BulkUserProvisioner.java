@@ -0,0 +1,139 @@
+package com.nvminh162.userservice.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import com.nvminh162.userservice.dto.request.UserCreationRequest;
+import com.nvminh162.userservice.dto.response.BulkUserCreationResponse;
+import com.nvminh162.userservice.dto.response.BulkUserResult;
+import com.nvminh162.userservice.entity.User;
+import com.nvminh162.userservice.mapper.UserMapper;
+import com.nvminh162.userservice.repository.UserRepository;
+
+import feign.FeignException;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Provisions many users at once. Keycloak creations run on virtual threads, at most
+ * {@code user.bulk.concurrency} in flight and further capped by the registrar's rate limit.
+ * The local rows are then inserted {@code user.bulk.batch-size} per transaction. A failing row is
+ * reported in its own result instead of failing the whole request.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BulkUserProvisioner {
+
+    KeycloakUserRegistrar keycloakUserRegistrar;
+    UserRepository userRepository;
+    UserMapper userMapper;
+    int concurrency;
+    int batchSize;
+
+    public BulkUserProvisioner(
+            KeycloakUserRegistrar keycloakUserRegistrar,
+            UserRepository userRepository,
+            UserMapper userMapper,
+            @Value("${user.bulk.concurrency:16}") int concurrency,
+            @Value("${user.bulk.batch-size:100}") int batchSize) {
+        this.keycloakUserRegistrar = keycloakUserRegistrar;
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
+    }
+
+    public BulkUserCreationResponse provision(List<UserCreationRequest> requests) {
+        long start = System.currentTimeMillis();
+        BulkUserResult[] results = new BulkUserResult[requests.size()];
+        User[] users = new User[requests.size()];
+
+        Semaphore permits = new Semaphore(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests.size(); i++) {
+                int index = i;
+                UserCreationRequest request = requests.get(i);
+                executor.execute(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        User user = userMapper.toUser(request);
+                        user.setUserId(keycloakUserRegistrar.register(request));
+                        users[index] = user;
+                    } catch (RuntimeException e) {
+                        results[index] = failed(index, request.getUsername(), null, keycloakError(e));
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        } // close() chờ mọi lượt tạo trên Keycloak xong
+
+        List<Integer> created = new ArrayList<>();
+        for (int i = 0; i < users.length; i++) {
+            if (users[i] != null) {
+                created.add(i);
+            }
+        }
+        for (int from = 0; from < created.size(); from += batchSize) {
+            save(created.subList(from, Math.min(from + batchSize, created.size())), users, results);
+        }
+
+        List<BulkUserResult> resultList = List.of(results);
+        int failed = (int) resultList.stream().filter(result -> result.getError() != null).count();
+        log.info(">>> Bulk provisioning: {} user(s) created, {} failed in {} ms",
+                results.length - failed, failed, System.currentTimeMillis() - start);
+        return BulkUserCreationResponse.builder()
+                .created(results.length - failed)
+                .failed(failed)
+                .results(resultList)
+                .build();
+    }
+
+    private void save(List<Integer> batch, User[] users, BulkUserResult[] results) {
+        try {
+            List<User> saved = userRepository.saveAll(batch.stream().map(i -> users[i]).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                results[batch.get(i)] = succeeded(batch.get(i), saved.get(i));
+            }
+        } catch (DataAccessException e) {
+            // cả lô đã rollback: lưu lại từng dòng để chỉ ra dòng nào lỗi
+            for (Integer index : batch) {
+                User user = users[index];
+                // id IDENTITY gán trong lô đã rollback không còn trong DB: để nguyên thì save() merge và lỗi optimistic lock
+                user.setId(null);
+                try {
+                    results[index] = succeeded(index, userRepository.save(user));
+                } catch (DataAccessException rowError) {
+                    results[index] = failed(index, user.getUsername(), user.getUserId(),
+                            "Created in Keycloak but not saved locally: " + rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private static BulkUserResult succeeded(int index, User user) {
+        return BulkUserResult.builder().index(index).username(user.getUsername()).userId(user.getUserId()).build();
+    }
+
+    private static BulkUserResult failed(int index, String username, String userId, String error) {
+        return BulkUserResult.builder().index(index).username(username).userId(userId).error(error).build();
+    }
+
+    private static String keycloakError(RuntimeException e) {
+        if (e instanceof FeignException feignException) {
+            return feignException.status() == 409
+                    ? "User already exists in Keycloak"
+                    : "Keycloak responded with status " + feignException.status();
+        }
+        return e.getMessage();
+    }
+}
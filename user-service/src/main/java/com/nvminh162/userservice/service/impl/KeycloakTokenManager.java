@@ -0,0 +1,145 @@
+package com.nvminh162.userservice.service.impl;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.nvminh162.userservice.dto.keycloak.TokenExchangeParam;
+import com.nvminh162.userservice.dto.keycloak.TokenExchangeResponse;
+import com.nvminh162.userservice.repository.KeycloakClient;
+
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Service-account ({@code client_credentials}) access token used for Keycloak admin calls.
+ * The token is cached until {@code keycloak.admin-token.refresh-before} ahead of its expiry; from then on
+ * callers keep getting the current token while one background refresh fetches the next one. Only when no
+ * valid token is left do callers wait, and then all of them wait on that same single refresh.
+ * With {@code keycloak.admin-token.cache-enabled=false} every call exchanges a new token, as before.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class KeycloakTokenManager {
+
+    KeycloakClient keycloakClient;
+    String realm;
+    String clientId;
+    String clientSecret;
+    boolean cacheEnabled;
+    Duration refreshBefore;
+    Clock clock;
+    AtomicReference<CachedToken> current = new AtomicReference<>();
+    AtomicReference<CompletableFuture<CachedToken>> refreshing = new AtomicReference<>();
+    ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Autowired
+    public KeycloakTokenManager(
+            KeycloakClient keycloakClient,
+            @Value("${keycloak.realm}") String realm,
+            @Value("${keycloak.client-id}") String clientId,
+            @Value("${keycloak.client-secret}") String clientSecret,
+            @Value("${keycloak.admin-token.cache-enabled:true}") boolean cacheEnabled,
+            @Value("${keycloak.admin-token.refresh-before:30s}") Duration refreshBefore) {
+        this(keycloakClient, realm, clientId, clientSecret, cacheEnabled, refreshBefore, Clock.systemUTC());
+    }
+
+    KeycloakTokenManager(KeycloakClient keycloakClient, String realm, String clientId, String clientSecret,
+            boolean cacheEnabled, Duration refreshBefore, Clock clock) {
+        this.keycloakClient = keycloakClient;
+        this.realm = realm;
+        this.clientId = clientId;
+        this.clientSecret = clientSecret;
+        this.cacheEnabled = cacheEnabled;
+        this.refreshBefore = refreshBefore;
+        this.clock = clock;
+    }
+
+    public String getAccessToken() {
+        if (!cacheEnabled) {
+            return fetch().value();
+        }
+        CachedToken token = current.get();
+        Instant now = clock.instant();
+        if (token != null && now.isBefore(token.expiresAt())) {
+            if (!now.isBefore(token.refreshAt())) {
+                // sắp hết hạn: làm mới ở nền, lượt này vẫn dùng token cũ
+                refresh();
+            }
+            return token.value();
+        }
+        try {
+            return refresh().join().value();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Drops the cached token if it is still {@code accessToken}, e.g. after Keycloak rejected it
+     * before its expiry (session revoked, realm keys rotated).
+     */
+    public void invalidate(String accessToken) {
+        current.updateAndGet(token -> token != null && token.value().equals(accessToken) ? null : token);
+    }
+
+    // single-flight: chỉ một lượt gọi Keycloak tại một thời điểm, các lượt khác dùng chung kết quả
+    private CompletableFuture<CachedToken> refresh() {
+        CompletableFuture<CachedToken> mine = new CompletableFuture<>();
+        CompletableFuture<CachedToken> running = refreshing.compareAndExchange(null, mine);
+        if (running != null) {
+            return running;
+        }
+        refreshExecutor.execute(() -> {
+            try {
+                CachedToken token = fetch();
+                current.set(token);
+                refreshing.set(null);
+                mine.complete(token);
+            } catch (Throwable e) {
+                log.warn(">>> Could not refresh Keycloak service-account token: {}", e.getMessage());
+                refreshing.set(null);
+                mine.completeExceptionally(e);
+            }
+        });
+        return mine;
+    }
+
+    private CachedToken fetch() {
+        Instant issuedAt = clock.instant();
+        TokenExchangeResponse response = keycloakClient.exchangeToken(
+                realm,
+                TokenExchangeParam.builder()
+                        .grant_type("client_credentials")
+                        .client_id(clientId)
+                        .client_secret(clientSecret)
+                        .scope("openid")
+                        .build());
+        Duration lifetime = Duration.ofSeconds(response.getExpiresIn() != null ? response.getExpiresIn() : 0);
+        // token sống ngắn hơn refresh-before thì làm mới khi đã dùng được nửa thời gian
+        Duration ahead = refreshBefore.compareTo(lifetime) < 0 ? refreshBefore : lifetime.dividedBy(2);
+        Instant expiresAt = issuedAt.plus(lifetime);
+        log.debug(">>> Keycloak service-account token refreshed, expires at {}", expiresAt);
+        return new CachedToken(response.getAccessToken(), expiresAt.minus(ahead), expiresAt);
+    }
+
+    @PreDestroy
+    public void close() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private record CachedToken(String value, Instant refreshAt, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.nvminh162.userservice.service.impl;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.nvminh162.userservice.dto.keycloak.Credential;
+import com.nvminh162.userservice.dto.keycloak.UserCreationParam;
+import com.nvminh162.userservice.dto.request.UserCreationRequest;
+import com.nvminh162.userservice.repository.KeycloakClient;
+import com.nvminh162.userservice.utils.KeycloakUtils;
+
+import feign.FeignException;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates users in Keycloak through the admin API. Every creation, single or bulk, goes through one
+ * rate limiter so this instance never sends more than {@code keycloak.create-user.max-rate} creations
+ * per second; callers over the ceiling wait for a permit.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class KeycloakUserRegistrar {
+
+    KeycloakClient keycloakClient;
+    KeycloakTokenManager keycloakTokenManager;
+    String realm;
+    RateLimiter rateLimiter;
+
+    public KeycloakUserRegistrar(
+            KeycloakClient keycloakClient,
+            KeycloakTokenManager keycloakTokenManager,
+            @Value("${keycloak.realm}") String realm,
+            @Value("${keycloak.create-user.max-rate:20}") double maxRate) {
+        this.keycloakClient = keycloakClient;
+        this.keycloakTokenManager = keycloakTokenManager;
+        this.realm = realm;
+        this.rateLimiter = RateLimiter.create(maxRate);
+    }
+
+    /**
+     * @return the Keycloak id of the new user
+     */
+    public String register(UserCreationRequest request) {
+        UserCreationParam param = UserCreationParam.builder()
+                .username(request.getUsername())
+                .firstName(request.getFirstName())
+                .lastName(request.getLastName())
+                .email(request.getEmail())
+                .enabled(true)
+                .emailVerified(false)
+                .credentials(List.of(Credential.builder()
+                        .type("password")
+                        .temporary(false)
+                        .value(request.getPassword())
+                        .build()))
+                .build();
+
+        rateLimiter.acquire();
+        String token = keycloakTokenManager.getAccessToken();
+        ResponseEntity<?> userCreationResponse;
+        try {
+            userCreationResponse = keycloakClient.createUser(realm, "Bearer " + token, param);
+        } catch (FeignException.Unauthorized e) {
+            // token bị Keycloak thu hồi trước khi hết hạn: bỏ token đang cache và thử lại một lần,
+            // lượt thử lại cũng là một lần tạo user gửi tới Keycloak nên cũng phải lấy permit
+            keycloakTokenManager.invalidate(token);
+            rateLimiter.acquire();
+            userCreationResponse = keycloakClient.createUser(realm, "Bearer " + keycloakTokenManager.getAccessToken(), param);
+        }
+        log.info(">>> User creation response: {}", userCreationResponse);
+
+        String userId = KeycloakUtils.extractUserId(userCreationResponse);
+        log.info(">>> User ID: {}", userId);
+        return userId;
+    }
+}
@@ -3,25 +3,22 @@ package com.nvminh162.userservice.service.impl;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.ResponseEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
-import com.nvminh162.userservice.dto.keycloak.Credential;
+import com.nvminh162.userservice.cache.UserResponseCache;
 import com.nvminh162.userservice.dto.keycloak.LoginRequest;
-import com.nvminh162.userservice.dto.keycloak.TokenExchangeParam;
-import com.nvminh162.userservice.dto.keycloak.TokenExchangeResponse;
-import com.nvminh162.userservice.dto.keycloak.UserCreationParam;
 import com.nvminh162.userservice.dto.keycloak.UserTokenExchangeParam;
 import com.nvminh162.userservice.dto.keycloak.UserTokenExchangeResponse;
 import com.nvminh162.userservice.dto.request.UserCreationRequest;
 import com.nvminh162.userservice.dto.request.UserUpdatenRequest;
+import com.nvminh162.userservice.dto.response.BulkUserCreationResponse;
 import com.nvminh162.userservice.dto.response.UserResponse;
 import com.nvminh162.userservice.entity.User;
 import com.nvminh162.userservice.mapper.UserMapper;
 import com.nvminh162.userservice.repository.KeycloakClient;
 import com.nvminh162.userservice.repository.UserRepository;
 import com.nvminh162.userservice.service.IUserService;
-import com.nvminh162.userservice.utils.KeycloakUtils;
 
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -37,7 +34,10 @@ public class UserService implements IUserService {
 
     UserRepository userRepository;
     KeycloakClient keycloakClient;
+    KeycloakUserRegistrar keycloakUserRegistrar;
+    BulkUserProvisioner bulkUserProvisioner;
     UserMapper userMapper;
+    UserResponseCache userResponseCache;
 
     @NonFinal
     @Value("${keycloak.realm}")
@@ -53,38 +53,7 @@ public class UserService implements IUserService {
 
     @Override
     public UserResponse createUser(UserCreationRequest request) {
-        log.info(">>> REALML: {}, CLIENT_ID: {}, CLIENT_SECRET: {}", realm, clientId, clientSecret);
-
-        TokenExchangeResponse token = keycloakClient.exchangeToken(
-                realm,
-                TokenExchangeParam.builder()
-                        .grant_type("client_credentials")
-                        .client_id(clientId)
-                        .client_secret(clientSecret)
-                        .scope("openid")
-                        .build());
-        log.info(">>> Token exchange response: {}", token);
-
-        ResponseEntity<?> userCreationResponse = keycloakClient.createUser(
-                realm,
-                "Bearer " + token.getAccessToken(),
-                UserCreationParam.builder()
-                        .username(request.getUsername())
-                        .firstName(request.getFirstName())
-                        .lastName(request.getLastName())
-                        .email(request.getEmail())
-                        .enabled(true)
-                        .emailVerified(false)
-                        .credentials(List.of(Credential.builder()
-                                .type("password")
-                                .temporary(false)
-                                .value(request.getPassword())
-                                .build()))
-                        .build());
-        log.info(">>> User creation response: {}", userCreationResponse);
-
-        String userId = KeycloakUtils.extractUserId(userCreationResponse);
-        log.info(">>> User ID: {}", userId);
+        String userId = keycloakUserRegistrar.register(request);
 
         User user = userMapper.toUser(request);
         user.setUserId(userId);
@@ -92,15 +61,21 @@ public class UserService implements IUserService {
     }
 
     @Override
-    public List<UserResponse> getAllUsers() {
-        return userRepository.findAll().stream().map(userMapper::toResponse).toList();
+    public BulkUserCreationResponse createUsers(List<UserCreationRequest> requests) {
+        return bulkUserProvisioner.provision(requests);
+    }
+
+    @Override
+    public List<UserResponse> getAllUsers(Long after, Integer size) {
+        int limit = size == null ? DEFAULT_PAGE_SIZE : Math.clamp(size, 1, MAX_PAGE_SIZE);
+        return userRepository.findPage(after, Limit.of(limit)).stream().map(userMapper::toResponse).toList();
     }
 
     @Override
     public UserResponse getUserById(String id) {
-        return userRepository.findByUserId(id)
+        return userResponseCache.get(id, () -> userRepository.findByUserId(id)
                 .map(userMapper::toResponse)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id)));
     }
 
     @Override
@@ -108,7 +83,9 @@ public class UserService implements IUserService {
         User user = userRepository.findByUserId(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
         userMapper.updateUser(user, request);
-        return userMapper.toResponse(userRepository.save(user));
+        UserResponse response = userMapper.toResponse(userRepository.save(user));
+        userResponseCache.put(id, response);
+        return response;
     }
 
     @Override
@@ -116,6 +93,7 @@ public class UserService implements IUserService {
         User user = userRepository.findByUserId(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
         userRepository.delete(user);
+        userResponseCache.invalidate(id);
     }
 
     @Override
@@ -0,0 +1,205 @@
+package com.nvminh162.userservice.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.core.convert.support.ConfigurableConversionService;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import feign.Feign;
+import feign.RequestLine;
+import feign.Response;
+import feign.RetryableException;
+import feign.Retryer;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs {@link KeycloakTransport} on the pooled HttpClient 5 against a local Keycloak stand-in
+ * ({@link HttpServer}), including concurrent logins through the pool.
+ */
+@Slf4j
+class KeycloakTransportTest {
+
+    static final String TOKEN = "{\"access_token\":\"token\",\"expires_in\":300,\"token_type\":\"Bearer\"}";
+
+    static {
+        // HttpServer mặc định bật Nagle: header và body gửi riêng phải chờ delayed ACK ~40ms mỗi request,
+        // Keycloak thật (Vert.x) dùng TCP_NODELAY
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    HttpServer keycloak;
+    ExecutorService keycloakThreads = Executors.newFixedThreadPool(32);
+    CloseableHttpClient httpClient;
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    MockEnvironment environment = new MockEnvironment();
+    volatile long createUserDelayMillis;
+    volatile long loginDelayMillis;
+    volatile boolean chunked;
+
+    interface StandInKeycloakClient {
+
+        @RequestLine("POST /realms/test/protocol/openid-connect/token")
+        String exchangeUserToken();
+
+        @RequestLine("POST /admin/realms/test/users")
+        String createUser();
+
+        @RequestLine("POST /realms/test/protocol/openid-connect/token")
+        Response streamUserToken();
+    }
+
+    @BeforeEach
+    void startKeycloak() throws IOException {
+        keycloak = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 128);
+        keycloak.createContext("/realms/test/protocol/openid-connect/token", exchange -> respond(exchange, loginDelayMillis));
+        keycloak.createContext("/admin/realms/test/users", exchange -> respond(exchange, createUserDelayMillis));
+        keycloak.setExecutor(keycloakThreads);
+        keycloak.start();
+        httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(64)
+                        .setMaxConnPerRoute(64)
+                        .build())
+                .build();
+        environment.setConversionService((ConfigurableConversionService) ApplicationConversionService.getSharedInstance());
+    }
+
+    @AfterEach
+    void stopKeycloak() throws IOException {
+        httpClient.close();
+        keycloak.stop(0);
+        keycloakThreads.shutdownNow();
+    }
+
+    @Test
+    void recordsEveryLoginThroughThePool() throws Exception {
+        StandInKeycloakClient client = client();
+        int threads = 16;
+        int loginsPerThread = 250;
+        List<Future<?>> workers = new ArrayList<>();
+        long start = System.nanoTime();
+        try (ExecutorService callers = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                workers.add(callers.submit(() -> {
+                    for (int i = 0; i < loginsPerThread; i++) {
+                        client.exchangeUserToken();
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get(60, TimeUnit.SECONDS);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        int logins = threads * loginsPerThread;
+        Timer timer = meterRegistry.get("keycloak.client.requests")
+                .tag("operation", "exchangeUserToken").tag("status", "200").timer();
+        assertEquals(logins, timer.count());
+        // stand-in trả lời ngay: số đo là chi phí của transport và HttpServer giả, không phải của Keycloak thật
+        log.info(">>> {} login(s) through the pool in {} ms: {} logins/s, mean {} ms, max {} ms",
+                timer.count(), TimeUnit.NANOSECONDS.toMillis(elapsed), Math.round(timer.count() * 1e9 / elapsed),
+                "%.2f".formatted(timer.mean(TimeUnit.MILLISECONDS)), "%.2f".formatted(timer.max(TimeUnit.MILLISECONDS)));
+    }
+
+    @Test
+    void appliesTimeoutPerOperation() {
+        environment.setProperty("keycloak.client.read-timeout", "2s");
+        environment.setProperty("keycloak.client.createUser.read-timeout", "100ms");
+        createUserDelayMillis = 500;
+        loginDelayMillis = 300;
+        StandInKeycloakClient client = client();
+
+        assertThrows(RetryableException.class, client::createUser);
+        // login vẫn dùng read-timeout chung 2s
+        assertEquals(TOKEN, client.exchangeUserToken());
+    }
+
+    @Test
+    void rejectsCallsOverTheBulkhead() throws Exception {
+        environment.setProperty("keycloak.client.exchangeUserToken.max-concurrent", "1");
+        environment.setProperty("keycloak.client.exchangeUserToken.max-wait", "0s");
+        loginDelayMillis = 500;
+        StandInKeycloakClient client = client();
+
+        try (ExecutorService callers = Executors.newSingleThreadExecutor()) {
+            Future<String> first = callers.submit(client::exchangeUserToken);
+            Thread.sleep(100);
+            assertThrows(RejectedExecutionException.class, client::exchangeUserToken);
+            assertEquals(TOKEN, first.get(5, TimeUnit.SECONDS));
+        }
+        assertTrue(meterRegistry.get("keycloak.client.rejected").tag("operation", "exchangeUserToken").counter().count() >= 1);
+    }
+
+    @Test
+    void holdsThePermitUntilTheBodyIsClosed() throws Exception {
+        environment.setProperty("keycloak.client.streamUserToken.max-concurrent", "1");
+        environment.setProperty("keycloak.client.streamUserToken.max-wait", "0s");
+        // Feign tự đọc hết và đóng body nhỏ có Content-Length; body chunked được trả nguyên cho caller
+        chunked = true;
+        StandInKeycloakClient client = client();
+
+        Response open = client.streamUserToken();
+        // body chưa đóng: connection vẫn bị giữ nên lượt thứ hai bị từ chối
+        assertThrows(RejectedExecutionException.class, client::streamUserToken);
+        assertEquals(TOKEN, new String(open.body().asInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        open.close();
+        // đóng lần hai không trả thêm permit
+        open.close();
+
+        try (Response next = client.streamUserToken()) {
+            assertEquals(200, next.status());
+            assertThrows(RejectedExecutionException.class, client::streamUserToken);
+        }
+    }
+
+    private StandInKeycloakClient client() {
+        return Feign.builder()
+                .client(new KeycloakTransport(new ApacheHttp5Client(httpClient), meterRegistry, environment))
+                // như Spring Cloud OpenFeign: không tự retry
+                .retryer(Retryer.NEVER_RETRY)
+                .target(StandInKeycloakClient.class, "http://127.0.0.1:" + keycloak.getAddress().getPort());
+    }
+
+    private void respond(HttpExchange exchange, long delayMillis) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        if (delayMillis > 0) {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        byte[] body = TOKEN.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, chunked ? 0 : body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+}
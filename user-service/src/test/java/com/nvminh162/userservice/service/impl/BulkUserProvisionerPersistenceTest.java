@@ -0,0 +1,79 @@
+package com.nvminh162.userservice.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.nvminh162.userservice.dto.request.UserCreationRequest;
+import com.nvminh162.userservice.dto.response.BulkUserCreationResponse;
+import com.nvminh162.userservice.entity.User;
+import com.nvminh162.userservice.mapper.UserMapper;
+import com.nvminh162.userservice.repository.UserRepository;
+
+/**
+ * Per-row fallback of {@link BulkUserProvisioner} against a real database: rows of a rolled-back
+ * batch must still be inserted.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+// mỗi lần lưu chạy trong transaction riêng như khi chạy thật, không bọc trong transaction của test
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BulkUserProvisionerPersistenceTest {
+
+    @Autowired
+    UserRepository userRepository;
+
+    KeycloakUserRegistrar registrar = mock(KeycloakUserRegistrar.class);
+    UserMapper userMapper = mock(UserMapper.class);
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void rowsOfARolledBackBatchAreSavedOneByOne() {
+        userRepository.save(user("existing", "taken@example.com"));
+        when(userMapper.toUser(any())).thenAnswer(call -> {
+            UserCreationRequest request = call.getArgument(0);
+            return user(request.getUsername(), request.getEmail());
+        });
+        when(registrar.register(any())).thenAnswer(call -> "kc-" + ((UserCreationRequest) call.getArgument(0)).getUsername());
+        BulkUserProvisioner provisioner = new BulkUserProvisioner(registrar, userRepository, userMapper, 4, 10);
+
+        // dòng cuối trùng email: saveAll rollback sau khi hai dòng đầu đã nhận id IDENTITY
+        BulkUserCreationResponse response = provisioner.provision(List.of(
+                request("alice", "alice@example.com"),
+                request("bob", "bob@example.com"),
+                request("carol", "taken@example.com")));
+
+        assertEquals(2, response.getCreated());
+        assertEquals(1, response.getFailed());
+        assertNull(response.getResults().get(0).getError());
+        assertNull(response.getResults().get(1).getError());
+        assertTrue(response.getResults().get(2).getError().startsWith("Created in Keycloak but not saved locally"));
+        assertNotNull(userRepository.findByUserId("kc-alice").orElse(null));
+        assertNotNull(userRepository.findByUserId("kc-bob").orElse(null));
+        assertEquals(3, userRepository.count());
+    }
+
+    private static UserCreationRequest request(String username, String email) {
+        return UserCreationRequest.builder().username(username).email(email).name(username).build();
+    }
+
+    private static User user(String username, String email) {
+        return User.builder().username(username).email(email).name(username).build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.nvminh162.userservice.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.nvminh162.userservice.dto.request.UserCreationRequest;
+import com.nvminh162.userservice.dto.response.BulkUserCreationResponse;
+import com.nvminh162.userservice.entity.User;
+import com.nvminh162.userservice.mapper.UserMapper;
+import com.nvminh162.userservice.repository.UserRepository;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+
+class BulkUserProvisionerTest {
+
+    KeycloakUserRegistrar registrar = mock(KeycloakUserRegistrar.class);
+    UserRepository userRepository = mock(UserRepository.class);
+    UserMapper userMapper = mock(UserMapper.class);
+
+    @Test
+    void reportsKeycloakAndDatabaseFailuresPerRow() {
+        when(userMapper.toUser(any())).thenAnswer(call -> {
+            UserCreationRequest request = call.getArgument(0);
+            return User.builder().username(request.getUsername()).build();
+        });
+        when(registrar.register(any())).thenAnswer(call -> {
+            UserCreationRequest request = call.getArgument(0);
+            if (request.getUsername().equals("taken")) {
+                throw conflict();
+            }
+            return "kc-" + request.getUsername();
+        });
+        // lô đầu lỗi vì một dòng trùng email, các dòng được lưu lại từng dòng
+        when(userRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(userRepository.save(any())).thenAnswer(call -> {
+            User user = call.getArgument(0);
+            if (user.getUsername().equals("duplicate-email")) {
+                throw new DataIntegrityViolationException("duplicate email");
+            }
+            return user;
+        });
+
+        BulkUserCreationResponse response = new BulkUserProvisioner(registrar, userRepository, userMapper, 4, 10)
+                .provision(List.of(request("alice"), request("taken"), request("duplicate-email"), request("bob")));
+
+        assertEquals(2, response.getCreated());
+        assertEquals(2, response.getFailed());
+        assertNull(response.getResults().get(0).getError());
+        assertEquals("kc-alice", response.getResults().get(0).getUserId());
+        assertEquals("User already exists in Keycloak", response.getResults().get(1).getError());
+        assertEquals("kc-duplicate-email", response.getResults().get(2).getUserId());
+        assertTrue(response.getResults().get(2).getError().startsWith("Created in Keycloak but not saved locally"));
+        assertNull(response.getResults().get(3).getError());
+    }
+
+    @Test
+    void boundsConcurrentKeycloakCallsAndBatchesInserts() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(userMapper.toUser(any())).thenAnswer(call -> new User());
+        when(registrar.register(any())).thenAnswer(call -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return "kc";
+        });
+        when(userRepository.saveAll(anyList())).thenAnswer(call -> call.getArgument(0));
+
+        List<UserCreationRequest> requests = IntStream.range(0, 50)
+                .mapToObj(i -> request("user-" + i))
+                .toList();
+        BulkUserCreationResponse response = new BulkUserProvisioner(registrar, userRepository, userMapper, 5, 20)
+                .provision(requests);
+
+        assertEquals(50, response.getCreated());
+        assertTrue(maxInFlight.get() <= 5);
+        verify(userRepository, times(3)).saveAll(anyList());
+    }
+
+    private static UserCreationRequest request(String username) {
+        return UserCreationRequest.builder().username(username).email(username + "@example.com").build();
+    }
+
+    private static FeignException conflict() {
+        Request request = Request.create(Request.HttpMethod.POST, "/admin/realms/test/users", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        return FeignException.errorStatus("createUser", Response.builder()
+                .status(409)
+                .reason("Conflict")
+                .request(request)
+                .headers(Map.of())
+                .build());
+    }
+}
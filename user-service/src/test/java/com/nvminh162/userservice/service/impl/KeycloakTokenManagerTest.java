@@ -0,0 +1,151 @@
+package com.nvminh162.userservice.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import com.nvminh162.userservice.dto.keycloak.TokenExchangeParam;
+import com.nvminh162.userservice.dto.keycloak.TokenExchangeResponse;
+import com.nvminh162.userservice.dto.keycloak.UserCreationParam;
+import com.nvminh162.userservice.dto.keycloak.UserTokenExchangeParam;
+import com.nvminh162.userservice.dto.keycloak.UserTokenExchangeResponse;
+import com.nvminh162.userservice.repository.KeycloakClient;
+
+class KeycloakTokenManagerTest {
+
+    static final Duration LIFETIME = Duration.ofMinutes(5);
+
+    @Test
+    void concurrentCallersShareOneTokenExchange() throws Exception {
+        StubKeycloak keycloak = new StubKeycloak(Duration.ofMillis(200));
+        KeycloakTokenManager manager = manager(keycloak, true, Clock.systemUTC());
+        int callers = 32;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> tokens = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            for (int i = 0; i < callers; i++) {
+                tokens.add(executor.submit(() -> {
+                    start.await();
+                    return manager.getAccessToken();
+                }));
+            }
+            start.countDown();
+            for (Future<String> token : tokens) {
+                assertEquals("token-1", token.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, keycloak.exchanges.get());
+    }
+
+    @Test
+    void tokenIsRefreshedInBackgroundBeforeItExpires() throws Exception {
+        StubKeycloak keycloak = new StubKeycloak(Duration.ZERO);
+        MutableClock clock = new MutableClock();
+        KeycloakTokenManager manager = manager(keycloak, true, clock);
+
+        assertEquals("token-1", manager.getAccessToken());
+        clock.advance(LIFETIME.minusSeconds(10));
+        // trong khoảng refresh-before: vẫn trả token cũ, lượt làm mới chạy ở nền
+        assertEquals("token-1", manager.getAccessToken());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!"token-2".equals(manager.getAccessToken()) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("token-2", manager.getAccessToken());
+        assertEquals(2, keycloak.exchanges.get());
+    }
+
+    @Test
+    void invalidatedTokenIsExchangedAgain() {
+        StubKeycloak keycloak = new StubKeycloak(Duration.ZERO);
+        KeycloakTokenManager manager = manager(keycloak, true, Clock.systemUTC());
+
+        String token = manager.getAccessToken();
+        manager.invalidate(token);
+        assertEquals("token-2", manager.getAccessToken());
+    }
+
+    @Test
+    void disabledCacheExchangesOnEveryCall() {
+        StubKeycloak keycloak = new StubKeycloak(Duration.ZERO);
+        KeycloakTokenManager manager = manager(keycloak, false, Clock.systemUTC());
+
+        manager.getAccessToken();
+        manager.getAccessToken();
+        assertEquals(2, keycloak.exchanges.get());
+    }
+
+    private static KeycloakTokenManager manager(KeycloakClient keycloak, boolean cacheEnabled, Clock clock) {
+        return new KeycloakTokenManager(keycloak, "realm", "client", "secret", cacheEnabled, Duration.ofSeconds(30), clock);
+    }
+
+    static class StubKeycloak implements KeycloakClient {
+
+        final AtomicInteger exchanges = new AtomicInteger();
+        final Duration latency;
+
+        StubKeycloak(Duration latency) {
+            this.latency = latency;
+        }
+
+        @Override
+        public TokenExchangeResponse exchangeToken(String realm, TokenExchangeParam param) {
+            int n = exchanges.incrementAndGet();
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return TokenExchangeResponse.builder().accessToken("token-" + n).expiresIn(LIFETIME.toSeconds()).build();
+        }
+
+        @Override
+        public ResponseEntity<?> createUser(String realm, String token, UserCreationParam param) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UserTokenExchangeResponse exchangeUserToken(String realm, UserTokenExchangeParam param) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    static class MutableClock extends Clock {
+
+        volatile Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.nvminh162.userservice.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import com.nvminh162.userservice.dto.keycloak.UserCreationParam;
+import com.nvminh162.userservice.dto.request.UserCreationRequest;
+import com.nvminh162.userservice.service.impl.KeycloakTokenManagerTest.StubKeycloak;
+
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Signup path of {@link KeycloakUserRegistrar} against a stub Keycloak: the rate-limit ceiling, and
+ * signup latency with the service-account token cache on and off.
+ */
+@Slf4j
+class KeycloakUserRegistrarTest {
+
+    @Test
+    void retryAfterUnauthorizedTakesItsOwnPermit() {
+        CreatingKeycloak keycloak = new CreatingKeycloak(Duration.ZERO, Duration.ZERO, 1);
+        // 2 lượt/giây: permit thứ hai chỉ có sau 500 ms
+        KeycloakUserRegistrar registrar = registrar(keycloak, true, 2);
+
+        long start = System.nanoTime();
+        assertEquals("user-2", registrar.register(request(1)));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(2, keycloak.creations.get());
+        assertTrue(elapsedMillis >= 400, "retry did not wait for a permit: " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void signupLatencyWithAndWithoutTheTokenCache() {
+        // độ trễ giả lập của token endpoint và admin API
+        Duration exchangeLatency = Duration.ofMillis(20);
+        Duration createLatency = Duration.ofMillis(5);
+        int signups = 50;
+
+        Timer cached = signups(new CreatingKeycloak(exchangeLatency, createLatency, 0), true, signups);
+        Timer uncached = signups(new CreatingKeycloak(exchangeLatency, createLatency, 0), false, signups);
+        log.info(">>> {} signup(s): token cache on mean {} ms, max {} ms; off mean {} ms, max {} ms", signups,
+                "%.1f".formatted(cached.mean(TimeUnit.MILLISECONDS)), "%.1f".formatted(cached.max(TimeUnit.MILLISECONDS)),
+                "%.1f".formatted(uncached.mean(TimeUnit.MILLISECONDS)), "%.1f".formatted(uncached.max(TimeUnit.MILLISECONDS)));
+
+        // bật cache thì chỉ lượt đầu trả phí đổi token
+        assertTrue(cached.totalTime(TimeUnit.MILLISECONDS) < uncached.totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    private static Timer signups(CreatingKeycloak keycloak, boolean cacheEnabled, int signups) {
+        KeycloakUserRegistrar registrar = registrar(keycloak, cacheEnabled, 1_000);
+        Timer timer = Timer.builder("signup").register(new SimpleMeterRegistry());
+        for (int i = 0; i < signups; i++) {
+            UserCreationRequest request = request(i);
+            timer.record(() -> registrar.register(request));
+        }
+        assertEquals(cacheEnabled ? 1 : signups, keycloak.exchanges.get());
+        return timer;
+    }
+
+    private static KeycloakUserRegistrar registrar(CreatingKeycloak keycloak, boolean cacheEnabled, double maxRate) {
+        KeycloakTokenManager tokens = new KeycloakTokenManager(keycloak, "realm", "client", "secret",
+                cacheEnabled, Duration.ofSeconds(30), Clock.systemUTC());
+        return new KeycloakUserRegistrar(keycloak, tokens, "realm", maxRate);
+    }
+
+    private static UserCreationRequest request(int i) {
+        return UserCreationRequest.builder()
+                .username("user" + i)
+                .email("user" + i + "@example.com")
+                .password("secret")
+                .firstName("Load")
+                .lastName("User " + i)
+                .build();
+    }
+
+    static class CreatingKeycloak extends StubKeycloak {
+
+        final AtomicInteger creations = new AtomicInteger();
+        final Duration createLatency;
+        final int unauthorizedCreations;
+
+        CreatingKeycloak(Duration exchangeLatency, Duration createLatency, int unauthorizedCreations) {
+            super(exchangeLatency);
+            this.createLatency = createLatency;
+            this.unauthorizedCreations = unauthorizedCreations;
+        }
+
+        @Override
+        public ResponseEntity<?> createUser(String realm, String token, UserCreationParam param) {
+            int n = creations.incrementAndGet();
+            if (n <= unauthorizedCreations) {
+                Request request = Request.create(Request.HttpMethod.POST, "/admin/realms/realm/users", Map.of(), null,
+                        StandardCharsets.UTF_8, null);
+                throw new FeignException.Unauthorized("revoked", request, null, Map.of());
+            }
+            try {
+                Thread.sleep(createLatency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ResponseEntity.created(URI.create("/admin/realms/realm/users/user-" + n)).build();
+        }
+    }
+}
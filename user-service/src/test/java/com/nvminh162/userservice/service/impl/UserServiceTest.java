@@ -0,0 +1,138 @@
+package com.nvminh162.userservice.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import com.nvminh162.userservice.cache.UserResponseCache;
+import com.nvminh162.userservice.dto.request.UserUpdatenRequest;
+import com.nvminh162.userservice.dto.response.UserResponse;
+import com.nvminh162.userservice.entity.User;
+import com.nvminh162.userservice.mapper.UserMapper;
+import com.nvminh162.userservice.repository.KeycloakClient;
+import com.nvminh162.userservice.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UserServiceTest {
+
+    UserRepository userRepository = mock(UserRepository.class);
+    UserMapper userMapper = mock(UserMapper.class);
+    UserService userService = new UserService(userRepository, mock(KeycloakClient.class),
+            mock(KeycloakUserRegistrar.class), mock(BulkUserProvisioner.class), userMapper,
+            new UserResponseCache(true, 100, Duration.ofMinutes(10), new SimpleMeterRegistry()));
+
+    @Test
+    void lookupsByUserIdAreCachedUntilUpdateOrDelete() {
+        User user = User.builder().id(1L).userId("kc-1").username("alice").build();
+        when(userRepository.findByUserId("kc-1")).thenReturn(Optional.of(user));
+        when(userRepository.save(any())).thenAnswer(call -> call.getArgument(0));
+        doAnswer(call -> {
+            User target = call.getArgument(0);
+            target.setUsername(((UserUpdatenRequest) call.getArgument(1)).getUsername());
+            return null;
+        }).when(userMapper).updateUser(any(), any());
+        when(userMapper.toResponse(any())).thenAnswer(call -> {
+            User source = call.getArgument(0);
+            return UserResponse.builder().id(source.getId()).userId(source.getUserId()).username(source.getUsername()).build();
+        });
+
+        userService.getUserById("kc-1");
+        userService.getUserById("kc-1");
+        verify(userRepository, times(1)).findByUserId("kc-1");
+
+        // update đọc entity (lần 2) rồi ghi bản mới vào cache: lượt get sau không đọc lại
+        userService.updateUser("kc-1", UserUpdatenRequest.builder().username("alice2").build());
+        assertEquals("alice2", userService.getUserById("kc-1").getUsername());
+        verify(userRepository, times(2)).findByUserId("kc-1");
+
+        userService.deleteUser("kc-1");
+        when(userRepository.findByUserId("kc-1")).thenReturn(Optional.empty());
+        RuntimeException notFound = assertThrows(RuntimeException.class, () -> userService.getUserById("kc-1"));
+        assertEquals("User not found with id: kc-1", notFound.getMessage());
+    }
+
+    @Test
+    void updateWinsOverAStaleLoadStillInFlight() throws Exception {
+        User stored = User.builder().id(1L).userId("kc-1").username("alice").build();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch updated = new CountDownLatch(1);
+        when(userRepository.save(any())).thenAnswer(call -> call.getArgument(0));
+        doAnswer(call -> {
+            User target = call.getArgument(0);
+            target.setUsername(((UserUpdatenRequest) call.getArgument(1)).getUsername());
+            return null;
+        }).when(userMapper).updateUser(any(), any());
+        when(userMapper.toResponse(any())).thenAnswer(call -> {
+            User source = call.getArgument(0);
+            return UserResponse.builder().userId(source.getUserId()).username(source.getUsername()).build();
+        });
+        // lượt đọc đầu lấy bản cũ rồi bị chặn tới khi update xong
+        when(userRepository.findByUserId("kc-1")).thenAnswer(call -> {
+            if (Thread.currentThread().getName().equals("stale-reader")) {
+                User snapshot = User.builder().id(1L).userId("kc-1").username("alice").build();
+                loading.countDown();
+                updated.await(5, TimeUnit.SECONDS);
+                return Optional.of(snapshot);
+            }
+            return Optional.of(stored);
+        });
+
+        Thread reader = new Thread(() -> userService.getUserById("kc-1"), "stale-reader");
+        reader.start();
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        userService.updateUser("kc-1", UserUpdatenRequest.builder().username("alice2").build());
+        updated.countDown();
+        reader.join(5_000);
+
+        assertEquals("alice2", userService.getUserById("kc-1").getUsername());
+    }
+
+    @Test
+    void deleteWinsOverAStaleLoadStillInFlight() throws Exception {
+        User stored = User.builder().id(1L).userId("kc-1").username("alice").build();
+        AtomicBoolean deleted = new AtomicBoolean();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch deletedLatch = new CountDownLatch(1);
+        when(userMapper.toResponse(any())).thenAnswer(call -> {
+            User source = call.getArgument(0);
+            return UserResponse.builder().userId(source.getUserId()).username(source.getUsername()).build();
+        });
+        doAnswer(call -> {
+            deleted.set(true);
+            return null;
+        }).when(userRepository).delete(any());
+        // lượt đọc đầu lấy user còn tồn tại rồi bị chặn tới khi xoá xong
+        when(userRepository.findByUserId("kc-1")).thenAnswer(call -> {
+            if (Thread.currentThread().getName().equals("stale-reader")) {
+                loading.countDown();
+                deletedLatch.await(5, TimeUnit.SECONDS);
+                return Optional.of(stored);
+            }
+            return deleted.get() ? Optional.empty() : Optional.of(stored);
+        });
+
+        Thread reader = new Thread(() -> userService.getUserById("kc-1"), "stale-reader");
+        reader.start();
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        userService.deleteUser("kc-1");
+        deletedLatch.countDown();
+        reader.join(5_000);
+
+        assertThrows(RuntimeException.class, () -> userService.getUserById("kc-1"));
+    }
+}